@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An {@link InputStream} that reads a region of a file using positional reads on a {@link FileChannel}. Closing the stream closes the channel.
+ */
+public class FileChannelRegionInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    public FileChannelRegionInputStream(FileChannel channel, long start, long length) {
+        this.channel = channel;
+        this.position = start;
+        this.end = start + length;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, end - position);
+    }
+
+    @Override
+    public long skip(long n) {
+        long count = Math.max(0, Math.min(n, end - position));
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] bytes = new byte[1];
+        int count = read(bytes, 0, 1);
+        return count == -1 ? -1 : bytes[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= end) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position));
+        int count = channel.read(buffer, position);
+        if (count == -1) {
+            // The file is shorter than the region
+            return -1;
+        }
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -20,12 +20,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Nullable;
 import org.gradle.api.specs.Spec;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.Stoppable;
-import org.gradle.internal.reflect.JavaReflectionUtil;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.util.BiFunction;
 
 import java.io.Closeable;
@@ -42,12 +43,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Formatter;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
@@ -85,14 +84,15 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
     private static final ConcurrentMap<Class<?>, RelevantMethods> METHODS_CACHE = new ConcurrentHashMap<Class<?>, RelevantMethods>();
     private static final ConcurrentMap<Type, BiFunction<ServiceProvider, LookupContext, Provider>> SERVICE_TYPE_PROVIDER_CACHE = new ConcurrentHashMap<Type, BiFunction<ServiceProvider, LookupContext, Provider>>();
-    private final Map<Type, ServiceProvider> providerCache = new HashMap<Type, ServiceProvider>();
+    // The instances of the services that have been located, so that these can be returned without locking
+    private final ConcurrentMap<Type, Object> serviceCache = new ConcurrentHashMap<Type, Object>();
 
     private final Object lock = new Object();
     private final OwnServices ownServices;
     private final Provider allServices;
     private final Provider parentServices;
     private final String displayName;
-    private boolean closed;
+    private volatile boolean closed;
     private boolean mutable = true; // access under lock
 
     public DefaultServiceRegistry() {
@@ -157,17 +157,56 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     static class RelevantMethods {
-        final List<Method> decorators;
-        final List<Method> factories;
-        final List<Method> configurers;
+        final List<ServiceMethod> decorators;
+        final List<ServiceMethod> factories;
+        final List<ServiceMethod> configurers;
 
-        public RelevantMethods(List<Method> decorators, List<Method> factories, List<Method> configurers) {
+        public RelevantMethods(List<ServiceMethod> decorators, List<ServiceMethod> factories, List<ServiceMethod> configurers) {
             this.decorators = decorators;
             this.factories = factories;
             this.configurers = configurers;
         }
     }
 
+    /**
+     * A factory, decorator or configure method of a registry or provider class. The details of the method that are needed to wire up and invoke the method are calculated
+     * once per class and shared by all registries and providers of that class.
+     */
+    static class ServiceMethod {
+        final Method method;
+        final Type serviceType;
+        final Type[] parameterTypes;
+        final String owner;
+        final String name;
+
+        ServiceMethod(Method method) {
+            this.method = method;
+            this.serviceType = method.getGenericReturnType();
+            this.parameterTypes = method.getGenericParameterTypes();
+            this.owner = method.getDeclaringClass().getSimpleName();
+            this.name = method.getName();
+            method.setAccessible(true);
+        }
+
+        Object invoke(Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not call %s.%s() on %s", owner, name, target), e);
+            }
+        }
+
+        private static List<ServiceMethod> of(List<Method> methods) {
+            List<ServiceMethod> result = new ArrayList<ServiceMethod>(methods.size());
+            for (Method method : methods) {
+                result.add(new ServiceMethod(method));
+            }
+            return result;
+        }
+    }
+
     static class RelevantMethodsBuilder {
         final List<Method> remainingMethods;
         final Class<?> type;
@@ -193,7 +232,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         }
 
         RelevantMethods build() {
-            return new RelevantMethods(decorators, factories, configurers);
+            return new RelevantMethods(ServiceMethod.of(decorators), ServiceMethod.of(factories), ServiceMethod.of(configurers));
         }
     }
 
@@ -201,16 +240,16 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     private void findProviderMethods(Object target) {
         Class<?> type = target.getClass();
         RelevantMethods methods = getMethods(type);
-        for (Method method : methods.decorators) {
+        for (ServiceMethod method : methods.decorators) {
             if (parentServices == null) {
-                throw new ServiceLookupException(String.format("Cannot use decorator method %s.%s() when no parent registry is provided.", type.getSimpleName(), method.getName()));
+                throw new ServiceLookupException(String.format("Cannot use decorator method %s.%s() when no parent registry is provided.", type.getSimpleName(), method.name));
             }
             ownServices.add(new DecoratorMethodService(target, method));
         }
-        for (Method method : methods.factories) {
+        for (ServiceMethod method : methods.factories) {
             ownServices.add(new FactoryMethodService(target, method));
         }
-        for (Method method : methods.configurers) {
+        for (ServiceMethod method : methods.configurers) {
             applyConfigureMethod(method, target);
         }
     }
@@ -235,30 +274,30 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return relevantMethods;
     }
 
-    private void applyConfigureMethod(Method method, Object target) {
-        Object[] params = new Object[method.getGenericParameterTypes().length];
+    private void applyConfigureMethod(ServiceMethod method, Object target) {
+        Object[] params = new Object[method.parameterTypes.length];
         DefaultLookupContext context = new DefaultLookupContext();
-        for (int i = 0; i < method.getGenericParameterTypes().length; i++) {
-            Type paramType = method.getGenericParameterTypes()[i];
+        for (int i = 0; i < method.parameterTypes.length; i++) {
+            Type paramType = method.parameterTypes[i];
             if (paramType.equals(ServiceRegistration.class)) {
                 params[i] = newRegistration();
             } else {
                 ServiceProvider paramProvider = context.find(paramType, allServices);
                 if (paramProvider == null) {
                     throw new ServiceLookupException(String.format("Cannot configure services using %s.%s() as required service of type %s is not available.",
-                        method.getDeclaringClass().getSimpleName(),
-                        method.getName(),
+                        method.owner,
+                        method.name,
                         format(paramType)));
                 }
                 params[i] = paramProvider.get();
             }
         }
         try {
-            invoke(method, target, params);
+            method.invoke(target, params);
         } catch (Exception e) {
             throw new ServiceLookupException(String.format("Could not configure services using %s.%s().",
-                method.getDeclaringClass().getSimpleName(),
-                method.getName()), e);
+                method.owner,
+                method.name), e);
         }
     }
 
@@ -362,6 +401,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
                 CompositeStoppable.stoppable(allServices).stop();
             } finally {
                 closed = true;
+                serviceCache.clear();
             }
         }
     }
@@ -416,17 +456,22 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
 
     private Object doGet(Type serviceType) throws IllegalArgumentException {
+        // A service instance does not change once it has been created, so can be returned without locking
+        Object instance = serviceCache.get(serviceType);
+        if (instance != null && !closed) {
+            return instance;
+        }
         synchronized (lock) {
             mutable = false;
             if (closed) {
                 throw new IllegalStateException(String.format("Cannot locate service of type %s, as %s has been closed.", format(serviceType), getDisplayName()));
             }
-            ServiceProvider provider = providerCache.get(serviceType);
-            if (provider == null) {
-                provider = getServiceProvider(serviceType);
-                providerCache.put(serviceType, provider);
+            instance = serviceCache.get(serviceType);
+            if (instance == null) {
+                instance = getServiceProvider(serviceType).get();
+                serviceCache.put(serviceType, instance);
             }
-            return provider.get();
+            return instance;
         }
     }
 
@@ -458,10 +503,6 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return getFactory(type).create();
     }
 
-    private static Object invoke(Method method, Object target, Object... args) {
-        return JavaReflectionUtil.method(target, Object.class, method).invoke(target, args);
-    }
-
     interface ServiceProvider {
         String getDisplayName();
 
@@ -768,45 +809,45 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private class FactoryMethodService extends FactoryService {
-        private final Method method;
+        private final ServiceMethod method;
         private Object target;
 
-        public FactoryMethodService(Object target, Method method) {
-            super(method.getGenericReturnType());
+        public FactoryMethodService(Object target, ServiceMethod method) {
+            super(method.serviceType);
             this.target = target;
             this.method = method;
         }
 
         public String getDisplayName() {
-            return "Service " + format(method.getGenericReturnType()) + " at " + method.getDeclaringClass().getSimpleName() + "." +  method.getName() + "()";
+            return "Service " + format(method.serviceType) + " at " + method.owner + "." +  method.name + "()";
         }
 
         protected Type[] getParameterTypes() {
-            return method.getGenericParameterTypes();
+            return method.parameterTypes;
         }
 
         @Override
         protected Member getFactory() {
-            return method;
+            return method.method;
         }
 
         protected Object invokeMethod(Object[] params) {
             Object result;
             try {
-                result = invoke(method, target, params);
+                result = method.invoke(target, params);
             } catch (Exception e) {
                 throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s().",
                     format(serviceType),
-                    method.getDeclaringClass().getSimpleName(),
-                    method.getName()),
+                    method.owner,
+                    method.name),
                     e);
             }
             try {
                 if (result == null) {
                     throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s() as this method returned null.",
                         format(serviceType),
-                        method.getDeclaringClass().getSimpleName(),
-                        method.getName()));
+                        method.owner,
+                        method.name));
                 }
                 return result;
             } finally {
@@ -886,30 +927,30 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private class DecoratorMethodService extends SingletonService {
-        private final Method method;
+        private final ServiceMethod method;
         private Object target;
         private ServiceProvider paramProvider;
 
-        public DecoratorMethodService(Object target, Method method) {
-            super(method.getGenericReturnType());
+        public DecoratorMethodService(Object target, ServiceMethod method) {
+            super(method.serviceType);
             this.target = target;
             this.method = method;
         }
 
         public String getDisplayName() {
-            return "Service " + format(method.getGenericReturnType()) + " at " + method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+            return "Service " + format(method.serviceType) + " at " + method.owner + "." + method.name + "()";
         }
 
         @Override
         protected void bind(LookupContext context) {
-            Type paramType = method.getGenericParameterTypes()[0];
+            Type paramType = method.parameterTypes[0];
             DefaultLookupContext parentLookupContext = new DefaultLookupContext();
             paramProvider = parentLookupContext.find(paramType, parentServices);
             if (paramProvider == null) {
                 throw new ServiceCreationException(String.format("Cannot create service of type %s using %s.%s() as required service of type %s is not available in parent registries.",
-                    format(method.getGenericReturnType()),
-                    method.getDeclaringClass().getSimpleName(),
-                    method.getName(),
+                    format(method.serviceType),
+                    method.owner,
+                    method.name,
                     format(paramType)));
             }
         }
@@ -919,20 +960,20 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             Object param = paramProvider.get();
             Object result;
             try {
-                result = invoke(method, target, param);
+                result = method.invoke(target, param);
             } catch (Exception e) {
                 throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s().",
-                    format(method.getGenericReturnType()),
-                    method.getDeclaringClass().getSimpleName(),
-                    method.getName()),
+                    format(method.serviceType),
+                    method.owner,
+                    method.name),
                     e);
             }
             try {
                 if (result == null) {
                     throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s() as this method returned null.",
-                        format(method.getGenericReturnType()),
-                        method.getDeclaringClass().getSimpleName(),
-                        method.getName()));
+                        format(method.serviceType),
+                        method.owner,
+                        method.name));
                 }
                 return result;
             } finally {
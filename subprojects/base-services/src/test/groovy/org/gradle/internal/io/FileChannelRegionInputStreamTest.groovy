@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.io
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class FileChannelRegionInputStreamTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def file = tmpDir.file("data.bin")
+
+    def setup() {
+        file.bytes = [1, 2, 3, 4, 5] as byte[]
+    }
+
+    def "reads bytes of region"() {
+        def stream = open(1, 3)
+        def bytes = new byte[5]
+
+        expect:
+        stream.available() == 3
+        stream.read() == 2
+        stream.read(bytes, 0, 5) == 2
+        bytes[0] == 3
+        bytes[1] == 4
+        stream.read() == -1
+        stream.read(bytes, 0, 5) == -1
+
+        cleanup:
+        stream.close()
+    }
+
+    def "can skip bytes"() {
+        def stream = open(0, 3)
+
+        expect:
+        stream.skip(2) == 2
+        stream.read() == 3
+        stream.skip(2) == 0
+
+        cleanup:
+        stream.close()
+    }
+
+    def "closing the stream closes the channel so the file can be deleted"() {
+        def stream = open(0, 5)
+        stream.read()
+
+        when:
+        stream.close()
+
+        then:
+        file.delete()
+    }
+
+    private FileChannelRegionInputStream open(long start, long length) {
+        return new FileChannelRegionInputStream(new RandomAccessFile(file, "r").getChannel(), start, length)
+    }
+}
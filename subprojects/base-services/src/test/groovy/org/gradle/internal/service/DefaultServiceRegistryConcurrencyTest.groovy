@@ -131,4 +131,35 @@ class DefaultServiceRegistryConcurrencyTest extends ConcurrentSpec {
         then:
         instant.constructed < instant.stopped
     }
+
+    def "can locate a service that has been created while another service is being created"() {
+        def registry = new DefaultServiceRegistry()
+        registry.addProvider(new Object() {
+            Integer createInteger() {
+                return 12
+            }
+
+            String createString() {
+                instant.creating
+                thread.blockUntil.located
+                return "value"
+            }
+        })
+        registry.get(Integer)
+
+        when:
+        async {
+            start {
+                assert registry.get(String) == "value"
+            }
+            start {
+                thread.blockUntil.creating
+                assert registry.get(Integer) == 12
+                instant.located
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+
+class ParallelConfigurationIntegrationTest extends AbstractIntegrationSpec {
+
+    def setup() {
+        file("gradle.properties") << "org.gradle.configure.parallel=true"
+        executer.withArgument("--max-workers=4")
+        // Projects signal each other through system properties, as they are configured by threads of the same process
+        buildFile << """
+            System.properties.keySet().findAll { it.startsWith('parallel.test.') }.each { System.clearProperty(it) }
+            ext.signal = { String name -> System.setProperty("parallel.test.\$name", "true") }
+            ext.waitFor = { String name ->
+                def deadline = System.currentTimeMillis() + 30000
+                while (System.getProperty("parallel.test.\$name") == null) {
+                    assert System.currentTimeMillis() < deadline : "Timed out waiting for \$name"
+                    Thread.sleep(10)
+                }
+            }
+        """
+    }
+
+    def "configures sibling projects concurrently"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            signal('a.started')
+            waitFor('b.started')
+            task hello
+        """
+        file("b/build.gradle") << """
+            signal('b.started')
+            waitFor('a.started')
+            task hello
+        """
+
+        expect:
+        succeeds "hello"
+        result.assertTasksExecuted(":a:hello", ":b:hello")
+    }
+
+    def "configures a project after its parent"() {
+        settingsFile << "include 'a', 'a:c'"
+        buildFile << """
+            subprojects {
+                ext.configuredBy = 'root'
+            }
+        """
+        file("a/build.gradle") << """
+            ext.fromParent = 'a'
+        """
+        file("a/c/build.gradle") << """
+            assert configuredBy == 'root'
+            assert fromParent == 'a'
+            task hello
+        """
+
+        expect:
+        succeeds ":a:c:hello"
+    }
+
+    def "looking up a project that another thread is configuring waits until it has been configured"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            waitFor('b.started')
+            assert project(':b').value == 'configured'
+        """
+        file("b/build.gradle") << """
+            signal('b.started')
+            Thread.sleep(200)
+            afterEvaluate {
+                Thread.sleep(200)
+                ext.value = 'configured'
+            }
+        """
+
+        expect:
+        succeeds "help"
+    }
+
+    def "evaluationDependsOn returns a project once its afterEvaluate actions have run"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            waitFor('b.started')
+            evaluationDependsOn(':b')
+            assert project(':b').value == 'configured'
+        """
+        file("b/build.gradle") << """
+            signal('b.started')
+            afterEvaluate {
+                Thread.sleep(200)
+                ext.value = 'configured'
+            }
+        """
+
+        expect:
+        succeeds "help"
+    }
+
+    def "projects can add tasks and configurations to the root project"() {
+        settingsFile << "include 'a', 'b', 'c', 'd'"
+        ['a', 'b', 'c', 'd'].each { name ->
+            file("${name}/build.gradle") << """
+                50.times { i ->
+                    rootProject.tasks.create("${name}\$i")
+                    rootProject.configurations.create("${name}\$i")
+                }
+            """
+        }
+        buildFile << """
+            gradle.projectsEvaluated {
+                assert tasks.matching { it.name ==~ /[a-d]\\d+/ }.size() == 200
+                assert configurations.matching { it.name ==~ /[a-d]\\d+/ }.size() == 200
+            }
+        """
+
+        expect:
+        succeeds "help"
+    }
+
+    def "can build projects that depend on each other"() {
+        settingsFile << "include 'a', 'b', 'c'"
+        buildFile << """
+            subprojects {
+                apply plugin: 'java'
+            }
+        """
+        file("a/build.gradle") << "dependencies { compile project(':b') }"
+        file("b/build.gradle") << "dependencies { compile project(':c') }"
+        file("a/src/main/java/A.java") << "public class A extends B {}"
+        file("b/src/main/java/B.java") << "public class B extends C {}"
+        file("c/src/main/java/C.java") << "public class C {}"
+
+        expect:
+        succeeds ":a:build"
+        file("a/build/classes/main/A.class").assertIsFile()
+    }
+
+    def "does not configure projects in parallel with configuration on demand"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << "task hello"
+        file("b/build.gradle") << "println 'configuring b'"
+
+        when:
+        run ":a:hello", "--configure-on-demand"
+
+        then:
+        !output.contains("configuring b")
+    }
+
+    def "fails in strict mode when a project looks up a project that another thread is configuring"() {
+        file("gradle.properties").text = "org.gradle.configure.parallel=strict"
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            waitFor('b.started')
+            try {
+                project(':b')
+            } finally {
+                signal('a.done')
+            }
+        """
+        file("b/build.gradle") << """
+            signal('b.started')
+            waitFor('a.done')
+        """
+
+        expect:
+        fails "help"
+        failure.assertHasCause("Cannot access project ':b' while it is being configured in parallel.")
+    }
+
+    def "fails in strict mode when a project changes its parent"() {
+        file("gradle.properties").text = "org.gradle.configure.parallel=strict"
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            rootProject.tasks.create('fromA')
+        """
+
+        expect:
+        fails "help"
+        failure.assertHasCause("Cannot change project ':' from project ':a' while projects are configured in parallel.")
+    }
+
+    def "a project can change the extra properties and dependencies of a sibling"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            project(':b') {
+                ext.fromA = 'a'
+                configurations.create('fromA')
+                dependencies {
+                    fromA files('a.jar')
+                }
+            }
+        """
+        file("b/build.gradle") << """
+            ext.fromB = 'b'
+        """
+        buildFile << """
+            gradle.projectsEvaluated {
+                assert project(':b').fromA == 'a'
+                assert project(':b').fromB == 'b'
+                assert project(':b').configurations.fromA.dependencies.size() == 1
+            }
+        """
+
+        expect:
+        succeeds "help"
+    }
+
+    def "projects that add tasks to each other do not fail"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << """
+            signal('a.started')
+            waitFor('b.started')
+            project(':b').tasks.create('fromA')
+        """
+        file("b/build.gradle") << """
+            signal('b.started')
+            waitFor('a.started')
+            project(':a').tasks.create('fromB')
+        """
+
+        expect:
+        succeeds ":a:fromB", ":b:fromA"
+    }
+}
@@ -85,6 +85,8 @@ public class StartParameter implements LoggingConfiguration, Serializable {
     private boolean recompileScripts;
     private boolean parallelProjectExecution;
     private boolean configureOnDemand;
+    private boolean parallelConfiguration;
+    private boolean strictParallelConfiguration;
     private int maxWorkerCount;
     private boolean continuous;
 
@@ -223,6 +225,8 @@ public class StartParameter implements LoggingConfiguration, Serializable {
         p.refreshDependencies = refreshDependencies;
         p.parallelProjectExecution = parallelProjectExecution;
         p.configureOnDemand = configureOnDemand;
+        p.parallelConfiguration = parallelConfiguration;
+        p.strictParallelConfiguration = strictParallelConfiguration;
         p.maxWorkerCount = maxWorkerCount;
         p.systemPropertiesArgs = new HashMap<String, String>(systemPropertiesArgs);
         return p;
@@ -738,6 +742,8 @@ public class StartParameter implements LoggingConfiguration, Serializable {
             + ", refreshDependencies=" + refreshDependencies
             + ", parallelProjectExecution=" + parallelProjectExecution
             + ", configureOnDemand=" + configureOnDemand
+            + ", parallelConfiguration=" + parallelConfiguration
+            + ", strictParallelConfiguration=" + strictParallelConfiguration
             + ", maxWorkerCount=" + maxWorkerCount
             + '}';
     }
@@ -754,6 +760,44 @@ public class StartParameter implements LoggingConfiguration, Serializable {
         this.configureOnDemand = configureOnDemand;
     }
 
+    /**
+     * Returns true if the projects of the build are configured in parallel, where they do not depend on each other's configuration.
+     * Has no effect when configuration on demand is enabled.
+     */
+    @Incubating
+    public boolean isParallelConfigurationEnabled() {
+        return parallelConfiguration;
+    }
+
+    /**
+     * Enables/disables parallel project configuration.
+     *
+     * @see #isParallelConfigurationEnabled()
+     */
+    @Incubating
+    public void setParallelConfigurationEnabled(boolean parallelConfiguration) {
+        this.parallelConfiguration = parallelConfiguration;
+    }
+
+    /**
+     * Returns true if a project configured in parallel fails when it accesses a project that another thread is configuring or has accessed, a project
+     * that is neither one of its ancestors nor one of its descendants, or changes one of its ancestors, rather than waiting for the other project.
+     */
+    @Incubating
+    public boolean isStrictParallelConfiguration() {
+        return strictParallelConfiguration;
+    }
+
+    /**
+     * Enables/disables strict parallel project configuration.
+     *
+     * @see #isStrictParallelConfiguration()
+     */
+    @Incubating
+    public void setStrictParallelConfiguration(boolean strictParallelConfiguration) {
+        this.strictParallelConfiguration = strictParallelConfiguration;
+    }
+
     @Incubating
     public boolean isContinuous() {
         return continuous;
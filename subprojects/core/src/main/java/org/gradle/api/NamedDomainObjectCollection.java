@@ -178,6 +178,9 @@ public interface NamedDomainObjectCollection<T> extends DomainObjectCollection<T
 
     /**
      * {@inheritDoc}
+     *
+     * <p>The same collection may be returned for each call with the same type, so extensions and extra properties added to the returned collection
+     * may be visible to other callers.</p>
      */
     <S extends T> NamedDomainObjectCollection<S> withType(Class<S> type);
 
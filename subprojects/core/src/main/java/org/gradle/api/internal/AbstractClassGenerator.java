@@ -16,8 +16,12 @@
 
 package org.gradle.api.internal;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import groovy.lang.Closure;
 import groovy.lang.GroovyObject;
 import org.apache.commons.collections.map.AbstractReferenceMap;
@@ -27,13 +31,20 @@ import org.gradle.api.GradleException;
 import org.gradle.api.NonExtensible;
 import org.gradle.api.Nullable;
 import org.gradle.api.plugins.ExtensionAware;
+import org.gradle.internal.hash.HashValue;
 import org.gradle.internal.reflect.*;
+import org.gradle.util.GradleVersion;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -48,11 +59,36 @@ import java.util.concurrent.locks.ReentrantLock;
  *     <li>Coercion from string to enum property is mixed in.</li>
  *     <li>{@link groovy.lang.GroovyObject} is mixed in to the class.</li>
  * </ul>
+ *
+ * <p>When a {@link GeneratedClassFileCache} is used, the byte code of a generated class is stored in it, keyed by the generator, the byte code of the
+ * target class and its super types, and the types of its properties, and reused by later processes instead of generating the class again.</p>
  */
 public abstract class AbstractClassGenerator implements ClassGenerator {
     private static final Map<Class<?>, Map<Class<?>, Class<?>>> GENERATED_CLASSES = new HashMap<Class<?>, Map<Class<?>, Class<?>>>();
     private static final Lock CACHE_LOCK = new ReentrantLock();
     private static final Collection<String> SKIP_PROPERTIES = Arrays.asList("class", "metaClass", "conventionMapping", "convention", "asDynamicObject", "extensions");
+    private static final AtomicInteger GENERATED_CLASS_COUNT = new AtomicInteger();
+    private static final AtomicInteger CACHED_CLASS_COUNT = new AtomicInteger();
+    private static final AtomicLong GENERATION_TIME = new AtomicLong();
+    private final GeneratedClassFileCache classFileCache;
+
+    protected AbstractClassGenerator() {
+        this(null);
+    }
+
+    /**
+     * Creates a generator that stores the byte code of the classes it generates in the given cache, and loads previously generated classes from it.
+     */
+    protected AbstractClassGenerator(@Nullable GeneratedClassFileCache classFileCache) {
+        this.classFileCache = classFileCache;
+    }
+
+    /**
+     * Returns the classes generated by this process so far.
+     */
+    public static ClassGenerationStatistics getStatistics() {
+        return new ClassGenerationStatistics(GENERATED_CLASS_COUNT.get(), CACHED_CLASS_COUNT.get(), GENERATION_TIME.get());
+    }
 
     public <T> T newInstance(Class<T> type, Object... parameters) {
         return DirectInstantiator.instantiate(generate(type), parameters);
@@ -91,123 +127,218 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
         }
 
         Class<? extends T> subclass;
+        long start = System.nanoTime();
         try {
             ClassMetaData classMetaData = inspectType(type);
+            HashValue key = classFileCache == null ? null : classFileKey(type, classMetaData);
+            subclass = key == null ? null : loadFromCache(key, type);
+            if (subclass == null) {
+                byte[] bytecode = generateBytecode(type, classMetaData);
+                subclass = defineClass(type, bytecode);
+                if (key != null) {
+                    classFileCache.store(key, bytecode);
+                }
+                GENERATED_CLASS_COUNT.incrementAndGet();
+            }
+        } catch (Throwable e) {
+            throw new GradleException(String.format("Could not generate a proxy class for class %s.", type.getName()), e);
+        } finally {
+            GENERATION_TIME.addAndGet(System.nanoTime() - start);
+        }
 
-            ClassBuilder<T> builder = start(type, classMetaData);
+        cache.put(type, subclass);
+        cache.put(subclass, subclass);
+        return subclass;
+    }
 
-            builder.startClass();
+    @Nullable
+    private <T> Class<? extends T> loadFromCache(HashValue key, Class<T> type) {
+        byte[] bytecode = classFileCache.load(key);
+        if (bytecode == null) {
+            return null;
+        }
+        Class<? extends T> subclass;
+        try {
+            subclass = defineClass(type, bytecode);
+        } catch (LinkageError e) {
+            // Unreadable entry, generate the class instead
+            return null;
+        }
+        CACHED_CLASS_COUNT.incrementAndGet();
+        return subclass;
+    }
 
-            if (!DynamicObjectAware.class.isAssignableFrom(type)) {
-                if (ExtensionAware.class.isAssignableFrom(type)) {
-                    throw new UnsupportedOperationException("A type that implements ExtensionAware must currently also implement DynamicObjectAware.");
+    /**
+     * Calculates the key of the generated class for the given type, from the generator, the byte code of the type, its super types and the types of its
+     * annotations, and the types of its properties. Returns null when the byte code of one of these types is not available.
+     */
+    @Nullable
+    private HashValue classFileKey(Class<?> type, ClassMetaData classMetaData) {
+        Hasher hasher = Hashing.md5().newHasher();
+        GradleVersion gradleVersion = GradleVersion.current();
+        hasher.putString(getClass().getName(), Charsets.UTF_8);
+        hasher.putString(gradleVersion.getVersion(), Charsets.UTF_8);
+        hasher.putString(String.valueOf(gradleVersion.getBuildTime()), Charsets.UTF_8);
+        hasher.putString(String.valueOf(System.getProperty("java.version")), Charsets.UTF_8);
+
+        Set<Class<?>> seen = new HashSet<Class<?>>();
+        Deque<Class<?>> queue = new ArrayDeque<Class<?>>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.removeFirst();
+            if (!seen.add(current)) {
+                continue;
+            }
+            ClassLoader classLoader = current.getClassLoader();
+            if (classLoader == null) {
+                // A JDK type, covered by the Java version
+                continue;
+            }
+            InputStream inputStream = classLoader.getResourceAsStream(current.getName().replace('.', '/') + ".class");
+            if (inputStream == null) {
+                return null;
+            }
+            try {
+                try {
+                    hasher.putString(current.getName(), Charsets.UTF_8);
+                    hasher.putBytes(ByteStreams.toByteArray(inputStream));
+                } finally {
+                    inputStream.close();
                 }
-                builder.mixInDynamicAware();
+            } catch (IOException e) {
+                return null;
             }
-            if (!GroovyObject.class.isAssignableFrom(type)) {
-                builder.mixInGroovyObject();
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
             }
-            builder.addDynamicMethods();
-            if (classMetaData.conventionAware && !IConventionAware.class.isAssignableFrom(type)) {
-                builder.mixInConventionAware();
+            queue.addAll(Arrays.asList(current.getInterfaces()));
+            for (Annotation annotation : current.getDeclaredAnnotations()) {
+                queue.add(annotation.annotationType());
             }
+        }
 
-            Class noMappingClass = Object.class;
-            for (Class<?> c = type; c != null && noMappingClass == Object.class; c = c.getSuperclass()) {
-                if (c.getAnnotation(NoConventionMapping.class) != null) {
-                    noMappingClass = c;
-                }
+        // The generated class also depends on how the property types are treated, which is not part of the byte code above
+        Map<String, PropertyMetaData> properties = new TreeMap<String, PropertyMetaData>(classMetaData.properties);
+        for (PropertyMetaData property : properties.values()) {
+            Class<?> propertyType = property.getType();
+            hasher.putString(property.name, Charsets.UTF_8);
+            hasher.putString(propertyType.getName(), Charsets.UTF_8);
+            hasher.putBoolean(propertyType.isEnum());
+            hasher.putBoolean(Iterable.class.isAssignableFrom(propertyType));
+        }
+        return new HashValue(hasher.hash().asBytes());
+    }
+
+    private <T> byte[] generateBytecode(Class<T> type, ClassMetaData classMetaData) throws Exception {
+        ClassBuilder<T> builder = start(type, classMetaData);
+
+        builder.startClass();
+
+        if (!DynamicObjectAware.class.isAssignableFrom(type)) {
+            if (ExtensionAware.class.isAssignableFrom(type)) {
+                throw new UnsupportedOperationException("A type that implements ExtensionAware must currently also implement DynamicObjectAware.");
             }
+            builder.mixInDynamicAware();
+        }
+        if (!GroovyObject.class.isAssignableFrom(type)) {
+            builder.mixInGroovyObject();
+        }
+        builder.addDynamicMethods();
+        if (classMetaData.conventionAware && !IConventionAware.class.isAssignableFrom(type)) {
+            builder.mixInConventionAware();
+        }
 
-            Set<PropertyMetaData> conventionProperties = new HashSet<PropertyMetaData>();
+        Class noMappingClass = Object.class;
+        for (Class<?> c = type; c != null && noMappingClass == Object.class; c = c.getSuperclass()) {
+            if (c.getAnnotation(NoConventionMapping.class) != null) {
+                noMappingClass = c;
+            }
+        }
 
-            for (PropertyMetaData property : classMetaData.properties.values()) {
-                if (SKIP_PROPERTIES.contains(property.name)) {
-                    continue;
-                }
+        Set<PropertyMetaData> conventionProperties = new HashSet<PropertyMetaData>();
 
-                if (property.injector) {
-                    builder.addInjectorProperty(property);
-                    for (Method getter : property.getters) {
-                        builder.applyServiceInjectionToGetter(property, getter);
-                    }
-                    for (Method setter : property.setters) {
-                        builder.applyServiceInjectionToSetter(property, setter);
-                    }
-                    continue;
+        for (PropertyMetaData property : classMetaData.properties.values()) {
+            if (SKIP_PROPERTIES.contains(property.name)) {
+                continue;
+            }
+
+            if (property.injector) {
+                builder.addInjectorProperty(property);
+                for (Method getter : property.getters) {
+                    builder.applyServiceInjectionToGetter(property, getter);
+                }
+                for (Method setter : property.setters) {
+                    builder.applyServiceInjectionToSetter(property, setter);
                 }
+                continue;
+            }
 
-                boolean needsConventionMapping = false;
-                if (classMetaData.isExtensible()) {
-                    for (Method getter : property.getters) {
-                        if (!Modifier.isFinal(getter.getModifiers()) && !getter.getDeclaringClass().isAssignableFrom(noMappingClass)) {
-                            needsConventionMapping = true;
-                            break;
-                        }
+            boolean needsConventionMapping = false;
+            if (classMetaData.isExtensible()) {
+                for (Method getter : property.getters) {
+                    if (!Modifier.isFinal(getter.getModifiers()) && !getter.getDeclaringClass().isAssignableFrom(noMappingClass)) {
+                        needsConventionMapping = true;
+                        break;
                     }
                 }
+            }
 
-                if (needsConventionMapping) {
-                    conventionProperties.add(property);
-                    builder.addConventionProperty(property);
-                    for (Method getter : property.getters) {
-                        builder.applyConventionMappingToGetter(property, getter);
-                    }
+            if (needsConventionMapping) {
+                conventionProperties.add(property);
+                builder.addConventionProperty(property);
+                for (Method getter : property.getters) {
+                    builder.applyConventionMappingToGetter(property, getter);
                 }
+            }
 
-                if (needsConventionMapping) {
-                    for (Method setter : property.setters) {
-                        if (!Modifier.isFinal(setter.getModifiers())) {
-                            builder.applyConventionMappingToSetter(property, setter);
-                        }
+            if (needsConventionMapping) {
+                for (Method setter : property.setters) {
+                    if (!Modifier.isFinal(setter.getModifiers())) {
+                        builder.applyConventionMappingToSetter(property, setter);
                     }
                 }
             }
+        }
 
-            Set<Method> actionMethods = classMetaData.missingOverloads;
-            for (Method method : actionMethods) {
-                builder.addActionMethod(method);
+        Set<Method> actionMethods = classMetaData.missingOverloads;
+        for (Method method : actionMethods) {
+            builder.addActionMethod(method);
+        }
+
+        // Adds a set method for each mutable property
+        for (PropertyMetaData property : classMetaData.properties.values()) {
+            if (property.setters.isEmpty()) {
+                continue;
+            }
+            if (Iterable.class.isAssignableFrom(property.getType())) {
+                // Currently not supported
+                continue;
             }
 
-            // Adds a set method for each mutable property
-            for (PropertyMetaData property : classMetaData.properties.values()) {
-                if (property.setters.isEmpty()) {
-                    continue;
+            if (property.setMethods.isEmpty()) {
+                for (Method setter : property.setters) {
+                    builder.addSetMethod(property, setter);
                 }
-                if (Iterable.class.isAssignableFrom(property.getType())) {
-                    // Currently not supported
-                    continue;
-                }
-
-                if (property.setMethods.isEmpty()) {
-                    for (Method setter : property.setters) {
-                        builder.addSetMethod(property, setter);
-                    }
-                } else if (conventionProperties.contains(property)) {
-                    for (Method setMethod : property.setMethods) {
-                        builder.applyConventionMappingToSetMethod(property, setMethod);
-                    }
+            } else if (conventionProperties.contains(property)) {
+                for (Method setMethod : property.setMethods) {
+                    builder.applyConventionMappingToSetMethod(property, setMethod);
                 }
             }
+        }
 
-            for (Constructor<?> constructor : type.getConstructors()) {
-                if (Modifier.isPublic(constructor.getModifiers())) {
-                    builder.addConstructor(constructor);
-                }
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (Modifier.isPublic(constructor.getModifiers())) {
+                builder.addConstructor(constructor);
             }
-
-            subclass = builder.generate();
-        } catch (Throwable e) {
-            throw new GradleException(String.format("Could not generate a proxy class for class %s.", type.getName()), e);
         }
 
-        cache.put(type, subclass);
-        cache.put(subclass, subclass);
-        return subclass;
+        return builder.generate();
     }
 
     protected abstract <T> ClassBuilder<T> start(Class<T> type, ClassMetaData classMetaData);
 
+    protected abstract <T> Class<? extends T> defineClass(Class<T> type, byte[] bytecode);
+
     private ClassMetaData inspectType(Class<?> type) {
         boolean isConventionAware = type.getAnnotation(NoConventionMapping.class) == null;
         boolean extensible = JavaReflectionUtil.getAnnotation(type, NonExtensible.class) == null;
@@ -427,6 +558,6 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 
         void addActionMethod(Method method) throws Exception;
 
-        Class<? extends T> generate() throws Exception;
+        byte[] generate() throws Exception;
     }
 }
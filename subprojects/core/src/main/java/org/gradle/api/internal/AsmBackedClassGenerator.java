@@ -61,11 +61,24 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
 
     private static final JavaMethod<ClassLoader, Class> DEFINE_CLASS_METHOD = JavaReflectionUtil.method(ClassLoader.class, Class.class, "defineClass", String.class, byte[].class, Integer.TYPE, Integer.TYPE);
 
+    public AsmBackedClassGenerator() {
+    }
+
+    public AsmBackedClassGenerator(GeneratedClassFileCache classFileCache) {
+        super(classFileCache);
+    }
+
     @Override
     protected <T> ClassBuilder<T> start(Class<T> type, ClassMetaData classMetaData) {
         return new ClassBuilderImpl<T>(type, classMetaData);
     }
 
+    @Override
+    protected <T> Class<? extends T> defineClass(Class<T> type, byte[] bytecode) {
+        Class<?> generatedClass = DEFINE_CLASS_METHOD.invoke(type.getClassLoader(), ClassBuilderImpl.generatedTypeName(type), bytecode, 0, bytecode.length);
+        return generatedClass.asSubclass(type);
+    }
+
     private static class ClassBuilderImpl<T> implements ClassBuilder<T> {
         public static final int PV_FINAL_STATIC = Opcodes.ACC_PRIVATE | ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC;
         private static final Set<? extends Class<?>> PRIMITIVE_TYPES = ImmutableSet.of(Byte.TYPE, Boolean.TYPE, Character.TYPE, Short.TYPE, Integer.TYPE, Long.TYPE, Float.TYPE, Double.TYPE);
@@ -114,7 +127,7 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
             this.type = type;
 
             visitor = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-            typeName = type.getName() + "_Decorated";
+            typeName = generatedTypeName(type);
             generatedType = Type.getType("L" + typeName.replaceAll("\\.", "/") + ";");
             superclassType = Type.getType(type);
             extensible = classMetaData.isExtensible();
@@ -122,6 +135,10 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
             providesOwnDynamicObject = classMetaData.providesDynamicObjectImplementation();
         }
 
+        static String generatedTypeName(Class<?> type) {
+            return type.getName() + "_Decorated";
+        }
+
         public void startClass() {
             List<String> interfaceTypes = new ArrayList<String>();
             if (conventionAware && extensible) {
@@ -933,12 +950,11 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
             }
         }
 
-        public Class<? extends T> generate() {
+        public byte[] generate() {
             writeGenericReturnTypeFields();
             visitor.visitEnd();
 
-            byte[] bytecode = visitor.toByteArray();
-            return DEFINE_CLASS_METHOD.invoke(type.getClassLoader(), typeName, bytecode, 0, bytecode.length);
+            return visitor.toByteArray();
         }
 
         private void writeGenericReturnTypeFields() {
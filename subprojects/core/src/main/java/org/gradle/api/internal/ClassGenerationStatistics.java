@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of classes that have been generated or loaded from the generated class cache, and the time spent doing so.
+ */
+public class ClassGenerationStatistics {
+    private final int generatedClasses;
+    private final int cachedClasses;
+    private final long elapsedNanos;
+
+    public ClassGenerationStatistics(int generatedClasses, int cachedClasses, long elapsedNanos) {
+        this.generatedClasses = generatedClasses;
+        this.cachedClasses = cachedClasses;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getGeneratedClasses() {
+        return generatedClasses;
+    }
+
+    public int getCachedClasses() {
+        return cachedClasses;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns the statistics since the given statistics were taken.
+     */
+    public ClassGenerationStatistics since(ClassGenerationStatistics start) {
+        return new ClassGenerationStatistics(generatedClasses - start.generatedClasses, cachedClasses - start.cachedClasses, elapsedNanos - start.elapsedNanos);
+    }
+}
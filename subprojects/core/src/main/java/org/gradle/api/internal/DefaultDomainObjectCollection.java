@@ -150,6 +150,13 @@ public class DefaultDomainObjectCollection<T> extends AbstractCollection<T> impl
         mutateActions.add(action);
     }
 
+    /**
+     * Removes an action added by {@link #beforeChange(Runnable)}.
+     */
+    public void removeBeforeChange(Runnable action) {
+        mutateActions.remove(action);
+    }
+
     private Action<? super T> toAction(final Closure action) {
         return new ClosureBackedAction<T>(action);
     }
@@ -19,17 +19,21 @@ import groovy.lang.Closure;
 import org.gradle.api.*;
 import org.gradle.api.internal.collections.CollectionEventRegister;
 import org.gradle.api.internal.collections.CollectionFilter;
+import org.gradle.api.internal.collections.FilteredCollection;
 import org.gradle.api.internal.plugins.DefaultConvention;
 import org.gradle.api.plugins.Convention;
 import org.gradle.api.plugins.ExtensionContainer;
 import org.gradle.api.specs.Spec;
 import org.gradle.api.specs.Specs;
+import org.gradle.internal.Cast;
 import org.gradle.internal.metaobject.*;
 import org.gradle.internal.metaobject.DynamicObject;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.util.ConfigureUtil;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCollection<T> implements NamedDomainObjectCollection<T>, DynamicObjectAware {
 
@@ -43,6 +47,7 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
     private final List<Rule> rules = new ArrayList<Rule>();
     private Set<String> applyingRulesFor = new HashSet<String>();
+    private Map<Class<?>, DefaultNamedDomainObjectCollection<?>> typeFilteredViews;
 
     public DefaultNamedDomainObjectCollection(Class<? extends T> type, Collection<T> store, Instantiator instantiator, Namer<? super T> namer) {
         super(type, store);
@@ -143,6 +148,13 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
         return index.filter(filter);
     }
 
+    /**
+     * Returns the elements of this collection that may be instances of the given type, ordered by name.
+     */
+    protected Collection<? extends T> candidatesOfType(Class<?> type) {
+        return index.candidates(type.isAssignableFrom(getType()) ? Object.class : type);
+    }
+
     /**
      * Creates a filtered version of this collection.
      */
@@ -150,6 +162,27 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
         return instantiator.newInstance(DefaultNamedDomainObjectCollection.class, this, filter, instantiator, namer);
     }
 
+    /**
+     * Returns a filtered version of this collection that contains the elements of the given type, as created by {@link #filtered(CollectionFilter)}.
+     * The view is created once per type and reused, as these views are live and are requested very frequently. This means that any extensions or
+     * extra properties added to the view are shared by all callers.
+     *
+     * <p>Views may be requested by several threads when projects are configured in parallel, so they are created while holding a lock.</p>
+     */
+    protected <S extends T> DefaultNamedDomainObjectCollection<S> typeFiltered(Class<S> type) {
+        synchronized (index) {
+            if (typeFilteredViews == null) {
+                typeFilteredViews = new HashMap<Class<?>, DefaultNamedDomainObjectCollection<?>>();
+            }
+            DefaultNamedDomainObjectCollection<?> view = typeFilteredViews.get(type);
+            if (view == null) {
+                view = filtered(createFilter(type));
+                typeFilteredViews.put(type, view);
+            }
+            return Cast.uncheckedCast(view);
+        }
+    }
+
     public String getDisplayName() {
         return getTypeDisplayName() + " container";
     }
@@ -163,7 +196,7 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
     }
 
     public <S extends T> NamedDomainObjectCollection<S> withType(Class<S> type) {
-        return filtered(createFilter(type));
+        return typeFiltered(type);
     }
 
     public NamedDomainObjectCollection<T> matching(Spec<? super T> spec) {
@@ -337,8 +370,12 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
         @Override
         public void invokeMethod(String name, InvokeMethodResult result, Object... arguments) {
-            if (isConfigureMethod(name, arguments)) {
-                result.result(ConfigureUtil.configure((Closure) arguments[0], getByName(name)));
+            if (arguments.length == 1 && arguments[0] instanceof Closure) {
+                // Look up the element only once, as a failed lookup applies the rules of this container
+                T t = findByName(name);
+                if (t != null) {
+                    result.result(ConfigureUtil.configure((Closure) arguments[0], t));
+                }
             }
         }
 
@@ -358,21 +395,59 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
         NavigableMap<String, T> asMap();
 
+        /**
+         * Returns the values of this index that may be instances of the given type, ordered by name.
+         */
+        Collection<? extends T> candidates(Class<?> type);
+
         <S extends T> Index<S> filter(CollectionFilter<S> filter);
     }
 
     protected static class UnfilteredIndex<T> implements Index<T> {
 
         private final NavigableMap<String, T> map = new TreeMap<String, T>();
+        // Secondary indexes of the values that are instances of a given type, created when first queried and maintained as values are added and removed.
+        // Querying is a read of the collection that may happen from several threads, so an index is fully built before it is published.
+        private final ConcurrentMap<Class<?>, NavigableMap<String, T>> typeIndexes = new ConcurrentHashMap<Class<?>, NavigableMap<String, T>>(4, 0.75f, 1);
 
         @Override
         public NavigableMap<String, T> asMap() {
             return map;
         }
 
+        /**
+         * Returns the entries of this index whose values are instances of the given type.
+         */
+        NavigableMap<String, T> asMap(Class<?> type) {
+            if (type == Object.class) {
+                return map;
+            }
+            NavigableMap<String, T> typeIndex = typeIndexes.get(type);
+            if (typeIndex == null) {
+                typeIndex = new TreeMap<String, T>();
+                for (Map.Entry<String, T> entry : map.entrySet()) {
+                    if (type.isInstance(entry.getValue())) {
+                        typeIndex.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                NavigableMap<String, T> existing = typeIndexes.putIfAbsent(type, typeIndex);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            return typeIndex;
+        }
+
         @Override
         public void put(String name, T value) {
-            map.put(name, value);
+            T previous = map.put(name, value);
+            for (Map.Entry<Class<?>, NavigableMap<String, T>> entry : typeIndexes.entrySet()) {
+                if (entry.getKey().isInstance(value)) {
+                    entry.getValue().put(name, value);
+                } else if (previous != null) {
+                    entry.getValue().remove(name);
+                }
+            }
         }
 
         @Override
@@ -382,12 +457,22 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
         @Override
         public void remove(String name) {
-            map.remove(name);
+            if (map.remove(name) != null) {
+                for (NavigableMap<String, T> typeIndex : typeIndexes.values()) {
+                    typeIndex.remove(name);
+                }
+            }
         }
 
         @Override
         public void clear() {
             map.clear();
+            typeIndexes.clear();
+        }
+
+        @Override
+        public Collection<? extends T> candidates(Class<?> type) {
+            return asMap(type).values();
         }
 
         @Override
@@ -398,10 +483,10 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
     private static class FilteredIndex<T> implements Index<T> {
 
-        private final Index<? super T> delegate;
+        private final UnfilteredIndex<? super T> delegate;
         private final CollectionFilter<T> filter;
 
-        public FilteredIndex(Index<? super T> delegate, CollectionFilter<T> filter) {
+        public FilteredIndex(UnfilteredIndex<? super T> delegate, CollectionFilter<T> filter) {
             this.delegate = delegate;
             this.filter = filter;
         }
@@ -428,7 +513,7 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
 
         @Override
         public NavigableMap<String, T> asMap() {
-            NavigableMap<String, ? super T> delegateMap = delegate.asMap();
+            NavigableMap<String, ? super T> delegateMap = delegate.asMap(filter.getType());
 
             NavigableMap<String, T> filtered = new TreeMap<String, T>();
             for (Map.Entry<String, ? super T> entry : delegateMap.entrySet()) {
@@ -441,6 +526,13 @@ public class DefaultNamedDomainObjectCollection<T> extends DefaultDomainObjectCo
             return filtered;
         }
 
+        @Override
+        public Collection<? extends T> candidates(Class<?> type) {
+            Class<?> candidateType = filter.getType().isAssignableFrom(type) ? type : filter.getType();
+            Collection<Object> candidates = Cast.uncheckedCast(delegate.asMap(candidateType).values());
+            return new FilteredCollection<Object, T>(candidates, filter);
+        }
+
         @Override
         public <S extends T> Index<S> filter(CollectionFilter<S> filter) {
             return new FilteredIndex<S>(delegate, this.filter.and(filter));
@@ -32,8 +32,12 @@ import java.util.TreeSet;
 
 public class DefaultNamedDomainObjectSet<T> extends DefaultNamedDomainObjectCollection<T> implements NamedDomainObjectSet<T> {
 
+    // When the elements are iterated in name order, filtered views can iterate over the index of this set rather than every element
+    private final boolean orderedByName;
+
     public DefaultNamedDomainObjectSet(Class<? extends T> type, Instantiator instantiator, Namer<? super T> namer) {
         super(type, new TreeSet(new Namer.Comparator(namer)), instantiator, namer);
+        this.orderedByName = true;
     }
 
     public DefaultNamedDomainObjectSet(Class<? extends T> type, Instantiator instantiator) {
@@ -45,11 +49,13 @@ public class DefaultNamedDomainObjectSet<T> extends DefaultNamedDomainObjectColl
      */
     protected DefaultNamedDomainObjectSet(Class<? extends T> type, Set<T> store, CollectionEventRegister<T> eventRegister, Instantiator instantiator, Namer<? super T> namer) {
         super(type, store, eventRegister, new UnfilteredIndex<T>(), instantiator, namer);
+        this.orderedByName = false;
     }
 
     // should be protected, but use of the class generator forces it to be public
     public DefaultNamedDomainObjectSet(DefaultNamedDomainObjectSet<? super T> collection, CollectionFilter<T> filter, Instantiator instantiator, Namer<? super T> namer) {
         super(collection, filter, instantiator, namer);
+        this.orderedByName = collection.orderedByName;
     }
 
     @Override
@@ -58,6 +64,9 @@ public class DefaultNamedDomainObjectSet<T> extends DefaultNamedDomainObjectColl
     }
 
     protected <S extends T> Set<S> filteredStore(CollectionFilter<S> filter) {
+        if (orderedByName) {
+            return new FilteredSet<T, S>(this, candidatesOfType(filter.getType()), filter);
+        }
         return new FilteredSet<T, S>(this, filter);
     }
 
@@ -68,7 +77,7 @@ public class DefaultNamedDomainObjectSet<T> extends DefaultNamedDomainObjectColl
 
     @Override
     public <S extends T> NamedDomainObjectSet<S> withType(Class<S> type) {
-        return filtered(createFilter(type));
+        return (NamedDomainObjectSet<S>) typeFiltered(type);
     }
 
     @Override
@@ -33,6 +33,10 @@ public class DelegatingDomainObjectSet<T> implements DomainObjectSet<T> {
         this.backingSet = backingSet;
     }
 
+    public DomainObjectSet<T> getDelegate() {
+        return backingSet;
+    }
+
     public DomainObjectSet<T> matching(Closure spec) {
         return matching(Specs.convertClosureToSpec(spec));
     }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal;
+
+import com.google.common.io.Files;
+import org.gradle.api.Nullable;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.FileLockManager;
+import org.gradle.internal.hash.HashValue;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+/**
+ * A content addressed store of the byte code of generated classes, which can be shared by multiple processes. An entry is written to a temporary
+ * file that is then moved into place, so that a partially written entry is never read. Failures to read or write an entry are ignored, and the
+ * class is generated instead.
+ *
+ * <p>Entries that have not been used for a week are removed when the cache is closed, at most once a day.</p>
+ */
+public class GeneratedClassFileCache implements Closeable {
+    public static final String CACHE_KEY = "generated-classes";
+    public static final String CACHE_DISPLAY_NAME = "Generated classes cache";
+    static final int MAX_UNUSED_DAYS = 7;
+    private static final long MAX_UNUSED_MILLIS = TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS);
+    private static final long CLEANUP_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final String CLEANUP_MARKER = "last-cleanup";
+    private static final Logger LOGGER = Logging.getLogger(GeneratedClassFileCache.class);
+
+    private final PersistentCache cache;
+
+    public GeneratedClassFileCache(CacheRepository cacheRepository) {
+        this.cache = cacheRepository
+            .cache(CACHE_KEY)
+            .withDisplayName(CACHE_DISPLAY_NAME)
+            .withLockOptions(mode(FileLockManager.LockMode.None))
+            .open();
+    }
+
+    @Nullable
+    public byte[] load(HashValue key) {
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            byte[] bytecode = Files.toByteArray(file);
+            markUsed(file);
+            return bytecode;
+        } catch (IOException e) {
+            LOGGER.debug("Could not read generated class from {}.", file, e);
+            return null;
+        }
+    }
+
+    public void store(HashValue key, byte[] bytecode) {
+        File file = fileFor(key);
+        if (file.isFile()) {
+            return;
+        }
+        File dir = file.getParentFile();
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+                throw new IOException(String.format("Could not create directory %s.", dir));
+            }
+            File tempFile = File.createTempFile(file.getName(), ".tmp", dir);
+            Files.write(bytecode, tempFile);
+            if (!tempFile.renameTo(file)) {
+                // Another process has stored the same entry
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not write generated class to {}.", file, e);
+        }
+    }
+
+    public void close() {
+        try {
+            removeUnusedEntries();
+        } finally {
+            cache.close();
+        }
+    }
+
+    /**
+     * Records that an entry has been used, so that it is not removed. The modification time is only updated once a day, to avoid writing on every use.
+     */
+    private void markUsed(File file) {
+        long now = System.currentTimeMillis();
+        if (file.lastModified() < now - CLEANUP_INTERVAL_MILLIS) {
+            file.setLastModified(now);
+        }
+    }
+
+    private void removeUnusedEntries() {
+        File marker = new File(cache.getBaseDir(), CLEANUP_MARKER);
+        long now = System.currentTimeMillis();
+        if (marker.isFile() && marker.lastModified() > now - CLEANUP_INTERVAL_MILLIS) {
+            return;
+        }
+        try {
+            Files.touch(marker);
+        } catch (IOException e) {
+            LOGGER.debug("Could not write {}.", marker, e);
+            return;
+        }
+        File[] dirs = cache.getBaseDir().listFiles();
+        if (dirs == null) {
+            return;
+        }
+        for (File dir : dirs) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                // Also removes temporary files left behind by processes that were stopped while storing an entry
+                if (file.lastModified() < now - MAX_UNUSED_MILLIS && !file.delete()) {
+                    LOGGER.debug("Could not remove unused generated class {}.", file);
+                }
+            }
+            // Only removed when empty
+            dir.delete();
+        }
+    }
+
+    private File fileFor(HashValue key) {
+        String name = key.asCompactString();
+        String prefix = name.length() > 2 ? name.substring(0, 2) : name;
+        return new File(new File(cache.getBaseDir(), prefix), name + ".class");
+    }
+}
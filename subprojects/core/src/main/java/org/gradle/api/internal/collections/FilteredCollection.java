@@ -22,10 +22,21 @@ import java.util.NoSuchElementException;
 public class FilteredCollection<T, S extends T> implements Collection<S> {
 
     protected final Collection<T> collection;
+    protected final Collection<? extends T> candidates;
     protected final CollectionFilter<S> filter;
 
     public FilteredCollection(Collection<T> collection, CollectionFilter<S> filter) {
+        this(collection, collection, filter);
+    }
+
+    /**
+     * Creates a view of the elements of the given collection that match the given filter.
+     *
+     * @param candidates The elements of the collection that may match the filter, in the same order as the collection. Only these elements are visited when iterating.
+     */
+    public FilteredCollection(Collection<T> collection, Collection<? extends T> candidates, CollectionFilter<S> filter) {
         this.collection = collection;
+        this.candidates = candidates;
         this.filter = filter;
     }
     
@@ -71,10 +82,10 @@ public class FilteredCollection<T, S extends T> implements Collection<S> {
     // }
 
     public boolean isEmpty() {
-        if (collection.isEmpty()) {
+        if (candidates.isEmpty()) {
             return true;
         } else {
-            for (T o : collection) {
+            for (T o : candidates) {
                 if (accept(o)) {
                     return false;
                 }
@@ -85,11 +96,11 @@ public class FilteredCollection<T, S extends T> implements Collection<S> {
 
     protected static class FilteringIterator<T, S extends T> implements Iterator<S> {
         private final CollectionFilter<S> filter;
-        private final Iterator<T> iterator;
+        private final Iterator<? extends T> iterator;
         
         private S next;
         
-        public FilteringIterator(Iterator<T> iterator, CollectionFilter<S> filter) {
+        public FilteringIterator(Iterator<? extends T> iterator, CollectionFilter<S> filter) {
             this.iterator = iterator;
             this.filter = filter;
             this.next = findNext();
@@ -127,7 +138,7 @@ public class FilteredCollection<T, S extends T> implements Collection<S> {
     } 
     
     public Iterator<S> iterator() {
-        return new FilteringIterator<T, S>(collection.iterator(), filter);
+        return new FilteringIterator<T, S>(candidates.iterator(), filter);
     }
 
     public boolean remove(Object o) {
@@ -144,7 +155,7 @@ public class FilteredCollection<T, S extends T> implements Collection<S> {
 
     public int size() {
         int i = 0;
-        for (T o : collection) {
+        for (T o : candidates) {
             if (accept(o)) {
                 ++i;
             }
@@ -155,7 +166,7 @@ public class FilteredCollection<T, S extends T> implements Collection<S> {
     public Object[] toArray() {
         Object[] a = new Object[size()];
         int i = 0;
-        for (T o : collection) {
+        for (T o : candidates) {
             if (accept(o)) {
                 a[i++] = o;
             }
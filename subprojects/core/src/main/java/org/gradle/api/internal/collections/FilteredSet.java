@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.collections;
 
+import java.util.Collection;
 import java.util.Set;
 
 public class FilteredSet<T, S extends T> extends FilteredCollection<T, S> implements Set<S> {
@@ -23,4 +24,8 @@ public class FilteredSet<T, S extends T> extends FilteredCollection<T, S> implem
         super(collection, filter);
     }
 
+    public FilteredSet(Set<T> collection, Collection<? extends T> candidates, CollectionFilter<S> filter) {
+        super(collection, candidates, filter);
+    }
+
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
     private final ExtensionsStorage extensionsStorage = new ExtensionsStorage();
     private final ExtraPropertiesExtension extraProperties = new DefaultExtraPropertiesExtension();
     private final Instantiator instantiator;
+    private final Set<Runnable> mutateActions = new LinkedHashSet<Runnable>();
 
     /**
      * This method should not be used in runtime code proper as means that the convention cannot create
@@ -92,6 +93,9 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
     }
 
     public void add(String name, Object extension) {
+        for (Runnable mutateAction : mutateActions) {
+            mutateAction.run();
+        }
         if (extension instanceof Class) {
             create(name, (Class<?>) extension);
         } else {
@@ -105,6 +109,20 @@ public class DefaultConvention implements Convention, ExtensionContainerInternal
         return instance;
     }
 
+    /**
+     * Adds an action which is executed before an extension is added. Any exception thrown by the action will veto the change.
+     */
+    public void beforeChange(Runnable action) {
+        mutateActions.add(action);
+    }
+
+    /**
+     * Removes an action added by {@link #beforeChange(Runnable)}.
+     */
+    public void removeBeforeChange(Runnable action) {
+        mutateActions.remove(action);
+    }
+
     public ExtraPropertiesExtension getExtraProperties() {
         return extraProperties;
     }
@@ -23,11 +23,14 @@ import groovy.lang.ReadOnlyPropertyException;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class DefaultExtraPropertiesExtension extends GroovyObjectSupport implements ExtraPropertiesExtension {
 
     private final Map<String, Object> storage = new HashMap<String, Object>();
+    private final Set<Runnable> mutateActions = new LinkedHashSet<Runnable>();
 
     public boolean has(String name) {
         return storage.containsKey(name);
@@ -42,9 +45,26 @@ public class DefaultExtraPropertiesExtension extends GroovyObjectSupport impleme
     }
 
     public void set(String name, Object value) {
+        for (Runnable mutateAction : mutateActions) {
+            mutateAction.run();
+        }
         storage.put(name, value);
     }
 
+    /**
+     * Adds an action which is executed before a property is set. Any exception thrown by the action will veto the change.
+     */
+    public void beforeChange(Runnable action) {
+        mutateActions.add(action);
+    }
+
+    /**
+     * Removes an action added by {@link #beforeChange(Runnable)}.
+     */
+    public void removeBeforeChange(Runnable action) {
+        mutateActions.remove(action);
+    }
+
     public Object getProperty(String name) {
         if (name.equals("properties")) {
             return getProperties();
@@ -32,47 +32,41 @@ import org.gradle.api.internal.artifacts.ModuleInternal;
 import org.gradle.api.internal.artifacts.configurations.DependencyMetaDataProvider;
 import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.file.FileResolver;
-import org.gradle.api.internal.file.SourceDirectorySetFactory;
 import org.gradle.api.internal.initialization.ClassLoaderScope;
 import org.gradle.api.internal.initialization.ScriptHandlerFactory;
 import org.gradle.api.internal.plugins.DefaultObjectConfigurationAction;
 import org.gradle.api.internal.plugins.ExtensionContainerInternal;
 import org.gradle.api.internal.plugins.PluginManagerInternal;
-import org.gradle.api.internal.project.taskfactory.ITaskFactory;
 import org.gradle.api.internal.tasks.TaskContainerInternal;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.Convention;
-import org.gradle.api.plugins.ExtensionContainer;
 import org.gradle.api.resources.ResourceHandler;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.configuration.ScriptPluginFactory;
 import org.gradle.configuration.project.ProjectConfigurationActionContainer;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.configuration.project.ProjectEvaluator;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Actions;
-import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 import org.gradle.internal.event.ListenerBroadcast;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.StandardOutputCapture;
+import org.gradle.internal.metaobject.AbstractDynamicObject;
 import org.gradle.internal.metaobject.BeanDynamicObject;
 import org.gradle.internal.metaobject.DynamicObject;
+import org.gradle.internal.metaobject.GetPropertyResult;
+import org.gradle.internal.metaobject.InvokeMethodResult;
+import org.gradle.internal.metaobject.SetPropertyResult;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.service.scopes.ServiceRegistryFactory;
-import org.gradle.internal.typeconversion.TypeConverter;
 import org.gradle.listener.ClosureBackedMethodInvocationDispatch;
-import org.gradle.model.Model;
-import org.gradle.model.RuleSource;
 import org.gradle.model.dsl.internal.NonTransformedModelDslBacking;
 import org.gradle.model.dsl.internal.TransformedModelDslBacking;
-import org.gradle.model.internal.core.*;
-import org.gradle.model.internal.manage.binding.StructBindingsStore;
-import org.gradle.model.internal.manage.instance.ManagedProxyFactory;
 import org.gradle.model.internal.manage.schema.ModelSchemaStore;
 import org.gradle.model.internal.registry.ModelRegistry;
-import org.gradle.model.internal.type.ModelType;
 import org.gradle.process.ExecResult;
 import org.gradle.process.ExecSpec;
 import org.gradle.process.JavaExecSpec;
@@ -92,10 +86,6 @@ import static org.gradle.util.GUtil.isTrue;
 
 public abstract class AbstractProject extends AbstractPluginAware implements ProjectInternal, DynamicObjectAware {
 
-    private static final ModelType<ServiceRegistry> SERVICE_REGISTRY_MODEL_TYPE = ModelType.of(ServiceRegistry.class);
-    private static final ModelType<File> FILE_MODEL_TYPE = ModelType.of(File.class);
-    private static final ModelType<ProjectIdentifier> PROJECT_IDENTIFIER_MODEL_TYPE = ModelType.of(ProjectIdentifier.class);
-    private static final ModelType<ExtensionContainer> EXTENSION_CONTAINER_MODEL_TYPE = ModelType.of(ExtensionContainer.class);
     private static final Logger BUILD_LOGGER = Logging.getLogger(Project.class);
 
     private final ClassLoaderScope classLoaderScope;
@@ -108,6 +98,8 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     private ProjectEvaluator projectEvaluator;
 
+    private ProjectEvaluationCoordinator projectEvaluationCoordinator;
+
     private ScriptSource buildScriptSource;
 
     private final File projectDir;
@@ -140,7 +132,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     private final int depth;
 
-    private TaskContainerInternal taskContainer;
+    private volatile TaskContainerInternal taskContainer;
 
     private DependencyHandler dependencyHandler;
 
@@ -185,101 +177,14 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         }
 
         services = serviceRegistryFactory.createFor(this);
-        taskContainer = services.newInstance(TaskContainerInternal.class);
 
         extensibleDynamicObject = new ExtensibleDynamicObject(this, Project.class, services.get(Instantiator.class));
         if (parent != null) {
             extensibleDynamicObject.setParent(parent.getInheritedScope());
         }
-        extensibleDynamicObject.addObject(taskContainer.getTasksAsDynamicObject(), ExtensibleDynamicObject.Location.AfterConvention);
+        extensibleDynamicObject.addObject(new TasksDynamicObject(), ExtensibleDynamicObject.Location.AfterConvention);
 
         evaluationListener.add(gradle.getProjectEvaluationBroadcaster());
-
-        populateModelRegistry(services.get(ModelRegistry.class));
-    }
-
-    static class BasicServicesRules extends RuleSource {
-        @Hidden @Model
-        SourceDirectorySetFactory sourceDirectorySetFactory(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(SourceDirectorySetFactory.class);
-        }
-
-        @Hidden @Model
-        ITaskFactory taskFactory(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(ITaskFactory.class);
-        }
-
-        @Hidden @Model
-        Instantiator instantiator(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(Instantiator.class);
-        }
-
-        @Hidden @Model
-        ModelSchemaStore schemaStore(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(ModelSchemaStore.class);
-        }
-
-        @Hidden @Model
-        ManagedProxyFactory proxyFactory(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(ManagedProxyFactory.class);
-        }
-
-        @Hidden @Model
-        StructBindingsStore structBindingsStore(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(StructBindingsStore.class);
-        }
-
-        @Hidden @Model
-        NodeInitializerRegistry nodeInitializerRegistry(ModelSchemaStore schemaStore, StructBindingsStore structBindingsStore) {
-            return new DefaultNodeInitializerRegistry(schemaStore, structBindingsStore);
-        }
-
-        @Hidden @Model
-        TypeConverter typeConverter(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(TypeConverter.class);
-        }
-
-        @Hidden @Model
-        FileOperations fileOperations(ServiceRegistry serviceRegistry) {
-            return serviceRegistry.get(FileOperations.class);
-        }
-    }
-
-    private void populateModelRegistry(ModelRegistry modelRegistry) {
-        registerServiceOn(modelRegistry, "serviceRegistry", SERVICE_REGISTRY_MODEL_TYPE, services, instanceDescriptorFor("serviceRegistry"));
-        // TODO:LPTR This ignores changes to Project.buildDir after model node has been created
-        registerFactoryOn(modelRegistry, "buildDir", FILE_MODEL_TYPE, new Factory<File>() {
-            @Override
-            public File create() {
-                return getBuildDir();
-            }
-        });
-        registerInstanceOn(modelRegistry, "projectIdentifier", PROJECT_IDENTIFIER_MODEL_TYPE, this);
-        registerInstanceOn(modelRegistry, "extensionContainer", EXTENSION_CONTAINER_MODEL_TYPE, getExtensions());
-        modelRegistry.getRoot().applyToSelf(BasicServicesRules.class);
-    }
-
-    private <T> void registerInstanceOn(ModelRegistry modelRegistry, String path, ModelType<T> type, T instance) {
-        registerFactoryOn(modelRegistry, path, type, Factories.constant(instance));
-    }
-
-    private <T> void registerFactoryOn(ModelRegistry modelRegistry, String path, ModelType<T> type, Factory<T> factory) {
-        modelRegistry.register(ModelRegistrations
-            .unmanagedInstance(ModelReference.of(path, type), factory)
-            .descriptor(instanceDescriptorFor(path))
-            .hidden(true)
-            .build());
-    }
-
-    private <T> void registerServiceOn(ModelRegistry modelRegistry, String path, ModelType<T> type, T instance, String descriptor) {
-        modelRegistry.register(ModelRegistrations.serviceInstance(ModelReference.of(path, type), instance)
-            .descriptor(descriptor)
-            .build()
-        );
-    }
-
-    private String instanceDescriptorFor(String path) {
-        return "Project.<init>." + path + "()";
     }
 
     public ProjectInternal getRootProject() {
@@ -301,6 +206,13 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         this.projectEvaluator = projectEvaluator;
     }
 
+    private ProjectEvaluationCoordinator getProjectEvaluationCoordinator() {
+        if (projectEvaluationCoordinator == null) {
+            projectEvaluationCoordinator = services.get(ProjectEvaluationCoordinator.class);
+        }
+        return projectEvaluationCoordinator;
+    }
+
     @Inject
     public ScriptHandler getBuildscript() {
         // Decoration takes care of the implementation
@@ -383,6 +295,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Map<String, Project> getChildProjects() {
+        beforeAccess(childProjects.values());
         return childProjects;
     }
 
@@ -492,15 +405,29 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         if (!isTrue(path)) {
             throw new InvalidUserDataException("A path must be specified!");
         }
-        return getProjectRegistry().getProject(absoluteProjectPath(path));
+        ProjectInternal project = getProjectRegistry().getProject(absoluteProjectPath(path));
+        if (project != null && project != this) {
+            getProjectEvaluationCoordinator().beforeAccess(project, project.getState());
+        }
+        return project;
     }
 
     public Set<Project> getAllprojects() {
-        return new TreeSet<Project>(getProjectRegistry().getAllProjects(getPath()));
+        return beforeAccess(new TreeSet<Project>(getProjectRegistry().getAllProjects(getPath())));
     }
 
     public Set<Project> getSubprojects() {
-        return new TreeSet<Project>(getProjectRegistry().getSubProjects(getPath()));
+        return beforeAccess(new TreeSet<Project>(getProjectRegistry().getSubProjects(getPath())));
+    }
+
+    private <T extends Iterable<? extends Project>> T beforeAccess(T projects) {
+        for (Project project : projects) {
+            if (project != this) {
+                ProjectInternal projectInternal = (ProjectInternal) project;
+                getProjectEvaluationCoordinator().beforeAccess(projectInternal, projectInternal.getState());
+            }
+        }
+        return projects;
     }
 
     public void subprojects(Action<? super Project> action) {
@@ -553,7 +480,14 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public TaskContainerInternal getTasks() {
-        return taskContainer;
+        // Created on first use, along with the model registry, as most projects of a large build are never configured.
+        // The service registry hands out a single instance, so threads racing to initialize the field see the same container
+        TaskContainerInternal tasks = taskContainer;
+        if (tasks == null) {
+            tasks = services.get(TaskContainerInternal.class);
+            taskContainer = tasks;
+        }
+        return tasks;
     }
 
     public void defaultTasks(String... defaultTasks) {
@@ -605,7 +539,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
-        if (projectToEvaluate.getState().getExecuting()) {
+        if (projectToEvaluate.getState().isExecutingOnCurrentThread()) {
             throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
                 projectToEvaluate));
         }
@@ -916,15 +850,15 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Task task(String task) {
-        return taskContainer.create(task);
+        return getTasks().create(task);
     }
 
     public Task task(Object task) {
-        return taskContainer.create(task.toString());
+        return getTasks().create(task.toString());
     }
 
     public Task task(String task, Closure configureClosure) {
-        return taskContainer.create(task).configure(configureClosure);
+        return getTasks().create(task).configure(configureClosure);
     }
 
     public Task task(Object task, Closure configureClosure) {
@@ -932,7 +866,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Task task(Map options, String task) {
-        return taskContainer.create(addMaps(options, singletonMap(Task.TASK_NAME, task)));
+        return getTasks().create(addMaps(options, singletonMap(Task.TASK_NAME, task)));
     }
 
     public Task task(Map options, Object task) {
@@ -940,7 +874,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Task task(Map options, String task, Closure configureClosure) {
-        return taskContainer.create(addMaps(options, singletonMap(Task.TASK_NAME, task))).configure(configureClosure);
+        return getTasks().create(addMaps(options, singletonMap(Task.TASK_NAME, task))).configure(configureClosure);
     }
 
     public Task task(Map options, Object task, Closure configureClosure) {
@@ -1046,4 +980,48 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     public void fireDeferredConfiguration() {
         getDeferredProjectConfiguration().fire();
     }
+
+    /**
+     * Exposes the tasks of this project as properties and methods, without creating the task container until a lookup reaches it.
+     */
+    private class TasksDynamicObject extends AbstractDynamicObject {
+        private DynamicObject getDelegate() {
+            return getTasks().getTasksAsDynamicObject();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "tasks of " + AbstractProject.this;
+        }
+
+        @Override
+        public boolean hasProperty(String name) {
+            return getDelegate().hasProperty(name);
+        }
+
+        @Override
+        public void getProperty(String name, GetPropertyResult result) {
+            getDelegate().getProperty(name, result);
+        }
+
+        @Override
+        public void setProperty(String name, Object value, SetPropertyResult result) {
+            getDelegate().setProperty(name, value, result);
+        }
+
+        @Override
+        public Map<String, ?> getProperties() {
+            return getDelegate().getProperties();
+        }
+
+        @Override
+        public boolean hasMethod(String name, Object... arguments) {
+            return getDelegate().hasMethod(name, arguments);
+        }
+
+        @Override
+        public void invokeMethod(String name, InvokeMethodResult result, Object... arguments) {
+            getDelegate().invokeMethod(name, result, arguments);
+        }
+    }
 }
@@ -16,9 +16,15 @@
 
 package org.gradle.api.internal.project;
 
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.initialization.ProjectAccessListener;
 
 public class DefaultProjectAccessListener implements ProjectAccessListener {
+    private final ProjectEvaluationCoordinator coordinator;
+
+    public DefaultProjectAccessListener(ProjectEvaluationCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
 
     public void beforeRequestingTaskByPath(ProjectInternal targetProject) {
         evaluateProjectAndDiscoverTasks(targetProject);
@@ -29,7 +35,9 @@ public class DefaultProjectAccessListener implements ProjectAccessListener {
     }
 
     private void evaluateProjectAndDiscoverTasks(ProjectInternal targetProject) {
+        // Couples the target project to the project being configured, when projects are configured in parallel
+        coordinator.beforeAccess(targetProject, targetProject.getState());
         targetProject.evaluate();
         targetProject.getTasks().discoverTasks();
     }
-}
\ No newline at end of file
+}
@@ -17,7 +17,6 @@ package org.gradle.api.internal.project;
 
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.specs.Spec;
-import org.gradle.util.GUtil;
 
 import java.io.File;
 import java.util.HashMap;
@@ -25,17 +24,20 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * The projects of a build. This registry is thread-safe, as projects may be configured in parallel.
+ */
 public class DefaultProjectRegistry<T extends ProjectIdentifier> implements ProjectRegistry<T> {
     private Map<String, T> projects = new HashMap<String, T>();
     private Map<String, Set<T>> subProjects = new HashMap<String, Set<T>>();
 
-    public void addProject(T project) {
+    public synchronized void addProject(T project) {
         projects.put(project.getPath(), project);
         subProjects.put(project.getPath(), new HashSet<T>());
         addProjectToParentSubProjects(project);
     }
 
-    public T removeProject(String path) {
+    public synchronized T removeProject(String path) {
         T project = projects.remove(path);
         assert project != null;
         subProjects.remove(path);
@@ -55,11 +57,11 @@ public class DefaultProjectRegistry<T extends ProjectIdentifier> implements Proj
         }
     }
 
-    public Set<T> getAllProjects() {
+    public synchronized Set<T> getAllProjects() {
         return new HashSet<T>(projects.values());
     }
 
-    public T getProject(String path) {
+    public synchronized T getProject(String path) {
         return projects.get(path);
     }
 
@@ -76,7 +78,7 @@ public class DefaultProjectRegistry<T extends ProjectIdentifier> implements Proj
         return projects.size() == 1 ? projects.iterator().next() : null;
     }
 
-    public Set<T> getAllProjects(String path) {
+    public synchronized Set<T> getAllProjects(String path) {
         Set<T> result = new HashSet<T>(getSubProjects(path));
         if (projects.get(path) != null) {
             result.add(projects.get(path));
@@ -84,11 +86,12 @@ public class DefaultProjectRegistry<T extends ProjectIdentifier> implements Proj
         return result;
     }
 
-    public Set<T> getSubProjects(String path) {
-        return GUtil.elvis(subProjects.get(path), new HashSet<T>());
+    public synchronized Set<T> getSubProjects(String path) {
+        Set<T> subProjects = this.subProjects.get(path);
+        return subProjects == null ? new HashSet<T>() : new HashSet<T>(subProjects);
     }
 
-    public Set<T> findAll(Spec<? super T> constraint) {
+    public synchronized Set<T> findAll(Spec<? super T> constraint) {
         Set<T> matches = new HashSet<T>();
         for (T project : projects.values()) {
             if (constraint.isSatisfiedBy(project)) {
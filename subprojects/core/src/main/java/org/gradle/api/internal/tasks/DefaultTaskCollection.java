@@ -49,7 +49,7 @@ public class DefaultTaskCollection<T extends Task> extends DefaultNamedDomainObj
 
     @Override
     public <S extends T> TaskCollection<S> withType(Class<S> type) {
-        return filtered(createFilter(type));
+        return (TaskCollection<S>) typeFiltered(type);
     }
 
     @Override
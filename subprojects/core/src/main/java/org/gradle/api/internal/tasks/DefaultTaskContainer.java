@@ -31,6 +31,7 @@ import org.gradle.internal.graph.DirectedGraph;
 import org.gradle.internal.metaobject.DynamicObject;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.model.internal.core.*;
+import org.gradle.model.internal.core.rule.describe.ModelRuleDescriptor;
 import org.gradle.model.internal.core.rule.describe.SimpleModelRuleDescriptor;
 import org.gradle.model.internal.type.ModelType;
 import org.gradle.util.ConfigureUtil;
@@ -43,6 +44,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
     private final ITaskFactory taskFactory;
     private final ProjectAccessListener projectAccessListener;
     private final Set<String> placeholders = Sets.newHashSet();
+    private final Set<String> registrations = Sets.newHashSet();
     private final NamedEntityInstantiator<Task> instantiator;
 
     public DefaultTaskContainer(MutableModelNode modelNode, ProjectInternal project, Instantiator instantiator, ITaskFactory taskFactory, ProjectAccessListener projectAccessListener) {
@@ -65,6 +67,14 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         if (placeholders.remove(name)) {
             modelNode.removeLink(name);
         }
+        if (registrations.contains(name)) {
+            if (!replace) {
+                throw new InvalidUserDataException(String.format(
+                    "Cannot add %s as a task with that name already exists.", task));
+            }
+            registrations.remove(name);
+            modelNode.removeLink(name);
+        }
 
         Task existing = findByNameWithoutRules(name);
         if (existing != null) {
@@ -166,6 +176,17 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         return task;
     }
 
+    public <T extends Task> void register(String name, Class<T> type, Action<? super T> configurationAction) {
+        if (findByNameWithoutRules(name) != null || (modelNode.hasLink(name) && !placeholders.contains(name))) {
+            throw new InvalidUserDataException(String.format("Cannot register task '%s' as a task with that name already exists.", name));
+        }
+        if (placeholders.remove(name)) {
+            modelNode.removeLink(name);
+        }
+        registrations.add(name);
+        addCreator(name, type, configurationAction, new SimpleModelRuleDescriptor("tasks.register(" + name + ")"));
+    }
+
     public TaskContainerInternal configure(Closure configureClosure) {
         return ConfigureUtil.configureSelf(configureClosure, this, new NamedDomainObjectContainerConfigureDelegate(configureClosure, this));
     }
@@ -220,7 +241,8 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         }
         maybeCreateTasks(name);
         placeholders.remove(name);
-        return super.findByName(name);
+        // The rules have already been applied for this name
+        return findByNameWithoutRules(name);
     }
 
     private Task realizeTask(ModelPath taskPath, ModelNode.State minState) {
@@ -229,21 +251,25 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
     public <T extends TaskInternal> void addPlaceholderAction(final String placeholderName, final Class<T> taskType, final Action<? super T> configure) {
         if (!modelNode.hasLink(placeholderName)) {
-            final ModelType<T> taskModelType = ModelType.of(taskType);
-            ModelPath path = MODEL_PATH.child(placeholderName);
-            modelNode.addLink(
-                ModelRegistrations.of(path)
-                    .action(ModelActionRole.Create, new TaskCreator<T>(placeholderName, taskType, configure, taskModelType))
-                    .withProjection(new UnmanagedModelProjection<T>(taskModelType))
-                    .descriptor(new SimpleModelRuleDescriptor("tasks.addPlaceholderAction(" + placeholderName + ")"))
-                    .build()
-            );
+            addCreator(placeholderName, taskType, configure, new SimpleModelRuleDescriptor("tasks.addPlaceholderAction(" + placeholderName + ")"));
         }
         if (findByNameWithoutRules(placeholderName) == null) {
             placeholders.add(placeholderName);
         }
     }
 
+    private <T extends Task> void addCreator(String name, Class<T> taskType, Action<? super T> configure, ModelRuleDescriptor descriptor) {
+        ModelType<T> taskModelType = ModelType.of(taskType);
+        ModelPath path = MODEL_PATH.child(name);
+        modelNode.addLink(
+            ModelRegistrations.of(path)
+                .action(ModelActionRole.Create, new TaskCreator<T>(name, taskType, configure, taskModelType))
+                .withProjection(new UnmanagedModelProjection<T>(taskModelType))
+                .descriptor(descriptor)
+                .build()
+        );
+    }
+
     public <U extends Task> NamedDomainObjectContainer<U> containerWithType(Class<U> type) {
         throw new UnsupportedOperationException();
     }
@@ -268,7 +294,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         }
     }
 
-    private static class TaskCreator<T extends TaskInternal> implements Action<MutableModelNode> {
+    private static class TaskCreator<T extends Task> implements Action<MutableModelNode> {
         private final String placeholderName;
         private final Class<T> taskType;
         private final Action<? super T> configure;
@@ -284,8 +310,9 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         @Override
         public void execute(final MutableModelNode mutableModelNode) {
             DefaultTaskContainer taskContainer = mutableModelNode.getParent().getPrivateData(ModelType.of(DefaultTaskContainer.class));
-            T task = taskContainer.taskFactory.create(placeholderName, taskType);
+            T task = taskContainer.instantiator.create(placeholderName, taskType);
             configure.execute(task);
+            taskContainer.registrations.remove(placeholderName);
             taskContainer.add(task);
             mutableModelNode.setPrivateData(taskModelType, task);
         }
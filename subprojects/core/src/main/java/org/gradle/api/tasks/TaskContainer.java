@@ -187,4 +187,20 @@ public interface TaskContainer extends TaskCollection<Task>, PolymorphicDomainOb
      * @throws InvalidUserDataException If a task with the given name already exists in this project.
      */
     <T extends Task> T replace(String name, Class<T> type);
+
+    /**
+     * <p>Registers a {@link Task} with the given name and type, without creating it. The task is created and configured using the given action
+     * only when it is required: when it is located by name or path, when another task depends on it, or when it is selected to be executed.</p>
+     *
+     * <p>A registered task is not included when iterating over this container until it has been created. Actions registered using {@link #all(Action)}
+     * or {@link #whenTaskAdded(Action)} are applied to the task when it is created.</p>
+     *
+     * @param name The name of the task to register.
+     * @param type The type of task to create.
+     * @param configurationAction The action to configure the task with, when it is created.
+     * @throws InvalidUserDataException If a task with the given name already exists in this project.
+     * @since 3.0
+     */
+    @Incubating
+    <T extends Task> void register(String name, Class<T> type, Action<? super T> configurationAction) throws InvalidUserDataException;
 }
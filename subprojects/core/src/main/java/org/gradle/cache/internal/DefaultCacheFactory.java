@@ -26,13 +26,21 @@ import org.gradle.internal.serialize.Serializer;
 import java.io.Closeable;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Opens the caches of this process, sharing the instance of each directory between its users. Directory caches are opened, which can include running
+ * their initializer, without holding the lock of the factory, so that different directories can be opened and initialized concurrently. A thread
+ * that opens a directory that another thread is opening waits for it to be opened.
+ */
 public class DefaultCacheFactory implements CacheFactory, Closeable {
     private final Map<File, DirCacheReference> dirCaches = new HashMap<File, DirCacheReference>();
+    private final Set<File> opening = new HashSet<File>();
     private final FileLockManager lockManager;
     private final Lock lock = new ReentrantLock();
+    private final Condition openCompleted = lock.newCondition();
 
     public DefaultCacheFactory(FileLockManager fileLockManager) {
         this.lockManager = fileLockManager;
@@ -45,12 +53,42 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
     }
 
     public PersistentCache open(File cacheDir, String displayName, CacheValidator cacheValidator, Map<String, ?> properties, LockOptions lockOptions, Action<? super PersistentCache> initializer) throws CacheOpenException {
+        File canonicalDir = FileUtils.canonicalize(cacheDir);
         lock.lock();
         try {
-            return doOpen(cacheDir, displayName, cacheValidator, properties, lockOptions, initializer);
+            while (opening.contains(canonicalDir)) {
+                openCompleted.awaitUninterruptibly();
+            }
+            DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
+            if (dirCacheReference != null) {
+                return reuse(cacheDir, dirCacheReference, properties, lockOptions);
+            }
+            opening.add(canonicalDir);
         } finally {
             lock.unlock();
         }
+
+        ReferencablePersistentCache cache = new DefaultPersistentDirectoryCache(canonicalDir, displayName, cacheValidator, properties, lockOptions, initializer, lockManager);
+        boolean opened = false;
+        PersistentCache result = null;
+        try {
+            cache.open();
+            opened = true;
+        } finally {
+            lock.lock();
+            try {
+                opening.remove(canonicalDir);
+                openCompleted.signalAll();
+                if (opened) {
+                    DirCacheReference dirCacheReference = new DirCacheReference(cache, properties, lockOptions);
+                    dirCaches.put(canonicalDir, dirCacheReference);
+                    result = new ReferenceTrackingCache(dirCacheReference);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
     }
 
     public PersistentCache openStore(File storeDir, String displayName, LockOptions lockOptions, Action<? super PersistentCache> initializer) throws CacheOpenException {
@@ -72,21 +110,12 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
         }
     }
 
-    private PersistentCache doOpen(File cacheDir, String displayName, CacheValidator validator, Map<String, ?> properties, LockOptions lockOptions, Action<? super PersistentCache> action) {
-        File canonicalDir = FileUtils.canonicalize(cacheDir);
-        DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
-        if (dirCacheReference == null) {
-            ReferencablePersistentCache cache = new DefaultPersistentDirectoryCache(canonicalDir, displayName, validator, properties, lockOptions, action, lockManager);
-            cache.open();
-            dirCacheReference = new DirCacheReference(cache, properties, lockOptions);
-            dirCaches.put(canonicalDir, dirCacheReference);
-        } else {
-            if (!lockOptions.equals(dirCacheReference.lockOptions)) {
-                throw new IllegalStateException(String.format("Cache '%s' is already open with different options.", cacheDir));
-            }
-            if (!properties.equals(dirCacheReference.properties)) {
-                throw new IllegalStateException(String.format("Cache '%s' is already open with different state.", cacheDir));
-            }
+    private PersistentCache reuse(File cacheDir, DirCacheReference dirCacheReference, Map<String, ?> properties, LockOptions lockOptions) {
+        if (!lockOptions.equals(dirCacheReference.lockOptions)) {
+            throw new IllegalStateException(String.format("Cache '%s' is already open with different options.", cacheDir));
+        }
+        if (!properties.equals(dirCacheReference.properties)) {
+            throw new IllegalStateException(String.format("Cache '%s' is already open with different state.", cacheDir));
         }
         return new ReferenceTrackingCache(dirCacheReference);
     }
@@ -96,6 +125,9 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
             throw new UnsupportedOperationException("Initializer actions are not currently supported by the directory store implementation.");
         }
         File canonicalDir = FileUtils.canonicalize(storeDir);
+        while (opening.contains(canonicalDir)) {
+            openCompleted.awaitUninterruptibly();
+        }
         DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
         if (dirCacheReference == null) {
             ReferencablePersistentCache cache = new DefaultPersistentDirectoryStore(canonicalDir, displayName, lockOptions, lockManager);
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration;
+
+import org.gradle.api.Project;
+import org.gradle.api.internal.initialization.ClassLoaderScope;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.groovy.scripts.ScriptSource;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compiles the first pass of the build scripts of the sub-projects of a build in the background, while the build is being configured. The first pass of
+ * a build script is compiled against the base scope of its project, which is known once the build has been loaded, whereas the second pass depends on
+ * the result of running the first pass and so is compiled when the script is applied.
+ *
+ * <p>Failures are ignored, as they are reported when the script is applied.</p>
+ */
+public class BuildScriptPrecompiler {
+    private static final Logger LOGGER = Logging.getLogger(BuildScriptPrecompiler.class);
+
+    private final DefaultScriptPluginFactory scriptPluginFactory;
+    private final ExecutorFactory executorFactory;
+    private final int maxWorkerCount;
+
+    public BuildScriptPrecompiler(DefaultScriptPluginFactory scriptPluginFactory, ExecutorFactory executorFactory, int maxWorkerCount) {
+        this.scriptPluginFactory = scriptPluginFactory;
+        this.executorFactory = executorFactory;
+        this.maxWorkerCount = maxWorkerCount;
+    }
+
+    /**
+     * Starts compiling the build scripts of the sub-projects of the given project.
+     *
+     * @return Stops the compilation. Scripts that have not been started are not compiled.
+     */
+    public Stoppable start(ProjectInternal rootProject) {
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final StoppableExecutor executor = executorFactory.create("Compile build scripts", maxWorkerCount);
+        for (Project project : rootProject.getSubprojects()) {
+            final ProjectInternal subproject = (ProjectInternal) project;
+            final ScriptSource scriptSource = subproject.getBuildScriptSource();
+            ClassLoaderScope baseScope = subproject.getBaseClassLoaderScope();
+            if (!scriptSource.getFileName().endsWith(".gradle") || !baseScope.isLocked()) {
+                continue;
+            }
+            // Create the class loader on this thread, as the class loaders of a scope are created lazily
+            final ClassLoader baseClassLoader = baseScope.getExportClassLoader();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (stopped.get()) {
+                        return;
+                    }
+                    try {
+                        scriptPluginFactory.compileInitialPass(scriptSource, subproject, baseClassLoader);
+                    } catch (Throwable t) {
+                        LOGGER.debug("Could not compile {} ahead of its application.", scriptSource.getDisplayName(), t);
+                    }
+                }
+            });
+        }
+        return new Stoppable() {
+            @Override
+            public void stop() {
+                stopped.set(true);
+                executor.stop();
+            }
+        };
+    }
+}
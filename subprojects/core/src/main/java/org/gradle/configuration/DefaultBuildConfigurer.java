@@ -18,13 +18,16 @@ package org.gradle.configuration;
 import org.gradle.StartParameter;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.execution.ProjectConfigurer;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.util.SingleMessageLogger;
 
 public class DefaultBuildConfigurer implements BuildConfigurer {
     private final ProjectConfigurer projectConfigurer;
+    private final BuildScriptPrecompiler buildScriptPrecompiler;
 
-    public DefaultBuildConfigurer(ProjectConfigurer projectConfigurer) {
+    public DefaultBuildConfigurer(ProjectConfigurer projectConfigurer, BuildScriptPrecompiler buildScriptPrecompiler) {
         this.projectConfigurer = projectConfigurer;
+        this.buildScriptPrecompiler = buildScriptPrecompiler;
     }
 
     public void configure(GradleInternal gradle) {
@@ -32,7 +35,12 @@ public class DefaultBuildConfigurer implements BuildConfigurer {
         if (gradle.getStartParameter().isConfigureOnDemand()) {
             projectConfigurer.configure(gradle.getRootProject());
         } else {
-            projectConfigurer.configureHierarchy(gradle.getRootProject());
+            Stoppable precompilation = buildScriptPrecompiler.start(gradle.getRootProject());
+            try {
+                projectConfigurer.configureHierarchy(gradle.getRootProject());
+            } finally {
+                precompilation.stop();
+            }
         }
     }
 
@@ -44,5 +52,8 @@ public class DefaultBuildConfigurer implements BuildConfigurer {
         } else if (startParameter.isConfigureOnDemand()) {
             SingleMessageLogger.incubatingFeatureUsed("Configuration on demand");
         }
+        if (startParameter.isParallelConfigurationEnabled() && !startParameter.isConfigureOnDemand()) {
+            SingleMessageLogger.incubatingFeatureUsed("Parallel configuration");
+        }
     }
 }
\ No newline at end of file
@@ -100,6 +100,26 @@ public class DefaultScriptPluginFactory implements ScriptPluginFactory {
         return new ScriptPluginImpl(scriptSource, (ScriptHandlerInternal) scriptHandler, targetScope, baseScope, topLevelScript);
     }
 
+    /**
+     * Compiles the first pass of the build script of the given project, so that the compiled script is available from the script caches when the build
+     * script is applied to the project. Can be called concurrently for different projects.
+     *
+     * @param baseClassLoader The export class loader of the base scope of the project.
+     */
+    public void compileInitialPass(ScriptSource scriptSource, ProjectInternal target, ClassLoader baseClassLoader) {
+        ScriptCompiler compiler = scriptCompilerFactory.createCompiler(scriptSource);
+        compileInitialPass(compiler, scriptSource, new ProjectScriptTarget(target), baseClassLoader);
+    }
+
+    private ScriptRunner<? extends BasicScript, PluginRequests> compileInitialPass(ScriptCompiler compiler, ScriptSource scriptSource, ScriptTarget initialPassScriptTarget, ClassLoader baseClassLoader) {
+        Class<? extends BasicScript> scriptType = initialPassScriptTarget.getScriptClass();
+        InitialPassStatementTransformer initialPassStatementTransformer = new InitialPassStatementTransformer(scriptSource, initialPassScriptTarget, documentationRegistry);
+        SubsetScriptTransformer initialTransformer = new SubsetScriptTransformer(initialPassStatementTransformer);
+        String id = INTERNER.intern("cp_" + initialPassScriptTarget.getId());
+        CompileOperation<PluginRequests> initialOperation = new FactoryBackedCompileOperation<PluginRequests>(id, initialTransformer, initialPassStatementTransformer, pluginRequestsSerializer);
+        return compiler.compile(scriptType, initialOperation, baseClassLoader, Actions.doNothing());
+    }
+
     private class ScriptPluginImpl implements ScriptPlugin {
         private final ScriptSource scriptSource;
         private final ClassLoaderScope targetScope;
@@ -143,13 +163,7 @@ public class DefaultScriptPluginFactory implements ScriptPluginFactory {
 
             // Pass 1, extract plugin requests and plugin repositories and execute buildscript {}, ignoring (i.e. not even compiling) anything else
 
-            Class<? extends BasicScript> scriptType = initialPassScriptTarget.getScriptClass();
-            InitialPassStatementTransformer initialPassStatementTransformer = new InitialPassStatementTransformer(scriptSource, initialPassScriptTarget, documentationRegistry);
-            SubsetScriptTransformer initialTransformer = new SubsetScriptTransformer(initialPassStatementTransformer);
-            String id = INTERNER.intern("cp_" + initialPassScriptTarget.getId());
-            CompileOperation<PluginRequests> initialOperation = new FactoryBackedCompileOperation<PluginRequests>(id, initialTransformer, initialPassStatementTransformer, pluginRequestsSerializer);
-
-            ScriptRunner<? extends BasicScript, PluginRequests> initialRunner = compiler.compile(scriptType, initialOperation, baseScope.getExportClassLoader(), Actions.doNothing());
+            ScriptRunner<? extends BasicScript, PluginRequests> initialRunner = compileInitialPass(compiler, scriptSource, initialPassScriptTarget, baseScope.getExportClassLoader());
             initialRunner.run(target, services);
 
             PluginRequests pluginRequests = initialRunner.getData();
@@ -158,7 +172,7 @@ public class DefaultScriptPluginFactory implements ScriptPluginFactory {
 
             // Pass 2, compile everything except buildscript {}, pluginRepositories{}, and plugin requests, then run
             final ScriptTarget scriptTarget = secondPassTarget(target);
-            scriptType = scriptTarget.getScriptClass();
+            Class<? extends BasicScript> scriptType = scriptTarget.getScriptClass();
 
             BuildScriptTransformer buildScriptTransformer = new BuildScriptTransformer(scriptSource, scriptTarget);
             String operationId = scriptTarget.getId();
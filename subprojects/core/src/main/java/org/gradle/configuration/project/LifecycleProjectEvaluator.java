@@ -31,17 +31,29 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleProjectEvaluator.class);
 
     private final ProjectEvaluator delegate;
+    private final ProjectEvaluationCoordinator coordinator;
 
     public LifecycleProjectEvaluator(ProjectEvaluator delegate) {
+        this(delegate, new ProjectEvaluationCoordinator(false));
+    }
+
+    public LifecycleProjectEvaluator(ProjectEvaluator delegate, ProjectEvaluationCoordinator coordinator) {
         this.delegate = delegate;
+        this.coordinator = coordinator;
     }
 
     public void evaluate(ProjectInternal project, ProjectStateInternal state) {
-        //TODO this is one of the places to look into thread safety when we implement parallel configuration
-        if (state.getExecuted() || state.getExecuting()) {
+        if (!coordinator.startEvaluation(project, state)) {
             return;
         }
+        try {
+            doEvaluate(project, state);
+        } finally {
+            coordinator.finishEvaluation(state);
+        }
+    }
 
+    private void doEvaluate(ProjectInternal project, ProjectStateInternal state) {
         ProjectEvaluationListener listener = project.getProjectEvaluationBroadcaster();
         try {
             listener.beforeEvaluate(project);
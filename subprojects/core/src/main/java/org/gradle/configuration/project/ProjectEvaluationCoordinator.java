@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project;
+
+import org.gradle.api.InvalidUserCodeException;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateInternal;
+import org.gradle.internal.UncheckedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coordinates the threads that configure projects, when projects are configured in parallel. Projects are configured concurrently while they are
+ * decoupled, and one at a time once they access each other.
+ *
+ * <p>A thread holds each project that it is evaluating. While it configures a project, it also holds each other project that it accesses, until
+ * it has finished configuring. A project is held by at most one thread at a time, so a project is never configured or changed by two threads
+ * concurrently:</p>
+ *
+ * <ul>
+ *     <li>A project is accessed when it is looked up by path, found through the child projects, sub-projects or all projects of a project, has
+ *     its tasks requested by path, or is resolved as a project dependency. Reading the ancestors of the project being configured does not hold them,
+ *     as they have been configured before it. Each change to the domain object containers or extra properties of an ancestor does.</li>
+ *     <li>A thread that accesses a project that is not held and has not been configured holds it, so that it is configured once the thread has
+ *     finished, as it would be when the projects are configured one at a time.</li>
+ *     <li>A thread that accesses a project held by another thread waits until the project is released. A thread that requests the evaluation of
+ *     such a project is given the configured project.</li>
+ *     <li>A thread does not wait for a thread that is waiting for it, directly or through other threads. The other thread cannot run until the
+ *     current thread has finished, so the current thread uses the project as a single thread would. It evaluates the project when it has not
+ *     been evaluated, or uses the project as it is when it is being evaluated.</li>
+ * </ul>
+ *
+ * <p>In strict mode, each access to a project other than the ancestors and descendants of the project being configured, each change to an
+ * ancestor, and each access to a project held by another thread fails instead.</p>
+ */
+public class ProjectEvaluationCoordinator {
+    private final boolean strict;
+    private final Object lock = new Object();
+    // Protected by lock
+    private final Map<ProjectStateInternal, Holder> holders = new IdentityHashMap<ProjectStateInternal, Holder>();
+    private final Map<Thread, HeldProjects> threads = new HashMap<Thread, HeldProjects>();
+    private final Map<Thread, Holder> waiting = new HashMap<Thread, Holder>();
+
+    public ProjectEvaluationCoordinator(boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Claims the evaluation of the given project for the current thread, waiting for any other thread that holds it.
+     *
+     * @return true when the current thread should evaluate the project, false when the project has been evaluated or is being evaluated.
+     */
+    public boolean startEvaluation(ProjectInternal project, ProjectStateInternal state) {
+        Thread currentThread = Thread.currentThread();
+        synchronized (lock) {
+            while (true) {
+                // Check for a holder before checking the state, as a project is marked as executed before its afterEvaluate actions have run
+                Holder holder = holders.get(state);
+                if (holder != null && holder.thread != currentThread) {
+                    if (strict) {
+                        throw new InvalidUserCodeException(String.format("Cannot access %s while it is being configured in parallel. Remove the access or disable strict parallel configuration.", project));
+                    }
+                    if (findWaitingForCurrentThread(holder, currentThread) == null) {
+                        waitForRelease(holder, currentThread);
+                        continue;
+                    }
+                    if (holder.evaluating) {
+                        // A single thread would also be given the project while it is being evaluated
+                        return false;
+                    }
+                    // Evaluate the project on behalf of the holder, which cannot run until the current thread has finished
+                    release(holder, state);
+                    holder = null;
+                }
+                if (holder != null && holder.evaluating) {
+                    return false;
+                }
+                if (state.getExecuted() || state.getExecuting()) {
+                    return false;
+                }
+                HeldProjects heldProjects = hold(project, state, currentThread);
+                holders.get(state).evaluating = true;
+                heldProjects.evaluating.add(project);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the given project, which the current thread has finished evaluating. Once the current thread is no longer evaluating any project,
+     * the other projects it holds are released as well.
+     */
+    public void finishEvaluation(ProjectStateInternal state) {
+        Thread currentThread = Thread.currentThread();
+        synchronized (lock) {
+            HeldProjects heldProjects = threads.get(currentThread);
+            Holder holder = holders.remove(state);
+            heldProjects.states.remove(state);
+            heldProjects.evaluating.remove(holder.project);
+            if (heldProjects.evaluating.isEmpty()) {
+                for (ProjectStateInternal heldState : heldProjects.states) {
+                    holders.remove(heldState);
+                }
+                threads.remove(currentThread);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Called before the current thread accesses the given project, other than by reading one of the ancestors of the project it is configuring.
+     * When the current thread is configuring a project, it holds the given project until it has finished configuring, waiting for any other
+     * thread that holds the given project.
+     */
+    public void beforeAccess(ProjectInternal project, ProjectStateInternal state) {
+        acquire(project, state, false);
+    }
+
+    /**
+     * Called before a domain object container or the extra properties of the given project are changed. When the current thread is configuring a
+     * project, it holds the given project until it has finished configuring, waiting for any other thread that holds the given project.
+     */
+    public void beforeMutation(ProjectInternal project, ProjectStateInternal state) {
+        acquire(project, state, true);
+    }
+
+    private void acquire(ProjectInternal project, ProjectStateInternal state, boolean mutation) {
+        Thread currentThread = Thread.currentThread();
+        synchronized (lock) {
+            HeldProjects heldProjects = threads.get(currentThread);
+            if (heldProjects == null) {
+                // Not configuring a project, so there is nothing to coordinate with
+                return;
+            }
+            while (true) {
+                Holder holder = holders.get(state);
+                if (holder == null) {
+                    boolean ancestor = heldProjects.isAncestor(project);
+                    if (ancestor && !mutation) {
+                        // Configured before the projects being configured, and only read by them
+                        return;
+                    }
+                    if (strict && (ancestor || !heldProjects.isDescendant(project))) {
+                        throw new InvalidUserCodeException(String.format("Cannot %s %s from %s while projects are configured in parallel. Remove the %s or disable strict parallel configuration.",
+                            mutation ? "change" : "access", project, heldProjects.evaluating.get(0), mutation ? "change" : "access"));
+                    }
+                    hold(project, state, currentThread);
+                    return;
+                }
+                if (holder.thread == currentThread) {
+                    return;
+                }
+                if (strict) {
+                    throw new InvalidUserCodeException(String.format("Cannot %s %s while it is being configured in parallel. Remove the %s or disable strict parallel configuration.",
+                        mutation ? "change" : "access", project, mutation ? "change" : "access"));
+                }
+                if (findWaitingForCurrentThread(holder, currentThread) != null) {
+                    // The holder cannot run until the current thread has finished, so use the project as a single thread would
+                    return;
+                }
+                waitForRelease(holder, currentThread);
+            }
+        }
+    }
+
+    private HeldProjects hold(ProjectInternal project, ProjectStateInternal state, Thread currentThread) {
+        HeldProjects heldProjects = threads.get(currentThread);
+        if (heldProjects == null) {
+            heldProjects = new HeldProjects();
+            threads.put(currentThread, heldProjects);
+        }
+        if (!holders.containsKey(state)) {
+            holders.put(state, new Holder(project, currentThread));
+            heldProjects.states.add(state);
+        }
+        return heldProjects;
+    }
+
+    private void release(Holder holder, ProjectStateInternal state) {
+        holders.remove(state);
+        threads.get(holder.thread).states.remove(state);
+    }
+
+    private void waitForRelease(Holder holder, Thread currentThread) {
+        waiting.put(currentThread, holder);
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            waiting.remove(currentThread);
+        }
+    }
+
+    /**
+     * Follows the threads that wait for each other, starting with the thread that holds the given project. Returns the project held by the current
+     * thread that one of these threads waits for, or null when none of them waits for the current thread.
+     */
+    private Holder findWaitingForCurrentThread(Holder holder, Thread currentThread) {
+        for (Holder next = waiting.get(holder.thread); next != null; next = waiting.get(next.thread)) {
+            if (next.thread == currentThread) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private static class Holder {
+        final ProjectInternal project;
+        final Thread thread;
+        boolean evaluating;
+
+        Holder(ProjectInternal project, Thread thread) {
+            this.project = project;
+            this.thread = thread;
+        }
+    }
+
+    private static class HeldProjects {
+        final List<ProjectStateInternal> states = new ArrayList<ProjectStateInternal>();
+        final List<ProjectInternal> evaluating = new ArrayList<ProjectInternal>();
+
+        boolean isAncestor(ProjectInternal project) {
+            for (ProjectInternal evaluated : evaluating) {
+                if (isAncestor(project, evaluated)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isDescendant(ProjectInternal project) {
+            for (ProjectInternal evaluated : evaluating) {
+                if (isAncestor(evaluated, project)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isAncestor(ProjectInternal ancestor, ProjectInternal project) {
+            String path = project.getPath();
+            String ancestorPath = ancestor.getPath();
+            return !path.equals(ancestorPath) && (ancestorPath.equals(":") || path.startsWith(ancestorPath + ":"));
+        }
+    }
+}
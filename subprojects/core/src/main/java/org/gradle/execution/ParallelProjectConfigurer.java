@@ -0,0 +1,268 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution;
+
+import org.gradle.api.Action;
+import org.gradle.api.BuildCancelledException;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.internal.DefaultDomainObjectCollection;
+import org.gradle.api.internal.DelegatingDomainObjectSet;
+import org.gradle.api.internal.plugins.DefaultConvention;
+import org.gradle.api.internal.plugins.DefaultExtraPropertiesExtension;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
+import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Configures the projects of a hierarchy concurrently. A project is configured once its parent has been configured, so that it can
+ * see the configuration its parent applied to it, and concurrently with its siblings and their sub-projects.
+ *
+ * <p>When configuration of a project fails, no further projects are started and the failure of the first project, in path order, is rethrown
+ * once the projects already started have been configured.</p>
+ *
+ * <p>Projects are not thread-safe. When a project looks up or navigates to another project, the other project is held by the configuring thread
+ * until its configuration finishes, see {@link ProjectEvaluationCoordinator}. Projects which have children are shared by all of their descendants,
+ * so each change to their tasks, configurations, dependencies, artifacts, plugins, repositories, extensions or extra properties is coordinated as
+ * well. These hooks are removed once the hierarchy has been configured.</p>
+ */
+public class ParallelProjectConfigurer implements ProjectConfigurer {
+    private final BuildCancellationToken cancellationToken;
+    private final ExecutorFactory executorFactory;
+    private final int maxWorkerCount;
+    private final ProjectEvaluationCoordinator coordinator;
+
+    public ParallelProjectConfigurer(BuildCancellationToken cancellationToken, ExecutorFactory executorFactory, int maxWorkerCount, ProjectEvaluationCoordinator coordinator) {
+        this.cancellationToken = cancellationToken;
+        this.executorFactory = executorFactory;
+        this.maxWorkerCount = maxWorkerCount;
+        this.coordinator = coordinator;
+    }
+
+    public void configure(ProjectInternal project) {
+        checkNotCancelled();
+        project.evaluate();
+    }
+
+    public void configureHierarchy(ProjectInternal project) {
+        configure(project);
+        if (project.getChildProjects().isEmpty()) {
+            return;
+        }
+
+        ChangeHooks hooks = new ChangeHooks();
+        StoppableExecutor executor = executorFactory.create("Configure projects", maxWorkerCount);
+        HierarchyConfiguration configuration = new HierarchyConfiguration(executor, hooks);
+        try {
+            hooks.install(project);
+            configuration.configureChildren(project);
+            configuration.waitForCompletion();
+        } finally {
+            try {
+                executor.stop();
+            } finally {
+                hooks.remove();
+            }
+        }
+        configuration.rethrowFailure();
+    }
+
+    private void checkNotCancelled() {
+        if (cancellationToken.isCancellationRequested()) {
+            throw new BuildCancelledException();
+        }
+    }
+
+    /**
+     * Coordinates the changes made to the projects which have children, for as long as the hierarchy is being configured.
+     */
+    private class ChangeHooks {
+        private final List<Runnable> removals = new ArrayList<Runnable>();
+        private volatile boolean active = true;
+
+        void install(final ProjectInternal project) {
+            final Runnable beforeChange = new Runnable() {
+                @Override
+                public void run() {
+                    if (active) {
+                        coordinator.beforeMutation(project, project.getState());
+                    }
+                }
+            };
+            for (Object container : Arrays.asList(project.getTasks(), project.getPlugins(), project.getRepositories())) {
+                hook(container, beforeChange);
+            }
+            ConfigurationContainer configurations = project.getConfigurations();
+            hook(configurations, beforeChange);
+            for (Configuration configuration : configurations) {
+                hook(configuration, beforeChange);
+            }
+            configurations.whenObjectAdded(new Action<Configuration>() {
+                @Override
+                public void execute(Configuration configuration) {
+                    if (active) {
+                        hook(configuration, beforeChange);
+                    }
+                }
+            });
+            ExtraPropertiesExtension extraProperties = project.getExtensions().getExtraProperties();
+            if (extraProperties instanceof DefaultExtraPropertiesExtension) {
+                final DefaultExtraPropertiesExtension extension = (DefaultExtraPropertiesExtension) extraProperties;
+                extension.beforeChange(beforeChange);
+                addRemoval(new Runnable() {
+                    @Override
+                    public void run() {
+                        extension.removeBeforeChange(beforeChange);
+                    }
+                });
+            }
+            if (project.getConvention() instanceof DefaultConvention) {
+                final DefaultConvention convention = (DefaultConvention) project.getConvention();
+                convention.beforeChange(beforeChange);
+                addRemoval(new Runnable() {
+                    @Override
+                    public void run() {
+                        convention.removeBeforeChange(beforeChange);
+                    }
+                });
+            }
+        }
+
+        private void hook(Configuration configuration, Runnable beforeChange) {
+            hook(configuration.getDependencies(), beforeChange);
+            hook(configuration.getArtifacts(), beforeChange);
+        }
+
+        private void hook(Object container, final Runnable beforeChange) {
+            if (container instanceof DelegatingDomainObjectSet) {
+                // Dependencies and artifacts are changed through the set they delegate to
+                container = ((DelegatingDomainObjectSet<?>) container).getDelegate();
+            }
+            if (container instanceof DefaultDomainObjectCollection) {
+                final DefaultDomainObjectCollection<?> collection = (DefaultDomainObjectCollection<?>) container;
+                collection.beforeChange(beforeChange);
+                addRemoval(new Runnable() {
+                    @Override
+                    public void run() {
+                        collection.removeBeforeChange(beforeChange);
+                    }
+                });
+            }
+        }
+
+        private void addRemoval(Runnable removal) {
+            synchronized (removals) {
+                removals.add(removal);
+            }
+        }
+
+        void remove() {
+            active = false;
+            synchronized (removals) {
+                for (Runnable removal : removals) {
+                    removal.run();
+                }
+                removals.clear();
+            }
+        }
+    }
+
+    private class HierarchyConfiguration {
+        private final Executor executor;
+        private final ChangeHooks hooks;
+        private final Object lock = new Object();
+        // Protected by lock
+        private int running;
+        private ProjectInternal failedProject;
+        private Throwable failure;
+
+        HierarchyConfiguration(Executor executor, ChangeHooks hooks) {
+            this.executor = executor;
+            this.hooks = hooks;
+        }
+
+        void configureChildren(ProjectInternal parent) {
+            for (Project child : parent.getChildProjects().values()) {
+                final ProjectInternal childProject = (ProjectInternal) child;
+                synchronized (lock) {
+                    if (failure != null) {
+                        return;
+                    }
+                    running++;
+                }
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        configureProject(childProject);
+                    }
+                });
+            }
+        }
+
+        private void configureProject(ProjectInternal project) {
+            try {
+                configure(project);
+                if (!project.getChildProjects().isEmpty()) {
+                    hooks.install(project);
+                    configureChildren(project);
+                }
+            } catch (Throwable t) {
+                synchronized (lock) {
+                    if (failedProject == null || project.getPath().compareTo(failedProject.getPath()) < 0) {
+                        failedProject = project;
+                        failure = t;
+                    }
+                }
+            } finally {
+                synchronized (lock) {
+                    running--;
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        void waitForCompletion() {
+            synchronized (lock) {
+                while (running > 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                }
+            }
+        }
+
+        void rethrowFailure() {
+            synchronized (lock) {
+                if (failure != null) {
+                    throw UncheckedException.throwAsUncheckedException(failure);
+                }
+            }
+        }
+    }
+}
@@ -23,7 +23,7 @@ import org.gradle.api.internal.initialization.loadercache.ClassLoaderId;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Cast;
 
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This in-memory cache is responsible for caching compiled build scripts during a build session.
@@ -33,7 +33,7 @@ import java.util.Map;
 public class BuildScopeInMemoryCachingScriptClassCompiler implements ScriptClassCompiler {
     private final CrossBuildInMemoryCachingScriptClassCache cache;
     private final ScriptClassCompiler scriptClassCompiler;
-    private final Map<ScriptCacheKey, CompiledScript<?, ?>> cachedCompiledScripts = Maps.newHashMap();
+    private final ConcurrentMap<ScriptCacheKey, CompiledScript<?, ?>> cachedCompiledScripts = Maps.newConcurrentMap();
 
     public BuildScopeInMemoryCachingScriptClassCompiler(CrossBuildInMemoryCachingScriptClassCache cache, ScriptClassCompiler scriptClassCompiler) {
         this.cache = cache;
@@ -46,7 +46,10 @@ public class BuildScopeInMemoryCachingScriptClassCompiler implements ScriptClass
         CompiledScript<T, M> compiledScript = Cast.uncheckedCast(cachedCompiledScripts.get(key));
         if (compiledScript == null) {
             compiledScript = cache.getOrCompile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier, scriptClassCompiler);
-            cachedCompiledScripts.put(key, compiledScript);
+            CompiledScript<?, ?> existing = cachedCompiledScripts.putIfAbsent(key, compiledScript);
+            if (existing != null) {
+                compiledScript = Cast.uncheckedCast(existing);
+            }
         }
         return compiledScript;
     }
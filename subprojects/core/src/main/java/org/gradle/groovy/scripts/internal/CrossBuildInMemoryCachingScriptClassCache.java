@@ -17,6 +17,8 @@ package org.gradle.groovy.scripts.internal;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import groovy.lang.Script;
 import org.codehaus.groovy.ast.ClassNode;
 import org.gradle.api.Action;
@@ -24,28 +26,46 @@ import org.gradle.api.internal.changedetection.state.FileSnapshotter;
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderId;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Cast;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.hash.HashValue;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches compiled scripts across the builds of a daemon. The cache holds its entries through soft references, so that its size is bounded by
+ * the available heap rather than by a number of entries. A script is compiled once when it is requested by multiple threads concurrently.
+ */
 public class CrossBuildInMemoryCachingScriptClassCache {
-    private final Cache<ScriptCacheKey, CachedCompiledScript> cachedCompiledScripts = CacheBuilder.newBuilder().maximumSize(100).recordStats().build();
+    private final Cache<ScriptCacheKey, CachedCompiledScript> cachedCompiledScripts = CacheBuilder.newBuilder().softValues().recordStats().build();
     private final FileSnapshotter snapshotter;
 
     public CrossBuildInMemoryCachingScriptClassCache(FileSnapshotter snapshotter) {
         this.snapshotter = snapshotter;
     }
 
-    public <T extends Script, M> CompiledScript<T, M> getOrCompile(ScriptSource source, ClassLoader classLoader, ClassLoaderId classLoaderId, CompileOperation<M> operation, Class<T> scriptBaseClass, Action<? super ClassNode> verifier, ScriptClassCompiler delegate) {
+    public <T extends Script, M> CompiledScript<T, M> getOrCompile(final ScriptSource source, final ClassLoader classLoader, final ClassLoaderId classLoaderId, final CompileOperation<M> operation, final Class<T> scriptBaseClass, final Action<? super ClassNode> verifier, final ScriptClassCompiler delegate) {
         ScriptCacheKey key = new ScriptCacheKey(source.getClassName(), classLoader, operation.getId());
+        final HashValue hash = snapshotter.snapshot(source.getResource()).getHash();
         CachedCompiledScript cached = cachedCompiledScripts.getIfPresent(key);
-        HashValue hash = snapshotter.snapshot(source.getResource()).getHash();
-        if (cached != null) {
-            if (hash.equals(cached.hash)) {
-                return Cast.uncheckedCast(cached.compiledScript);
-            }
+        if (cached != null && !hash.equals(cached.hash)) {
+            cachedCompiledScripts.asMap().remove(key, cached);
+        }
+        try {
+            cached = cachedCompiledScripts.get(key, new Callable<CachedCompiledScript>() {
+                @Override
+                public CachedCompiledScript call() {
+                    return new CachedCompiledScript(hash, delegate.compile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier));
+                }
+            });
+        } catch (ExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (ExecutionError e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
         }
-        CompiledScript<T, M> compiledScript = delegate.compile(source, classLoader, classLoaderId, operation, scriptBaseClass, verifier);
-        cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript));
-        return compiledScript;
+        return Cast.uncheckedCast(cached.compiledScript);
     }
 
     private static class CachedCompiledScript {
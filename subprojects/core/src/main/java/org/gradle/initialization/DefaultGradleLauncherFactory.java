@@ -42,6 +42,7 @@ import org.gradle.invocation.DefaultGradle;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.progress.ProgressLoggerFactory;
 import org.gradle.internal.logging.text.StyledTextOutputFactory;
+import org.gradle.model.internal.manage.schema.ModelSchemaStore;
 import org.gradle.profile.ProfileEventAdapter;
 import org.gradle.profile.ReportGeneratingProfileListener;
 import org.gradle.util.DeprecationLogger;
@@ -60,6 +61,14 @@ public class DefaultGradleLauncherFactory implements GradleLauncherFactory {
         buildProgressLogger = new BuildProgressLogger(sharedServices.get(ProgressLoggerFactory.class));
         listenerManager.addListener(new BuildProgressFilter(buildProgressLogger));
         listenerManager.useLogger(new DependencyResolutionLogger(sharedServices.get(ProgressLoggerFactory.class)));
+
+        // Discard the schemas of types whose ClassLoader has been collected, so they do not accumulate in a long lived process
+        final ModelSchemaStore schemaStore = sharedServices.get(ModelSchemaStore.class);
+        listenerManager.addListener(new BuildCompletionListener() {
+            public void completed() {
+                schemaStore.cleanUp();
+            }
+        });
     }
 
     public void addListener(Object listener) {
@@ -17,6 +17,7 @@
 package org.gradle.initialization.buildsrc;
 
 import org.gradle.StartParameter;
+import org.gradle.api.Transformer;
 import org.gradle.api.internal.initialization.ClassLoaderScope;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.PersistentCache;
@@ -26,6 +27,8 @@ import org.gradle.initialization.GradleLauncherFactory;
 import org.gradle.internal.Factory;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.jvm.Jvm;
 import org.gradle.internal.progress.BuildOperationDetails;
 import org.gradle.internal.progress.BuildOperationExecutor;
 import org.gradle.util.GradleVersion;
@@ -33,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Collections;
 
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
@@ -76,14 +80,21 @@ public class BuildSourceBuilder {
         });
     }
 
-    private ClassPath buildBuildSrc(StartParameter startParameter) {
+    private ClassPath buildBuildSrc(final StartParameter startParameter) {
         // If we were not the most recent version of Gradle to build the buildSrc dir, then do a clean build
         // Otherwise, just to a regular build
         final PersistentCache buildSrcCache = createCache(startParameter);
         try {
             GradleLauncher gradleLauncher = buildGradleLauncher(startParameter);
             try {
-                return buildSrcCache.useCache("rebuild buildSrc", new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory()));
+                final BuildSrcInputsHasher inputsHasher = new BuildSrcInputsHasher(Jvm.current());
+                Transformer<HashValue, Collection<File>> hashInputs = new Transformer<HashValue, Collection<File>>() {
+                    @Override
+                    public HashValue transform(Collection<File> buildDirs) {
+                        return inputsHasher.hash(startParameter, buildDirs);
+                    }
+                };
+                return buildSrcCache.useCache("rebuild buildSrc", new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory(), hashInputs));
             } finally {
                 gradleLauncher.stop();
             }
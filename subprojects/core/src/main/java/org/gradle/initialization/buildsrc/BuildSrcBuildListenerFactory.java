@@ -17,6 +17,7 @@
 package org.gradle.initialization.buildsrc;
 
 import org.gradle.BuildAdapter;
+import org.gradle.api.Project;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.component.BuildableJavaComponent;
 import org.gradle.api.internal.component.ComponentRegistry;
@@ -26,6 +27,7 @@ import org.gradle.util.WrapUtil;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class BuildSrcBuildListenerFactory {
@@ -38,6 +40,7 @@ public class BuildSrcBuildListenerFactory {
 
     public static class Listener extends BuildAdapter implements ModelConfigurationListener {
         private Set<File> classpath;
+        private final Set<File> buildDirs = new LinkedHashSet<File>();
         private final boolean rebuild;
 
         public Listener(boolean rebuild) {
@@ -53,10 +56,20 @@ public class BuildSrcBuildListenerFactory {
             return classpath;
         }
 
+        /**
+         * Returns the build directories of the projects of the build.
+         */
+        public Collection<File> getBuildDirs() {
+            return buildDirs;
+        }
+
         public void onConfigure(GradleInternal gradle) {
             BuildableJavaComponent projectInfo = gradle.getRootProject().getServices().get(ComponentRegistry.class).getMainComponent();
             gradle.getStartParameter().setTaskNames(rebuild ? projectInfo.getRebuildTasks() : projectInfo.getBuildTasks());
             classpath = projectInfo.getRuntimeClasspath().getFiles();
+            for (Project project : gradle.getRootProject().getAllprojects()) {
+                buildDirs.add(project.getBuildDir());
+            }
         }
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization.buildsrc;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.gradle.StartParameter;
+import org.gradle.api.Nullable;
+import org.gradle.internal.FileUtils;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.jvm.Jvm;
+import org.gradle.util.GradleVersion;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Calculates a hash of the inputs that the configuration of the buildSrc build reads: the files of the buildSrc directory, other than the build
+ * output of its projects, the init scripts, the {@code gradle.properties} file in the Gradle user home directory, the properties given on the command line and the
+ * Java installation that runs the build.
+ */
+public class BuildSrcInputsHasher {
+    private static final String DEFAULT_BUILD_DIR = "build";
+    private static final String STATE_DIR = ".gradle";
+    private final Jvm jvm;
+
+    public BuildSrcInputsHasher(Jvm jvm) {
+        this.jvm = jvm;
+    }
+
+    /**
+     * Returns the hash of the inputs of the given buildSrc build, or null when its result should not be reused.
+     *
+     * @param buildDirs The build directories of the projects of the buildSrc build, which are not hashed. The {@code build} directory of buildSrc is
+     * never hashed.
+     */
+    @Nullable
+    public HashValue hash(StartParameter startParameter, Collection<File> buildDirs) {
+        if (startParameter.isRefreshDependencies() || startParameter.isRerunTasks() || startParameter.isRecompileScripts()) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.md5().newHasher();
+        hasher.putString(GradleVersion.current().getVersion(), Charsets.UTF_8);
+        hasher.putString(String.valueOf(jvm.getJavaVersion()), Charsets.UTF_8);
+        hasher.putString(jvm.getJavaHome().getAbsolutePath(), Charsets.UTF_8);
+        putProperties(hasher, startParameter.getProjectProperties());
+        putProperties(hasher, startParameter.getSystemPropertiesArgs());
+        for (File initScript : startParameter.getAllInitScripts()) {
+            putFile(hasher, initScript.getAbsolutePath(), initScript);
+        }
+        putFile(hasher, "gradle.properties", new File(startParameter.getGradleUserHomeDir(), "gradle.properties"));
+
+        File buildSrcDir = startParameter.getCurrentDir();
+        Set<File> ignoredDirs = new HashSet<File>();
+        ignoredDirs.add(FileUtils.canonicalize(new File(buildSrcDir, DEFAULT_BUILD_DIR)));
+        for (File buildDir : buildDirs) {
+            ignoredDirs.add(FileUtils.canonicalize(buildDir));
+        }
+        File[] files = buildSrcDir.listFiles();
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                putFileTree(hasher, file.getName(), file, ignoredDirs);
+            }
+        }
+        return new HashValue(hasher.hash().asBytes());
+    }
+
+    private void putProperties(Hasher hasher, Map<String, String> properties) {
+        Map<String, String> sorted = new TreeMap<String, String>(properties);
+        hasher.putInt(sorted.size());
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            hasher.putString(entry.getKey(), Charsets.UTF_8);
+            hasher.putString(String.valueOf(entry.getValue()), Charsets.UTF_8);
+        }
+    }
+
+    private void putFileTree(Hasher hasher, String path, File file, Set<File> ignoredDirs) {
+        if (file.isDirectory()) {
+            if (file.getName().equals(STATE_DIR) || ignoredDirs.contains(FileUtils.canonicalize(file))) {
+                return;
+            }
+            File[] children = file.listFiles();
+            if (children == null) {
+                return;
+            }
+            Arrays.sort(children);
+            hasher.putString(path, Charsets.UTF_8);
+            hasher.putByte((byte) 1);
+            for (File child : children) {
+                putFileTree(hasher, path + "/" + child.getName(), child, ignoredDirs);
+            }
+        } else {
+            putFile(hasher, path, file);
+        }
+    }
+
+    private void putFile(Hasher hasher, String path, File file) {
+        hasher.putString(path, Charsets.UTF_8);
+        if (file.isFile()) {
+            hasher.putBytes(HashUtil.createHash(file, "MD5").asByteArray());
+        } else {
+            hasher.putByte((byte) 0);
+        }
+    }
+}
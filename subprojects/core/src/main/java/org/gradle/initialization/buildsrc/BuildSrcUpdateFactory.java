@@ -16,6 +16,8 @@
 
 package org.gradle.initialization.buildsrc;
 
+import org.gradle.api.Nullable;
+import org.gradle.api.Transformer;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
@@ -23,27 +25,66 @@ import org.gradle.cache.PersistentCache;
 import org.gradle.initialization.GradleLauncher;
 import org.gradle.internal.Factory;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.gradle.util.GFileUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds buildSrc and returns its runtime classpath. When the inputs of buildSrc can be hashed, the classpath is recorded with their hash and the
+ * build directories of the buildSrc projects, and the build is skipped in later builds while the hash is unchanged and the recorded classpath still
+ * exists. A recorded classpath is reused for a limited time only, so that the dependencies of buildSrc are resolved again once their cached versions
+ * may have expired.
+ */
 public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
+    private static final long MAX_REUSE_AGE_MS = TimeUnit.HOURS.toMillis(24);
     private final PersistentCache cache;
     private final GradleLauncher gradleLauncher;
     private BuildSrcBuildListenerFactory listenerFactory;
+    private final Transformer<HashValue, Collection<File>> inputsHasher;
     private static final Logger LOGGER = Logging.getLogger(BuildSrcUpdateFactory.class);
 
     public BuildSrcUpdateFactory(PersistentCache cache, GradleLauncher gradleLauncher, BuildSrcBuildListenerFactory listenerFactory) {
+        this(cache, gradleLauncher, listenerFactory, null);
+    }
+
+    /**
+     * @param inputsHasher Calculates the hash of the inputs of buildSrc, ignoring the given build directories. Returns null when the result of
+     * buildSrc should not be reused.
+     */
+    public BuildSrcUpdateFactory(PersistentCache cache, GradleLauncher gradleLauncher, BuildSrcBuildListenerFactory listenerFactory,
+                                 @Nullable Transformer<HashValue, Collection<File>> inputsHasher) {
         this.cache = cache;
         this.gradleLauncher = gradleLauncher;
         this.listenerFactory = listenerFactory;
+        this.inputsHasher = inputsHasher;
     }
 
     public DefaultClassPath create() {
         File markerFile = new File(cache.getBaseDir(), "built.bin");
+        File resultFile = new File(cache.getBaseDir(), "result.bin");
         final boolean rebuild = !markerFile.exists();
 
+        if (!rebuild && inputsHasher != null) {
+            List<File> previousClasspath = readResult(resultFile);
+            if (previousClasspath != null) {
+                LOGGER.info("Skipping build of buildSrc as its inputs have not changed.");
+                LOGGER.debug("Gradle source classpath is: {}", previousClasspath);
+                return new DefaultClassPath(previousClasspath);
+            }
+        }
+
         BuildSrcBuildListenerFactory.Listener listener = listenerFactory.create(rebuild);
         gradleLauncher.addListener(listener);
         gradleLauncher.run();
@@ -55,6 +96,72 @@ public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        HashValue inputsHash = inputsHasher == null ? null : inputsHasher.transform(listener.getBuildDirs());
+        if (inputsHash != null) {
+            writeResult(resultFile, inputsHash, listener.getBuildDirs(), classpath);
+        } else {
+            GFileUtils.deleteQuietly(resultFile);
+        }
         return new DefaultClassPath(classpath);
     }
+
+    @Nullable
+    private List<File> readResult(File resultFile) {
+        if (!resultFile.isFile() || System.currentTimeMillis() - resultFile.lastModified() > MAX_REUSE_AGE_MS) {
+            return null;
+        }
+        try {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(new FileInputStream(resultFile));
+            try {
+                HashValue previousHash = new HashValue(decoder.readBinary());
+                List<File> buildDirs = readFiles(decoder);
+                if (!previousHash.equals(inputsHasher.transform(buildDirs))) {
+                    return null;
+                }
+                List<File> classpath = readFiles(decoder);
+                for (File file : classpath) {
+                    if (!file.exists()) {
+                        return null;
+                    }
+                }
+                return classpath;
+            } finally {
+                decoder.close();
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Could not read previous buildSrc result from {}.", resultFile, e);
+            return null;
+        }
+    }
+
+    private List<File> readFiles(Decoder decoder) throws IOException {
+        int count = decoder.readSmallInt();
+        List<File> files = new ArrayList<File>(count);
+        for (int i = 0; i < count; i++) {
+            files.add(new File(decoder.readString()));
+        }
+        return files;
+    }
+
+    private void writeResult(File resultFile, HashValue inputsHash, Collection<File> buildDirs, Collection<File> classpath) {
+        try {
+            KryoBackedEncoder encoder = new KryoBackedEncoder(new FileOutputStream(resultFile));
+            try {
+                encoder.writeBinary(inputsHash.asByteArray());
+                writeFiles(encoder, buildDirs);
+                writeFiles(encoder, classpath);
+            } finally {
+                encoder.close();
+            }
+        } catch (Exception e) {
+            throw new UncheckedIOException(String.format("Could not write buildSrc result to %s.", resultFile), e);
+        }
+    }
+
+    private void writeFiles(Encoder encoder, Collection<File> files) throws IOException {
+        encoder.writeSmallInt(files.size());
+        for (File file : files) {
+            encoder.writeString(file.getAbsolutePath());
+        }
+    }
 }
@@ -64,6 +64,7 @@ import org.gradle.api.logging.configuration.ShowStacktrace;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.CacheValidator;
 import org.gradle.configuration.BuildConfigurer;
+import org.gradle.configuration.BuildScriptPrecompiler;
 import org.gradle.configuration.DefaultBuildConfigurer;
 import org.gradle.configuration.DefaultInitScriptProcessor;
 import org.gradle.configuration.DefaultScriptPluginFactory;
@@ -75,7 +76,9 @@ import org.gradle.configuration.project.ConfigureActionsProjectEvaluator;
 import org.gradle.configuration.project.DelayedConfigurationActions;
 import org.gradle.configuration.project.LifecycleProjectEvaluator;
 import org.gradle.configuration.project.PluginsProjectConfigureActions;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.configuration.project.ProjectEvaluator;
+import org.gradle.execution.ParallelProjectConfigurer;
 import org.gradle.execution.ProjectConfigurer;
 import org.gradle.execution.TaskPathProjectEvaluator;
 import org.gradle.groovy.scripts.DefaultScriptCompilerFactory;
@@ -229,7 +232,12 @@ public class BuildScopeServices extends DefaultServiceRegistry {
             new BuildScriptProcessor(get(ScriptPluginFactory.class)),
             new DelayedConfigurationActions()
         );
-        return new LifecycleProjectEvaluator(withActionsEvaluator);
+        return new LifecycleProjectEvaluator(withActionsEvaluator, get(ProjectEvaluationCoordinator.class));
+    }
+
+    protected ProjectEvaluationCoordinator createProjectEvaluationCoordinator(StartParameter startParameter) {
+        // Strict mode only applies when projects are configured in parallel
+        return new ProjectEvaluationCoordinator(startParameter.isStrictParallelConfiguration() && startParameter.isParallelConfigurationEnabled() && !startParameter.isConfigureOnDemand());
     }
 
     protected ITaskFactory createITaskFactory() {
@@ -351,16 +359,20 @@ public class BuildScopeServices extends DefaultServiceRegistry {
         );
     }
 
-    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken) {
+    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken, StartParameter startParameter, ExecutorFactory executorFactory, ProjectEvaluationCoordinator coordinator) {
+        // Configuration on demand configures only the projects that are needed, one at a time
+        if (startParameter.isParallelConfigurationEnabled() && !startParameter.isConfigureOnDemand()) {
+            return new ParallelProjectConfigurer(cancellationToken, executorFactory, startParameter.getMaxWorkerCount(), coordinator);
+        }
         return new TaskPathProjectEvaluator(cancellationToken);
     }
 
-    protected BuildConfigurer createBuildConfigurer(ProjectConfigurer projectConfigurer) {
-        return new DefaultBuildConfigurer(projectConfigurer);
+    protected BuildConfigurer createBuildConfigurer(ProjectConfigurer projectConfigurer, StartParameter startParameter, ExecutorFactory executorFactory) {
+        return new DefaultBuildConfigurer(projectConfigurer, new BuildScriptPrecompiler(defaultScriptPluginFactory(), executorFactory, startParameter.getMaxWorkerCount()));
     }
 
-    protected ProjectAccessListener createProjectAccessListener() {
-        return new DefaultProjectAccessListener();
+    protected ProjectAccessListener createProjectAccessListener(ProjectEvaluationCoordinator coordinator) {
+        return new DefaultProjectAccessListener(coordinator);
     }
 
     protected ProfileEventAdapter createProfileEventAdapter() {
@@ -18,9 +18,13 @@ package org.gradle.internal.service.scopes;
 
 import org.gradle.StartParameter;
 import org.gradle.api.Action;
+import org.gradle.api.internal.AsmBackedClassGenerator;
+import org.gradle.api.internal.ClassGenerator;
+import org.gradle.api.internal.ClassGeneratorBackedInstantiator;
 import org.gradle.api.internal.ClassPathRegistry;
 import org.gradle.api.internal.DefaultClassPathProvider;
 import org.gradle.api.internal.DefaultClassPathRegistry;
+import org.gradle.api.internal.GeneratedClassFileCache;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.file.TemporaryFileProvider;
 import org.gradle.cache.CacheRepository;
@@ -29,6 +33,8 @@ import org.gradle.deployment.internal.DefaultDeploymentRegistry;
 import org.gradle.deployment.internal.DeploymentRegistry;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.id.LongIdGenerator;
+import org.gradle.internal.reflect.DirectInstantiator;
+import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.remote.MessagingServer;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistration;
@@ -59,6 +65,18 @@ public class BuildSessionScopeServices extends DefaultServiceRegistry {
         addProvider(new CacheRepositoryServices(startParameter.getGradleUserHomeDir(), startParameter.getProjectCacheDir()));
     }
 
+    GeneratedClassFileCache createGeneratedClassFileCache(CacheRepository cacheRepository) {
+        return new GeneratedClassFileCache(cacheRepository);
+    }
+
+    ClassGenerator createClassGenerator(GeneratedClassFileCache generatedClassFileCache) {
+        return new AsmBackedClassGenerator(generatedClassFileCache);
+    }
+
+    Instantiator createInstantiator(ClassGenerator classGenerator) {
+        return new ClassGeneratorBackedInstantiator(classGenerator, DirectInstantiator.INSTANCE);
+    }
+
     DeploymentRegistry createDeploymentRegistry() {
         return new DefaultDeploymentRegistry();
     }
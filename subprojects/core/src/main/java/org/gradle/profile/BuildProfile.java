@@ -16,6 +16,7 @@
 package org.gradle.profile;
 
 import org.gradle.StartParameter;
+import org.gradle.api.internal.ClassGenerationStatistics;
 import org.gradle.util.CollectionUtils;
 
 import java.text.DateFormat;
@@ -54,6 +55,7 @@ public class BuildProfile {
     private long buildFinished;
     private StartParameter startParameter;
     private boolean successful;
+    private ClassGenerationStatistics classGeneration = new ClassGenerationStatistics(0, 0, 0);
 
     public BuildProfile(StartParameter startParameter) {
         this.startParameter = startParameter;
@@ -242,6 +244,24 @@ public class BuildProfile {
         return result;
     }
 
+    /**
+     * Should be set with the classes generated during the build.
+     */
+    public void setClassGeneration(ClassGenerationStatistics classGeneration) {
+        this.classGeneration = classGeneration;
+    }
+
+    /**
+     * Get the time (in mSec) spent generating classes during the build. This time is included in the other phases of the build.
+     */
+    public long getElapsedClassGeneration() {
+        return classGeneration.getElapsedMillis();
+    }
+
+    public String getClassGenerationDescription() {
+        return String.format("Class Generation (%d generated, %d loaded from cache)", classGeneration.getGeneratedClasses(), classGeneration.getCachedClasses());
+    }
+
     public String getBuildStartedDescription() {
         return "Started on: " + DATE_FORMAT.format(buildStarted);
     }
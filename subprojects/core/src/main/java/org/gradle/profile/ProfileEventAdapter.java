@@ -24,6 +24,8 @@ import org.gradle.api.Task;
 import org.gradle.api.artifacts.DependencyResolutionListener;
 import org.gradle.api.artifacts.ResolvableDependencies;
 import org.gradle.api.execution.TaskExecutionListener;
+import org.gradle.api.internal.AbstractClassGenerator;
+import org.gradle.api.internal.ClassGenerationStatistics;
 import org.gradle.api.initialization.Settings;
 import org.gradle.api.invocation.Gradle;
 import org.gradle.api.tasks.TaskState;
@@ -38,12 +40,14 @@ public class ProfileEventAdapter implements BuildListener, ProjectEvaluationList
     private final BuildRequestMetaData buildMetaData;
     private final TimeProvider timeProvider;
     private final ProfileListener listener;
+    private final ClassGenerationStatistics classGenerationAtStart;
     private BuildProfile buildProfile;
 
     public ProfileEventAdapter(BuildRequestMetaData buildMetaData, TimeProvider timeProvider, ProfileListener listener) {
         this.buildMetaData = buildMetaData;
         this.timeProvider = timeProvider;
         this.listener = listener;
+        this.classGenerationAtStart = AbstractClassGenerator.getStatistics();
     }
 
     // BuildListener
@@ -73,6 +77,7 @@ public class ProfileEventAdapter implements BuildListener, ProjectEvaluationList
     public void completed() {
         if(buildProfile != null) {
             buildProfile.setBuildFinished(timeProvider.getCurrentTime());
+            buildProfile.setClassGeneration(AbstractClassGenerator.getStatistics().since(classGenerationAtStart));
             try {
                 listener.buildFinished(buildProfile);
             } finally {
@@ -106,6 +106,10 @@ public class ProfileReportRenderer {
                                     htmlWriter.startElement("td").characters("Task Execution").endElement();
                                     htmlWriter.startElement("td").attribute("class", "numeric").characters(DURATION_FORMAT.format(model.getElapsedTotalExecutionTime())).endElement();
                                 htmlWriter.endElement();
+                                htmlWriter.startElement("tr");
+                                    htmlWriter.startElement("td").characters(model.getClassGenerationDescription()).endElement();
+                                    htmlWriter.startElement("td").attribute("class", "numeric").characters(DURATION_FORMAT.format(model.getElapsedClassGeneration())).endElement();
+                                htmlWriter.endElement();
                             htmlWriter.endElement();
                         htmlWriter.endElement();
                         htmlWriter.startElement("div").attribute("class", "tab").attribute("id", "tab1");
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal
+
+import org.gradle.internal.hash.HashValue
+import spock.lang.Specification
+
+class AsmBackedClassGeneratorFileCacheTest extends Specification {
+    def classFileCache = Mock(GeneratedClassFileCache)
+    def generator = new AsmBackedClassGenerator(classFileCache)
+
+    def "stores the byte code of a generated class and loads it when the same type is generated again"() {
+        def start = AbstractClassGenerator.statistics
+        def type = isolated(TestJavaObject)
+        def otherType = isolated(TestJavaObject)
+        HashValue key = null
+        byte[] bytecode = null
+
+        when:
+        def generated = generator.generate(type)
+
+        then:
+        1 * classFileCache.load(_) >> { HashValue k -> key = k; null }
+        1 * classFileCache.store(_, _) >> { HashValue k, byte[] b -> assert k == key; bytecode = b }
+        0 * classFileCache._
+        generated.superclass == type
+
+        when:
+        def loaded = generator.generate(otherType)
+
+        then:
+        1 * classFileCache.load(key) >> bytecode
+        0 * classFileCache._
+        loaded.superclass == otherType
+        loaded.newInstance().someValue == "value"
+
+        and:
+        def statistics = AbstractClassGenerator.statistics.since(start)
+        statistics.generatedClasses == 1
+        statistics.cachedClasses == 1
+    }
+
+    def "generates the class when the cached byte code cannot be defined"() {
+        def type = isolated(TestJavaObject)
+
+        when:
+        def generated = generator.generate(type)
+
+        then:
+        1 * classFileCache.load(_) >> ([1, 2, 3] as byte[])
+        1 * classFileCache.store(_, _)
+        generated.superclass == type
+    }
+
+    def "does not use the cache for a type whose byte code is not available"() {
+        def type = new GroovyClassLoader(getClass().classLoader).parseClass("class ScriptBean { String prop }")
+
+        when:
+        def generated = generator.generate(type)
+
+        then:
+        0 * classFileCache._
+        generated.superclass == type
+    }
+
+    /**
+     * Loads another copy of the given type, as a new process would.
+     */
+    private static Class<?> isolated(Class<?> type) {
+        return new IsolatingClassLoader(type).loadClass(type.name)
+    }
+
+    private static class IsolatingClassLoader extends ClassLoader {
+        private final String className
+
+        IsolatingClassLoader(Class<?> type) {
+            super(type.classLoader)
+            className = type.name
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name != className) {
+                return super.loadClass(name, resolve)
+            }
+            def loaded = findLoadedClass(name)
+            if (loaded == null) {
+                def bytes = parent.getResourceAsStream(name.replace('.', '/') + ".class").bytes
+                loaded = defineClass(name, bytes, 0, bytes.length)
+            }
+            return loaded
+        }
+    }
+}
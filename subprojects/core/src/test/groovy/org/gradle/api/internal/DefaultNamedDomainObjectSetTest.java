@@ -31,11 +31,16 @@ import org.jmock.integration.junit4.JUnit4Mockery;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import static org.gradle.util.TestUtil.call;
 import static org.gradle.util.TestUtil.toClosure;
 import static org.gradle.util.WrapUtil.toList;
+import static org.gradle.util.WrapUtil.toSortedSet;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
@@ -198,6 +203,92 @@ public class DefaultNamedDomainObjectSetTest {
         assertThat(container.withType(OtherBean.class).findByName("b"), sameInstance(bean2));
     }
 
+    @Test
+    public void typeFilteredCollectionIsLiveAndOrderedByName() {
+        class OtherBean extends Bean {
+            public OtherBean(String name) {
+                super(name);
+            }
+        }
+        OtherBean bean1 = new OtherBean("d");
+        OtherBean bean2 = new OtherBean("b");
+        Bean bean3 = new Bean("c");
+        OtherBean bean4 = new OtherBean("a");
+
+        container.add(bean1);
+        NamedDomainObjectSet<OtherBean> filteredCollection = container.withType(OtherBean.class);
+        assertThat(toList(filteredCollection), equalTo(toList(bean1)));
+
+        container.add(bean2);
+        container.add(bean3);
+        container.add(bean4);
+
+        assertThat(toList(filteredCollection), equalTo(toList(bean4, bean2, bean1)));
+        assertThat(filteredCollection.size(), equalTo(3));
+        assertThat(filteredCollection.getNames(), equalTo(toSortedSet("a", "b", "d")));
+
+        assertThat(container.removeByName("b"), sameInstance((Bean) bean2));
+        assertThat(toList(filteredCollection), equalTo(toList(bean4, bean1)));
+        assertTrue(filteredCollection.contains(bean1));
+        assertFalse(filteredCollection.contains(bean3));
+
+        container.clear();
+        assertTrue(filteredCollection.isEmpty());
+
+        container.add(bean2);
+        assertThat(toList(filteredCollection), equalTo(toList(bean2)));
+    }
+
+    @Test
+    public void reusesTypeFilteredCollection() {
+        assertThat(container.withType(Bean.class), sameInstance(container.withType(Bean.class)));
+        assertThat(container.matching(Specs.<Bean>satisfyAll()), not(sameInstance(container.matching(Specs.<Bean>satisfyAll()))));
+    }
+
+    @Test
+    public void typeFilteredCollectionsCanBeQueriedConcurrently() throws Exception {
+        class OtherBean extends Bean {
+            public OtherBean(String name) {
+                super(name);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            container.add(i % 2 == 0 ? new OtherBean("bean" + i) : new Bean("bean" + i));
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<NamedDomainObjectSet<OtherBean>> views = new CopyOnWriteArrayList<NamedDomainObjectSet<OtherBean>>();
+        final List<Integer> sizes = new CopyOnWriteArrayList<Integer>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    NamedDomainObjectSet<OtherBean> view = container.withType(OtherBean.class);
+                    views.add(view);
+                    sizes.add(view.size());
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(views.size(), equalTo(8));
+        for (NamedDomainObjectSet<OtherBean> view : views) {
+            assertThat(view, sameInstance(views.get(0)));
+        }
+        assertThat(sizes, everyItem(equalTo(50)));
+    }
+
     @Test
     public void canExecuteActionForAllElementsInATypeFilteredCollection() {
         class OtherBean extends Bean {
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal
+
+import org.gradle.cache.CacheBuilder
+import org.gradle.cache.CacheRepository
+import org.gradle.cache.PersistentCache
+import org.gradle.cache.internal.FileLockManager
+import org.gradle.internal.hash.HashUtil
+import org.gradle.internal.hash.HashValue
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static org.gradle.api.internal.GeneratedClassFileCache.CACHE_DISPLAY_NAME
+import static org.gradle.api.internal.GeneratedClassFileCache.CACHE_KEY
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode
+
+class GeneratedClassFileCacheTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def key1 = HashUtil.createHash("key1", "MD5")
+    def key2 = HashUtil.createHash("key2", "MD5")
+    TestFile cacheDir
+    GeneratedClassFileCache cache
+
+    def setup() {
+        cacheDir = tmpDir.createDir("cache")
+        cache = createCache(cacheDir)
+    }
+
+    def "opens and closes the persistent cache"() {
+        def cacheRepository = Mock(CacheRepository)
+        def cacheBuilder = Mock(CacheBuilder)
+        def persistentCache = Mock(PersistentCache)
+
+        when:
+        def generatedClassFileCache = new GeneratedClassFileCache(cacheRepository)
+
+        then:
+        1 * cacheRepository.cache(CACHE_KEY) >> cacheBuilder
+        1 * cacheBuilder.withDisplayName(CACHE_DISPLAY_NAME) >> cacheBuilder
+        1 * cacheBuilder.withLockOptions(mode(FileLockManager.LockMode.None)) >> cacheBuilder
+        1 * cacheBuilder.open() >> persistentCache
+
+        when:
+        generatedClassFileCache.close()
+
+        then:
+        _ * persistentCache.getBaseDir() >> cacheDir
+        1 * persistentCache.close()
+    }
+
+    def "loads stored byte code"() {
+        when:
+        cache.store(key1, [1, 2, 3] as byte[])
+
+        then:
+        cache.load(key1) == [1, 2, 3] as byte[]
+        cache.load(key2) == null
+    }
+
+    def "does not replace stored byte code"() {
+        given:
+        cache.store(key1, [1, 2, 3] as byte[])
+
+        when:
+        cache.store(key1, [4, 5] as byte[])
+
+        then:
+        cache.load(key1) == [1, 2, 3] as byte[]
+    }
+
+    def "byte code is shared between instances using the same directory"() {
+        given:
+        cache.store(key1, [1, 2, 3] as byte[])
+
+        expect:
+        createCache(cacheDir).load(key1) == [1, 2, 3] as byte[]
+    }
+
+    def "ignores failure to store byte code"() {
+        given:
+        def cache = createCache(tmpDir.createFile("not-a-dir"))
+
+        when:
+        cache.store(key1, [1, 2, 3] as byte[])
+
+        then:
+        cache.load(key1) == null
+    }
+
+    def "removes entries that have not been used recently when closed"() {
+        given:
+        cache.store(key1, [1, 2, 3] as byte[])
+        cache.store(key2, [4, 5] as byte[])
+        entryFile(key1).lastModified = daysAgo(GeneratedClassFileCache.MAX_UNUSED_DAYS + 1)
+
+        when:
+        cache.close()
+
+        then:
+        !entryFile(key1).exists()
+        entryFile(key2).exists()
+    }
+
+    def "keeps entries that have been loaded recently"() {
+        given:
+        cache.store(key1, [1, 2, 3] as byte[])
+        entryFile(key1).lastModified = daysAgo(GeneratedClassFileCache.MAX_UNUSED_DAYS + 1)
+        cache.load(key1)
+
+        when:
+        cache.close()
+
+        then:
+        entryFile(key1).exists()
+    }
+
+    def "removes unused entries at most once a day"() {
+        given:
+        cache.close()
+        cache = createCache(cacheDir)
+        cache.store(key1, [1, 2, 3] as byte[])
+        entryFile(key1).lastModified = daysAgo(GeneratedClassFileCache.MAX_UNUSED_DAYS + 1)
+
+        when:
+        cache.close()
+
+        then:
+        entryFile(key1).exists()
+    }
+
+    private File entryFile(HashValue key) {
+        def name = key.asCompactString()
+        return new File(new File(cacheDir, name.substring(0, 2)), name + ".class")
+    }
+
+    private static long daysAgo(int days) {
+        return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)
+    }
+
+    private GeneratedClassFileCache createCache(File baseDir) {
+        def persistentCache = Stub(PersistentCache) {
+            getBaseDir() >> baseDir
+        }
+        def cacheBuilder = Stub(CacheBuilder)
+        cacheBuilder.withDisplayName(_) >> cacheBuilder
+        cacheBuilder.withLockOptions(_) >> cacheBuilder
+        cacheBuilder.open() >> persistentCache
+        def cacheRepository = Stub(CacheRepository) {
+            cache(CACHE_KEY) >> cacheBuilder
+        }
+        return new GeneratedClassFileCache(cacheRepository)
+    }
+}
@@ -66,6 +66,20 @@ class NewDefaultProjectTest extends Specification {
         1 * container.configure(cl)
     }
 
+    def "exposes tasks as properties and configure methods"() {
+        def task = root.task "foo"
+
+        when:
+        root.foo {
+            description = "configured"
+        }
+
+        then:
+        root.hasProperty("foo")
+        root.property("foo").is(task)
+        task.description == "configured"
+    }
+
     def "provides all tasks recursively"() {
         def a = createChildProject(root, "a")
 
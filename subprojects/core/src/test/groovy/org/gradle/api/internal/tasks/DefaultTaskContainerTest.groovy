@@ -180,6 +180,19 @@ public class DefaultTaskContainerTest extends Specification {
         ex.message == "Task with name 'unknown' not found in Mock for type 'ProjectInternal' named '<project>'."
     }
 
+    void "applies rules once when unknown task is requested"() {
+        def rule = Mock(Rule)
+        container.addRule(rule)
+
+        when:
+        def task = container.findByName("unknown")
+
+        then:
+        task == null
+        1 * rule.apply("unknown")
+        0 * rule._
+    }
+
     void "finds tasks"() {
         when:
         def task = addTask("task")
@@ -346,6 +359,90 @@ public class DefaultTaskContainerTest extends Specification {
         container.names == ['task1', 'task2'] as SortedSet
     }
 
+    void "registered task is created and configured when located by name"() {
+        given:
+        def action = Mock(Action)
+        def task = task("task", CustomTask)
+
+        when:
+        container.register("task", CustomTask, action)
+
+        then:
+        0 * taskFactory._
+        0 * action._
+        container.names == ['task'] as SortedSet
+        container.empty
+
+        when:
+        def located = container.getByName("task")
+
+        then:
+        1 * taskFactory.create("task", CustomTask) >> task
+        1 * action.execute(task)
+        located == task
+        container.findByName("task") == task
+    }
+
+    void "registered task is created when the graph is realized"() {
+        given:
+        def action = Mock(Action)
+        def task = task("task", CustomTask)
+        def taskDependency = Mock(TaskDependency)
+        task.getTaskDependencies() >> taskDependency
+        taskDependency.getDependencies(task) >> Collections.emptySet()
+        container.register("task", CustomTask, action)
+
+        when:
+        container.realize()
+
+        then:
+        1 * taskFactory.create("task", CustomTask) >> task
+        1 * action.execute(task)
+        container.size() == 1
+    }
+
+    void "cannot register task when task with the same name exists"() {
+        given:
+        addTask("task")
+
+        when:
+        container.register("task", CustomTask, Mock(Action))
+
+        then:
+        InvalidUserDataException e = thrown()
+        e.message == "Cannot register task 'task' as a task with that name already exists."
+    }
+
+    void "cannot create task with the name of a registered task"() {
+        given:
+        def task = task("task")
+        taskFactory.createTask(singletonMap(Task.TASK_NAME, "task")) >> task
+        container.register("task", CustomTask, Mock(Action))
+
+        when:
+        container.create("task")
+
+        then:
+        InvalidUserDataException e = thrown()
+        e.message == "Cannot add ${task} as a task with that name already exists."
+    }
+
+    void "can replace registered task"() {
+        given:
+        def action = Mock(Action)
+        def task = task("task")
+        taskFactory.createTask([name: "task"]) >> task
+        container.register("task", CustomTask, action)
+
+        when:
+        def replaced = container.replace("task")
+
+        then:
+        replaced == task
+        container.getByName("task") == task
+        0 * action._
+    }
+
     void "maybeCreate creates new task"() {
         given:
         def options = singletonMap(Task.TASK_NAME, "task")
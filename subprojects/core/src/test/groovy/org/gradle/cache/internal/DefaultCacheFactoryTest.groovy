@@ -18,15 +18,15 @@ package org.gradle.cache.internal
 import org.gradle.api.Action
 import org.gradle.cache.CacheValidator
 import org.gradle.cache.internal.locklistener.NoOpFileLockContentionHandler
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
-import spock.lang.Specification
 
 import static org.gradle.cache.internal.FileLockManager.LockMode.Exclusive
 import static org.gradle.cache.internal.FileLockManager.LockMode.Shared
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode
 
-class DefaultCacheFactoryTest extends Specification {
+class DefaultCacheFactoryTest extends ConcurrentSpec {
     @Rule
     public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
     final Action<?> opened = Mock()
@@ -232,4 +232,49 @@ class DefaultCacheFactoryTest extends Specification {
         cleanup:
         factory.close()
     }
+
+    public void "initializes different directory caches concurrently"() {
+        when:
+        async {
+            start {
+                def cache = factory.open(tmpDir.file("dir1"), null, null, [:], mode(Exclusive), { instant.initialized1; thread.blockUntil.initialized2 } as Action)
+                cache.close()
+            }
+            start {
+                def cache = factory.open(tmpDir.file("dir2"), null, null, [:], mode(Exclusive), { instant.initialized2; thread.blockUntil.initialized1 } as Action)
+                cache.close()
+            }
+        }
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        factory.close()
+    }
+
+    public void "waits for directory cache that is being opened by another thread"() {
+        def dir = tmpDir.file("dir")
+
+        when:
+        async {
+            start {
+                def cache = factory.open(dir, null, null, [:], mode(Exclusive), { instant.initializing; thread.block(); instant.initialized } as Action)
+                thread.blockUntil.reused
+                cache.close()
+            }
+            start {
+                thread.blockUntil.initializing
+                def cache = factory.open(dir, null, null, [:], mode(Exclusive), { throw new IllegalStateException() } as Action)
+                instant.reused
+                cache.close()
+            }
+        }
+
+        then:
+        instant.reused > instant.initialized
+
+        cleanup:
+        factory.close()
+    }
 }
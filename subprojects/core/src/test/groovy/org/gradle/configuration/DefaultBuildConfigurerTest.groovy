@@ -19,6 +19,7 @@ import org.gradle.StartParameter
 import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.execution.ProjectConfigurer
+import org.gradle.internal.concurrent.Stoppable
 import spock.lang.Specification
 
 class DefaultBuildConfigurerTest extends Specification {
@@ -26,7 +27,9 @@ class DefaultBuildConfigurerTest extends Specification {
     private gradle = Mock(GradleInternal)
     private rootProject = Mock(ProjectInternal)
     private projectConfigurer = Mock(ProjectConfigurer)
-    private configurer = new DefaultBuildConfigurer(projectConfigurer)
+    private buildScriptPrecompiler = Mock(BuildScriptPrecompiler)
+    private precompilation = Mock(Stoppable)
+    private configurer = new DefaultBuildConfigurer(projectConfigurer, buildScriptPrecompiler)
 
     def setup() {
         gradle.startParameter >> startParameter
@@ -37,8 +40,30 @@ class DefaultBuildConfigurerTest extends Specification {
         when:
         configurer.configure(gradle)
 
+        then:
+        1 * buildScriptPrecompiler.start(rootProject) >> precompilation
+
         then:
         1 * projectConfigurer.configureHierarchy(rootProject)
+
+        then:
+        1 * precompilation.stop()
+    }
+
+    def "stops compiling build scripts when configuration fails"() {
+        def failure = new RuntimeException()
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * buildScriptPrecompiler.start(rootProject) >> precompilation
+        1 * projectConfigurer.configureHierarchy(rootProject) >> { throw failure }
+        1 * precompilation.stop()
+
+        and:
+        def e = thrown(RuntimeException)
+        e == failure
     }
 
     def "configures build for on demand mode"() {
@@ -48,5 +73,6 @@ class DefaultBuildConfigurerTest extends Specification {
         then:
         startParameter.isConfigureOnDemand() >> true
         1 * projectConfigurer.configure(rootProject)
+        0 * buildScriptPrecompiler._
     }
 }
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project
+
+import org.gradle.api.InvalidUserCodeException
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class ProjectEvaluationCoordinatorTest extends ConcurrentSpec {
+    def root = project(":")
+    def rootState = new ProjectStateInternal()
+    def project1 = project(":a")
+    def state1 = new ProjectStateInternal()
+    def project2 = project(":b")
+    def state2 = new ProjectStateInternal()
+    def project3 = project(":c")
+    def state3 = new ProjectStateInternal()
+    def child1 = project(":a:child")
+    def childState1 = new ProjectStateInternal()
+
+    def "project is evaluated once"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        expect:
+        coordinator.startEvaluation(project1, state1)
+        !coordinator.startEvaluation(project1, state1)
+
+        when:
+        state1.executed()
+        coordinator.finishEvaluation(state1)
+
+        then:
+        !coordinator.startEvaluation(project1, state1)
+    }
+
+    def "waits for project that is being evaluated by another thread"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.block()
+                state1.executed()
+                instant.evaluated
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                assert !coordinator.startEvaluation(project1, state1)
+                instant.requested
+            }
+        }
+
+        then:
+        instant.requested > instant.evaluated
+    }
+
+    def "fails when project that is being evaluated by another thread is requested in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.blockUntil.requested
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                try {
+                    coordinator.startEvaluation(project1, state1)
+                } finally {
+                    instant.requested
+                }
+            }
+        }
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot access project ':a' while it is being configured in parallel.")
+    }
+
+    def "does not wait for a thread that waits for the project the current thread is evaluating"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed1
+                thread.blockUntil.claimed2
+                assert !coordinator.startEvaluation(project2, state2)
+                state1.executed()
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                assert coordinator.startEvaluation(project2, state2)
+                instant.claimed2
+                thread.blockUntil.claimed1
+                thread.block()
+                assert !coordinator.startEvaluation(project1, state1)
+                state2.executed()
+                coordinator.finishEvaluation(state2)
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "waits for project that has been marked as executed until its evaluation has finished"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                state1.executed()
+                instant.executed
+                thread.block()
+                instant.evaluated
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.executed
+                assert !coordinator.startEvaluation(project1, state1)
+                instant.requested
+            }
+        }
+
+        then:
+        instant.requested > instant.evaluated
+    }
+
+    def "looking up a project waits for another thread that is evaluating it"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.block()
+                state1.executed()
+                instant.evaluated
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                coordinator.beforeAccess(project1, state1)
+                instant.accessed
+            }
+        }
+
+        then:
+        instant.accessed > instant.evaluated
+    }
+
+    def "looking up a project does not wait when the thread evaluating it waits for the current thread"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed1
+                thread.blockUntil.claimed2
+                assert !coordinator.startEvaluation(project2, state2)
+                instant.evaluated2
+                state1.executed()
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                assert coordinator.startEvaluation(project2, state2)
+                instant.claimed2
+                thread.blockUntil.claimed1
+                thread.block()
+                coordinator.beforeAccess(project1, state1)
+                instant.accessed
+                state2.executed()
+                coordinator.finishEvaluation(state2)
+            }
+        }
+
+        then:
+        instant.accessed < instant.evaluated2
+    }
+
+    def "fails when project that is being evaluated by another thread is looked up in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.blockUntil.accessed
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                try {
+                    coordinator.beforeAccess(project1, state1)
+                } finally {
+                    instant.accessed
+                }
+            }
+        }
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot access project ':a' while it is being configured in parallel.")
+    }
+
+    def "thread that changes a project holds it until it has finished evaluating its own project"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+        state2.executed()
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                coordinator.beforeMutation(project2, state2)
+                instant.changed
+                thread.block()
+                state1.executed()
+                instant.evaluated
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.changed
+                coordinator.beforeAccess(project2, state2)
+                instant.accessed
+                assert coordinator.startEvaluation(project3, state3)
+                coordinator.beforeMutation(project2, state2)
+                instant.changedByOther
+                state3.executed()
+                coordinator.finishEvaluation(state3)
+            }
+        }
+
+        then:
+        instant.accessed < instant.evaluated
+        instant.changedByOther > instant.evaluated
+    }
+
+    def "fails when project that is held by another thread is changed in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.blockUntil.changed
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                assert coordinator.startEvaluation(project3, state3)
+                try {
+                    coordinator.beforeMutation(project1, state1)
+                } finally {
+                    instant.changed
+                    coordinator.finishEvaluation(state3)
+                }
+            }
+        }
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot change project ':a' while it is being configured in parallel.")
+    }
+
+    def "does not coordinate changes made by a thread that is not configuring a project"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed
+                thread.blockUntil.changed
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.claimed
+                coordinator.beforeMutation(project1, state1)
+                instant.changed
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "accessing a project that has not been configured holds it until the current thread has finished configuring"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                coordinator.beforeAccess(project2, state2)
+                instant.accessed
+                thread.block()
+                state1.executed()
+                instant.evaluated
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                thread.blockUntil.accessed
+                assert coordinator.startEvaluation(project2, state2)
+                instant.started
+                state2.executed()
+                coordinator.finishEvaluation(state2)
+            }
+        }
+
+        then:
+        instant.started > instant.evaluated
+    }
+
+    def "threads that change the projects each other are evaluating do not fail"() {
+        def coordinator = new ProjectEvaluationCoordinator(false)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                instant.claimed1
+                thread.blockUntil.claimed2
+                coordinator.beforeMutation(project2, state2)
+                state1.executed()
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                assert coordinator.startEvaluation(project2, state2)
+                instant.claimed2
+                thread.blockUntil.claimed1
+                thread.block()
+                coordinator.beforeMutation(project1, state1)
+                state2.executed()
+                coordinator.finishEvaluation(state2)
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "does not hold the ancestors that are read by the projects being configured"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        when:
+        async {
+            start {
+                assert coordinator.startEvaluation(project1, state1)
+                coordinator.beforeAccess(root, rootState)
+                instant.accessed1
+                thread.blockUntil.accessed2
+                coordinator.finishEvaluation(state1)
+            }
+            start {
+                assert coordinator.startEvaluation(project2, state2)
+                coordinator.beforeAccess(root, rootState)
+                instant.accessed2
+                thread.blockUntil.accessed1
+                coordinator.finishEvaluation(state2)
+            }
+        }
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "does not fail when a descendant is accessed in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+
+        expect:
+        coordinator.startEvaluation(project1, state1)
+        coordinator.beforeAccess(child1, childState1)
+        coordinator.startEvaluation(child1, childState1)
+    }
+
+    def "fails when a project that is neither an ancestor nor a descendant is accessed in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+        coordinator.startEvaluation(project1, state1)
+
+        when:
+        coordinator.beforeAccess(project2, state2)
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot access project ':b' from project ':a' while projects are configured in parallel.")
+    }
+
+    def "fails when an ancestor is changed in strict mode"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+        coordinator.startEvaluation(project1, state1)
+
+        when:
+        coordinator.beforeMutation(root, rootState)
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot change project ':' from project ':a' while projects are configured in parallel.")
+    }
+
+    private ProjectInternal project(String path) {
+        return Stub(ProjectInternal) {
+            getPath() >> path
+            toString() >> "project '$path'"
+        }
+    }
+}
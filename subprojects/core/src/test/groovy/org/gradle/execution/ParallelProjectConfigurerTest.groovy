@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution
+
+import org.gradle.api.BuildCancelledException
+import org.gradle.api.InvalidUserCodeException
+import org.gradle.api.internal.plugins.DefaultExtraPropertiesExtension
+import org.gradle.api.internal.plugins.ExtensionContainerInternal
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.configuration.project.ProjectEvaluationCoordinator
+import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+class ParallelProjectConfigurerTest extends Specification {
+    def cancellationToken = Mock(BuildCancellationToken)
+    def evaluated = Collections.synchronizedList([])
+    def configurer = new ParallelProjectConfigurer(cancellationToken, new DefaultExecutorFactory(), 4, new ProjectEvaluationCoordinator(false))
+
+    def "configures each project of the hierarchy after its parent"() {
+        def grandChild = project(":a:c")
+        def child1 = project(":a", grandChild)
+        def child2 = project(":b")
+        def root = project(":", child1, child2)
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        evaluated.size() == 4
+        evaluated[0] == ":"
+        evaluated.indexOf(":a") < evaluated.indexOf(":a:c")
+        evaluated.contains(":b")
+    }
+
+    def "does not configure children of project that fails"() {
+        def failure = new RuntimeException("broken")
+        def grandChild = project(":a:c")
+        def child = failingProject(":a", failure, grandChild)
+        def root = project(":", child)
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        def e = thrown(RuntimeException)
+        e == failure
+        evaluated == [":", ":a"]
+    }
+
+    def "project hierarchy configuration fails when cancelled"() {
+        def child = project(":a")
+        def root = project(":", child)
+
+        given:
+        cancellationToken.cancellationRequested >>> [false, true]
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        thrown(BuildCancelledException)
+        evaluated == [":"]
+    }
+
+    def "coordinates changes to the extra properties of a parent while the hierarchy is configured"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+        def strictConfigurer = new ParallelProjectConfigurer(cancellationToken, new DefaultExecutorFactory(), 4, coordinator)
+        def extraProperties = new DefaultExtraPropertiesExtension()
+        def childState = new ProjectStateInternal()
+        ProjectInternal child
+        child = Stub(ProjectInternal) {
+            getPath() >> ":a"
+            evaluate() >> {
+                assert coordinator.startEvaluation(child, childState)
+                try {
+                    extraProperties.set("value", "changed")
+                } finally {
+                    coordinator.finishEvaluation(childState)
+                }
+                null
+            }
+        }
+        def root = parentProject(":", extraProperties, child)
+
+        when:
+        strictConfigurer.configureHierarchy(root)
+
+        then:
+        def e = thrown(InvalidUserCodeException)
+        e.message.startsWith("Cannot change project ':' from")
+        !extraProperties.has("value")
+    }
+
+    def "stops coordinating changes once the hierarchy has been configured"() {
+        def coordinator = new ProjectEvaluationCoordinator(true)
+        def strictConfigurer = new ParallelProjectConfigurer(cancellationToken, new DefaultExecutorFactory(), 4, coordinator)
+        def extraProperties = new DefaultExtraPropertiesExtension()
+        def other = project(":other")
+        def otherState = new ProjectStateInternal()
+        def root = parentProject(":", extraProperties, project(":a"))
+
+        given:
+        strictConfigurer.configureHierarchy(root)
+        coordinator.startEvaluation(other, otherState)
+
+        when:
+        extraProperties.set("value", "changed")
+
+        then:
+        extraProperties.get("value") == "changed"
+    }
+
+    ProjectInternal parentProject(String path, DefaultExtraPropertiesExtension extraProperties, ProjectInternal... children) {
+        def state = new ProjectStateInternal()
+        def extensions = Stub(ExtensionContainerInternal) {
+            getExtraProperties() >> extraProperties
+        }
+        Stub(ProjectInternal) {
+            getPath() >> path
+            getState() >> state
+            toString() >> "project '$path'"
+            getChildProjects() >> children.collectEntries { [it.path, it] }
+            getExtensions() >> extensions
+        }
+    }
+
+    ProjectInternal project(String path, ProjectInternal... children) {
+        failingProject(path, null, children)
+    }
+
+    ProjectInternal failingProject(String path, RuntimeException failure, ProjectInternal... children) {
+        Stub(ProjectInternal) {
+            getPath() >> path
+            getChildProjects() >> children.collectEntries { [it.path, it] }
+            evaluate() >> {
+                evaluated << path
+                if (failure != null) {
+                    throw failure
+                }
+                null
+            }
+        }
+    }
+}
@@ -17,11 +17,15 @@ package org.gradle.initialization
 
 import org.gradle.StartParameter
 import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.event.DefaultListenerManager
+import org.gradle.internal.event.ListenerManager
+import org.gradle.internal.logging.progress.ProgressLoggerFactory
 import org.gradle.internal.service.DefaultServiceRegistry
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.internal.service.scopes.BuildSessionScopeServices
 import org.gradle.internal.service.scopes.GlobalScopeServices
 import org.gradle.internal.logging.services.LoggingServiceRegistry
+import org.gradle.model.internal.manage.schema.ModelSchemaStore
 import org.gradle.testfixtures.internal.NativeServicesTestFixture
 import spock.lang.Specification
 
@@ -80,4 +84,26 @@ class DefaultGradleLauncherFactoryTest extends Specification {
         launcher.gradle.services.get(BuildCancellationToken) == cancellationToken
         launcher.gradle.services.get(BuildEventConsumer) == eventConsumer
     }
+
+    def "discards cached model schemas when each build completes"() {
+        def listenerManager = new DefaultListenerManager()
+        def schemaStore = Mock(ModelSchemaStore)
+        def services = new DefaultServiceRegistry()
+        services.add(ListenerManager, listenerManager)
+        services.add(ProgressLoggerFactory, Stub(ProgressLoggerFactory))
+        services.add(ModelSchemaStore, schemaStore)
+        new DefaultGradleLauncherFactory(services)
+
+        when:
+        listenerManager.getBroadcaster(BuildCompletionListener).completed()
+
+        then:
+        1 * schemaStore.cleanUp()
+
+        when:
+        listenerManager.getBroadcaster(BuildCompletionListener).completed()
+
+        then:
+        1 * schemaStore.cleanUp()
+    }
 }
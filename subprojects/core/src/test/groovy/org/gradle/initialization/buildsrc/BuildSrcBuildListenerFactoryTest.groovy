@@ -33,8 +33,13 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
             getMainComponent() >> component
         }
     }
+    def subproject = Stub(ProjectInternal) {
+        getBuildDir() >> new File("sub/out")
+    }
     def project = Mock(ProjectInternal) {
         getServices() >> services
+        getAllprojects() >> { [project, subproject] as Set }
+        getBuildDir() >> new File("build")
     }
     def gradle = Mock(GradleInternal) {
         getStartParameter() >> startParameter
@@ -62,4 +67,14 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
         then:
         1 * startParameter.setTaskNames(['barBuild'])
     }
+
+    def "collects the build directories of all projects"() {
+        def listener = new BuildSrcBuildListenerFactory().create(false)
+
+        when:
+        listener.onConfigure(gradle)
+
+        then:
+        listener.buildDirs as List == [new File("build"), new File("sub/out")]
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization.buildsrc
+
+import org.gradle.StartParameter
+import org.gradle.api.JavaVersion
+import org.gradle.internal.jvm.Jvm
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BuildSrcInputsHasherTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+    def javaVersion = JavaVersion.VERSION_1_7
+    def javaHome = new File("jdk7")
+    def jvm = Stub(Jvm) {
+        getJavaVersion() >> { javaVersion }
+        getJavaHome() >> { javaHome }
+    }
+    def hasher = new BuildSrcInputsHasher(jvm)
+    def buildSrcDir = temp.createDir("buildSrc")
+    def startParameter = new StartParameter(currentDir: buildSrcDir, gradleUserHomeDir: temp.createDir("userHome"))
+
+    def setup() {
+        buildSrcDir.file("build.gradle") << "apply plugin: 'groovy'"
+        buildSrcDir.file("src/main/groovy/Thing.groovy") << "class Thing {}"
+    }
+
+    def "hash does not change when only build output changes"() {
+        def hash = hasher.hash(startParameter, [])
+
+        when:
+        buildSrcDir.file("build/classes/main/Thing.class") << "bytes"
+        buildSrcDir.file(".gradle/state.bin") << "bytes"
+
+        then:
+        hasher.hash(startParameter, []) == hash
+    }
+
+    def "hash does not change when the build output of a nested project or a custom build directory changes"() {
+        buildSrcDir.file("settings.gradle") << "include 'sub'"
+        buildSrcDir.file("sub/src/main/groovy/Other.groovy") << "class Other {}"
+        def buildDirs = [buildSrcDir.file("build"), buildSrcDir.file("sub/build"), buildSrcDir.file("custom-out")]
+        def hash = hasher.hash(startParameter, buildDirs)
+
+        when:
+        buildSrcDir.file("sub/build/classes/main/Other.class") << "bytes"
+        buildSrcDir.file("sub/build/test-results/TEST-OtherTest.xml") << "<testsuite timestamp='2016-01-01T00:00:00'/>"
+        buildSrcDir.file("custom-out/classes/main/Thing.class") << "bytes"
+        buildSrcDir.file("sub/.gradle/state.bin") << "bytes"
+
+        then:
+        hasher.hash(startParameter, buildDirs) == hash
+
+        when:
+        buildSrcDir.file("sub/src/main/groovy/Other.groovy") << "// changed"
+
+        then:
+        hasher.hash(startParameter, buildDirs) != hash
+    }
+
+    def "hash changes when a source file or property changes"() {
+        def hash = hasher.hash(startParameter, [])
+
+        when:
+        buildSrcDir.file("src/main/groovy/Thing.groovy") << "// changed"
+
+        then:
+        hasher.hash(startParameter, []) != hash
+
+        when:
+        hash = hasher.hash(startParameter, [])
+        startParameter.projectProperties = [prop: "value"]
+
+        then:
+        hasher.hash(startParameter, []) != hash
+    }
+
+    def "hash changes when the build runs with a different Java installation"() {
+        def hash = hasher.hash(startParameter, [])
+
+        when:
+        javaVersion = JavaVersion.VERSION_1_8
+
+        then:
+        hasher.hash(startParameter, []) != hash
+
+        when:
+        hash = hasher.hash(startParameter, [])
+        javaHome = new File("jdk8")
+
+        then:
+        hasher.hash(startParameter, []) != hash
+    }
+
+    def "result is not reused when dependencies are refreshed"() {
+        when:
+        startParameter.refreshDependencies = true
+
+        then:
+        hasher.hash(startParameter, []) == null
+    }
+}
@@ -16,8 +16,11 @@
 
 package org.gradle.initialization.buildsrc
 
+import org.gradle.api.Transformer
 import org.gradle.initialization.GradleLauncher
 import org.gradle.cache.PersistentCache
+import org.gradle.internal.hash.HashUtil
+import org.gradle.internal.hash.HashValue
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
@@ -64,4 +67,82 @@ class BuildSrcUpdateFactoryTest extends Specification {
         then:
         1 * listenerFactory.create(true) >> listener
     }
+
+    def "reuses classpath when inputs have not changed"() {
+        def hash = HashUtil.createHash("inputs", "MD5")
+        def classesDir = temp.createDir("classes")
+        def launcher = Mock(GradleLauncher)
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [classesDir]
+
+        when:
+        def classpath = new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher(hash)).create()
+
+        then:
+        classpath.asFiles == [classesDir]
+        1 * listenerFactory.create(false) >> listener
+        1 * launcher.run()
+
+        when:
+        classpath = new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher(hash)).create()
+
+        then:
+        classpath.asFiles == [classesDir]
+        0 * listenerFactory._
+        0 * launcher._
+    }
+
+    def "builds again when inputs have changed or classpath no longer exists"() {
+        def classesDir = temp.createDir("classes")
+        def launcher = Mock(GradleLauncher)
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [classesDir]
+        new BuildSrcUpdateFactory(cache, Stub(GradleLauncher), Stub(BuildSrcBuildListenerFactory) { create(_) >> listener }, hasher(HashUtil.createHash("inputs", "MD5"))).create()
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher(HashUtil.createHash("changed", "MD5"))).create()
+
+        then:
+        1 * listenerFactory.create(false) >> listener
+        1 * launcher.run()
+
+        when:
+        classesDir.deleteDir()
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher(HashUtil.createHash("changed", "MD5"))).create()
+
+        then:
+        1 * listenerFactory.create(false) >> listener
+        1 * launcher.run()
+    }
+
+    def "hashes the inputs without the build directories of the buildSrc projects"() {
+        def classesDir = temp.createDir("classes")
+        def buildDirs = [temp.file("build"), temp.file("sub/out")]
+        def inputsHasher = Mock(Transformer)
+        def launcher = Mock(GradleLauncher)
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [classesDir]
+        listener.getBuildDirs() >> buildDirs
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, inputsHasher).create()
+
+        then:
+        1 * listenerFactory.create(false) >> listener
+        1 * inputsHasher.transform(buildDirs) >> HashUtil.createHash("inputs", "MD5")
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, inputsHasher).create()
+
+        then:
+        1 * inputsHasher.transform(buildDirs) >> HashUtil.createHash("inputs", "MD5")
+        0 * launcher._
+    }
+
+    private static Transformer<HashValue, Collection<File>> hasher(HashValue hash) {
+        return { hash } as Transformer
+    }
 }
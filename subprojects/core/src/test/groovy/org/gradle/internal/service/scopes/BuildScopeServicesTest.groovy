@@ -42,6 +42,7 @@ import org.gradle.groovy.scripts.internal.CrossBuildInMemoryCachingScriptClassCa
 import org.gradle.initialization.*
 import org.gradle.internal.Factory
 import org.gradle.internal.classloader.ClassLoaderFactory
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.event.DefaultListenerManager
 import org.gradle.internal.event.ListenerManager
 import org.gradle.internal.installation.CurrentGradleInstallation
@@ -96,6 +97,7 @@ public class BuildScopeServicesTest extends Specification {
         sessionServices.get(InjectedPluginClasspath) >> Mock(InjectedPluginClasspath)
         sessionServices.get(PluginRepositoryRegistry) >> Mock(PluginRepositoryRegistry)
         sessionServices.get(PluginRepositoryFactory) >> Mock(PluginRepositoryFactory)
+        sessionServices.get(ExecutorFactory) >> Mock(ExecutorFactory)
         sessionServices.getAll(_) >> []
 
         registry = new BuildScopeServices(sessionServices, false)
@@ -17,6 +17,9 @@
 package org.gradle.internal.service.scopes
 
 import org.gradle.StartParameter
+import org.gradle.api.internal.AsmBackedClassGenerator
+import org.gradle.api.internal.ClassGenerator
+import org.gradle.api.internal.ClassGeneratorBackedInstantiator
 import org.gradle.api.internal.ClassPathRegistry
 import org.gradle.api.internal.classpath.DefaultModuleRegistry
 import org.gradle.api.internal.classpath.ModuleRegistry
@@ -28,6 +31,7 @@ import org.gradle.cache.internal.DefaultCacheRepository
 import org.gradle.deployment.internal.DefaultDeploymentRegistry
 import org.gradle.deployment.internal.DeploymentRegistry
 import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.installation.CurrentGradleInstallation
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.internal.remote.MessagingServer
@@ -88,6 +92,14 @@ class BuildSessionScopeServicesTest extends Specification {
         registry.get(WorkerProcessClassPathProvider) == registry.get(WorkerProcessClassPathProvider)
     }
 
+    def "provides a ClassGenerator and Instantiator"() {
+        expect:
+        registry.get(ClassGenerator) instanceof AsmBackedClassGenerator
+        registry.get(ClassGenerator) == registry.get(ClassGenerator)
+        registry.get(Instantiator) instanceof ClassGeneratorBackedInstantiator
+        registry.get(Instantiator) == registry.get(Instantiator)
+    }
+
     private <T> T expectParentServiceLocated(Class<T> type) {
         T t = Mock(type)
         parent.get(type) >> t
@@ -41,7 +41,7 @@ import org.gradle.api.internal.plugins.PluginRegistry
 import org.gradle.api.internal.project.DefaultAntBuilderFactory
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.internal.project.taskfactory.ITaskFactory
-import org.gradle.api.internal.tasks.DefaultTaskContainerFactory
+import org.gradle.api.internal.tasks.DefaultTaskContainer
 import org.gradle.api.internal.tasks.TaskContainerInternal
 import org.gradle.api.logging.LoggingManager
 import org.gradle.configuration.project.DefaultProjectConfigurationActionContainer
@@ -55,6 +55,7 @@ import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.service.ServiceRegistration
 import org.gradle.internal.service.ServiceRegistry
+import org.gradle.model.internal.core.ModelNode
 import org.gradle.model.internal.inspect.ModelRuleExtractor
 import org.gradle.model.internal.inspect.ModelRuleSourceDetector
 import org.gradle.model.internal.registry.ModelRegistry
@@ -124,11 +125,21 @@ class ProjectScopeServicesTest extends Specification {
         1 * plugin2.registerProjectServices(_)
     }
 
-    def "provides a TaskContainerFactory"() {
+    def "provides a TaskContainer"() {
         1 * taskFactory.createChild({ it.is project }, { it instanceof ClassGeneratorBackedInstantiator }) >> Stub(ITaskFactory)
 
         expect:
-        registry.getFactory(TaskContainerInternal) instanceof DefaultTaskContainerFactory
+        provides(TaskContainerInternal, DefaultTaskContainer)
+    }
+
+    def "registers the task container when the model registry is created"() {
+        1 * taskFactory.createChild({ it.is project }, { it instanceof ClassGeneratorBackedInstantiator }) >> Stub(ITaskFactory)
+
+        when:
+        def modelRegistry = registry.get(ModelRegistry)
+
+        then:
+        modelRegistry.state(TaskContainerInternal.MODEL_PATH).isAtLeast(ModelNode.State.Created)
     }
 
     def "provides a ToolingModelBuilderRegistry"() {
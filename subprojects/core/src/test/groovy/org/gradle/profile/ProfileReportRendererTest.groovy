@@ -17,6 +17,7 @@
 package org.gradle.profile
 
 import org.gradle.StartParameter
+import org.gradle.api.internal.ClassGenerationStatistics
 import org.gradle.api.tasks.TaskState
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -38,6 +39,7 @@ class ProfileReportRendererTest extends Specification {
         model.projectsLoaded     = time(12, 20, 6)
 
         model.buildFinished      = time(12, 35, 30)
+        model.classGeneration    = new ClassGenerationStatistics(20, 40, 1500000000L)
 
         model.getDependencySetProfile("compile").start = time(12, 22, 0)
         model.getDependencySetProfile("compile").finish = time(12, 23, 30)
@@ -125,6 +127,10 @@ class ProfileReportRendererTest extends Specification {
 <td>Task Execution</td>
 <td class="numeric">6m30.00s</td>
 </tr>
+<tr>
+<td>Class Generation (20 generated, 40 loaded from cache)</td>
+<td class="numeric">1.500s</td>
+</tr>
 </table>
 </div>
 <div class="tab" id="tab1">
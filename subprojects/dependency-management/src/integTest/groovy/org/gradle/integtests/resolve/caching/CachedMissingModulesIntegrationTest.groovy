@@ -57,6 +57,53 @@ task showMissing << { println configurations.missing.files }
         succeeds('showMissing')
     }
 
+    def "queries repositories in declared order and caches missing modules for each repository"() {
+        given:
+        def repo1 = ivyHttpRepo("repo1")
+        def repo2 = ivyHttpRepo("repo2")
+        def repo3 = ivyHttpRepo("repo3")
+        def projectAInRepo1 = repo1.module("group", "projectA", "1.2")
+        def projectAInRepo2 = repo2.module("group", "projectA", "1.2").publish()
+        def projectBInRepo1 = repo1.module("group", "projectB", "1.0")
+        def projectBInRepo2 = repo2.module("group", "projectB", "1.0")
+        def projectBInRepo3 = repo3.module("group", "projectB", "1.0").publish()
+
+        buildFile << """
+repositories {
+    ivy { url "${repo1.uri}"}
+    ivy { url "${repo2.uri}"}
+    ivy { url "${repo3.uri}"}
+}
+configurations { compile }
+dependencies {
+    compile 'group:projectA:1.2', 'group:projectB:1.0'
+}
+task retrieve << { println configurations.compile.files }
+"""
+
+        when:
+        // A cold resolve stops at the first repository containing each module, and makes one request for each missing file of the repositories before it
+        projectAInRepo1.ivy.expectGetMissing()
+        projectAInRepo1.jar.expectHeadMissing()
+        projectAInRepo2.ivy.expectGet()
+        projectAInRepo2.jar.expectGet()
+        projectBInRepo1.ivy.expectGetMissing()
+        projectBInRepo1.jar.expectHeadMissing()
+        projectBInRepo2.ivy.expectGetMissing()
+        projectBInRepo2.jar.expectHeadMissing()
+        projectBInRepo3.ivy.expectGet()
+        projectBInRepo3.jar.expectGet()
+
+        then:
+        succeeds("retrieve")
+
+        when:
+        server.resetExpectations() // Missing status in repo1 and repo2 is cached
+
+        then:
+        succeeds("retrieve")
+    }
+
     def "checks for missing modules in each repository when run with --refresh-dependencies"() {
         given:
         def repo1 = ivyHttpRepo("repo1")
@@ -20,6 +20,8 @@ import org.gradle.api.internal.artifacts.component.ComponentIdentifierFactory;
 import org.gradle.api.internal.artifacts.component.DefaultComponentIdentifierFactory;
 import org.gradle.api.internal.artifacts.ivyservice.DefaultIvyContextManager;
 import org.gradle.api.internal.artifacts.ivyservice.IvyContextManager;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.PomDocumentCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.CrossBuildModuleDescriptorCache;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.*;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.*;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
@@ -58,6 +60,14 @@ class DependencyManagementGlobalScopeServices {
         return new DefaultConfigurationComponentMetaDataBuilder(dependenciesConverter);
     }
 
+    PomDocumentCache createPomDocumentCache() {
+        return new PomDocumentCache();
+    }
+
+    CrossBuildModuleDescriptorCache createCrossBuildModuleDescriptorCache() {
+        return new CrossBuildModuleDescriptorCache();
+    }
+
     ResourceConnectorFactory createFileConnectorFactory() {
         return new FileConnectorFactory();
     }
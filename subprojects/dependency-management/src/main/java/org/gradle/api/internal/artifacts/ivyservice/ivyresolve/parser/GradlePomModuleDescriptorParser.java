@@ -48,9 +48,15 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
     private static final String DEPENDENCY_IMPORT_SCOPE = "import";
     private final VersionSelectorScheme gradleVersionSelectorScheme;
     private final VersionSelectorScheme mavenVersionSelectorScheme;
+    private final PomDocumentCache pomDocumentCache;
 
     public GradlePomModuleDescriptorParser(VersionSelectorScheme gradleVersionSelectorScheme) {
+        this(gradleVersionSelectorScheme, new PomDocumentCache());
+    }
+
+    public GradlePomModuleDescriptorParser(VersionSelectorScheme gradleVersionSelectorScheme, PomDocumentCache pomDocumentCache) {
         this.gradleVersionSelectorScheme = gradleVersionSelectorScheme;
+        this.pomDocumentCache = pomDocumentCache;
         mavenVersionSelectorScheme = new MavenVersionSelectorScheme(gradleVersionSelectorScheme);
     }
 
@@ -199,7 +205,7 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
     }
 
     /**
-     * Parses other POM.
+     * Parses other POM. The parsed document is shared with other POMs that reference the same parent, imported or relocated POM.
      *
      * @param parseContext Parse context
      * @param parentId Parent module revision ID
@@ -209,7 +215,7 @@ public final class GradlePomModuleDescriptorParser extends AbstractModuleDescrip
      */
     private PomReader parseOtherPom(DescriptorParseContext parseContext, ModuleComponentIdentifier parentId) throws IOException, SAXException {
         LocallyAvailableExternalResource localResource = parseContext.getMetaDataArtifact(parentId, ArtifactType.MAVEN_POM);
-        PomReader pomReader = new PomReader(localResource);
+        PomReader pomReader = new PomReader(localResource, pomDocumentCache.getDocument(localResource));
         GradlePomModuleDescriptorBuilder mdBuilder = new GradlePomModuleDescriptorBuilder(pomReader, gradleVersionSelectorScheme, mavenVersionSelectorScheme);
         doParsePom(parseContext, mdBuilder, pomReader);
         return pomReader;
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.w3c.dom.Document;
+
+/**
+ * Keeps the parsed DOM of POM files that are referenced by many other POMs, such as parent POMs and imported BOMs, so that
+ * they are not parsed again for every module that references them. Entries are keyed by the SHA1 of the POM content, so the
+ * cache can be shared across builds.
+ */
+public class PomDocumentCache {
+    private static final int MAX_ENTRIES = 500;
+
+    private final Cache<HashValue, Document> documents = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).softValues().build();
+
+    /**
+     * Returns a copy of the parsed DOM for the given POM, that the caller is free to use.
+     */
+    public Document getDocument(LocallyAvailableExternalResource resource) {
+        HashValue sha1 = resource.getLocalResource().getSha1();
+        Document document = documents.getIfPresent(sha1);
+        if (document == null) {
+            document = PomReader.parsePom(resource);
+            documents.put(sha1, document);
+        }
+        Document copy;
+        // DOM implementations are not thread-safe, even for reads
+        synchronized (document) {
+            copy = (Document) document.cloneNode(true);
+        }
+        copy.setDocumentURI(PomReader.getSystemId(resource));
+        return copy;
+    }
+}
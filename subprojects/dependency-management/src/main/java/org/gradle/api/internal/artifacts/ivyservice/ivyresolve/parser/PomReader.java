@@ -91,16 +91,11 @@ public class PomReader implements PomParent {
     private final Element parentElement;
 
     public PomReader(final LocallyAvailableExternalResource resource) throws SAXException {
-        final String systemId = resource.getLocalResource().getFile().toURI().toASCIIString();
-        Document pomDomDoc = resource.withContent(new Transformer<Document, InputStream>() {
-            public Document transform(InputStream inputStream) {
-                try {
-                    return parseToDom(inputStream, systemId);
-                } catch (Exception e) {
-                    throw new MetaDataParseException("POM", resource, e);
-                }
-            }
-        });
+        this(resource, parsePom(resource));
+    }
+
+    PomReader(LocallyAvailableExternalResource resource, Document pomDomDoc) throws SAXException {
+        String systemId = getSystemId(resource);
         projectElement = pomDomDoc.getDocumentElement();
         if (!PROJECT.equals(projectElement.getNodeName()) && !MODEL.equals(projectElement.getNodeName())) {
             throw new SAXParseException("project must be the root tag", systemId, systemId, 0, 0);
@@ -188,6 +183,23 @@ public class PomReader implements PomParent {
         return projectElement.getOwnerDocument().getDocumentURI();
     }
 
+    static Document parsePom(final LocallyAvailableExternalResource resource) {
+        final String systemId = getSystemId(resource);
+        return resource.withContent(new Transformer<Document, InputStream>() {
+            public Document transform(InputStream inputStream) {
+                try {
+                    return parseToDom(inputStream, systemId);
+                } catch (Exception e) {
+                    throw new MetaDataParseException("POM", resource, e);
+                }
+            }
+        });
+    }
+
+    static String getSystemId(LocallyAvailableExternalResource resource) {
+        return resource.getLocalResource().getFile().toURI().toASCIIString();
+    }
+
     public static Document parseToDom(InputStream stream, String systemId) throws IOException, SAXException {
         EntityResolver entityResolver = new EntityResolver() {
             public InputSource resolveEntity(String publicId, String systemId)
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+
+import java.math.BigInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
+
+/**
+ * Keeps module descriptors that have been parsed from the module metadata store, keyed by the hash of the descriptor file,
+ * so that builds in the same process do not parse the same cached descriptor again.
+ */
+public class CrossBuildModuleDescriptorCache {
+    private static final int MAX_ENTRIES = 10000;
+
+    private final Cache<BigInteger, ModuleDescriptor> descriptors = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).softValues().build();
+
+    public ModuleDescriptor get(BigInteger descriptorHash, Callable<ModuleDescriptor> parser) {
+        try {
+            return descriptors.get(descriptorHash, parser);
+        } catch (ExecutionException e) {
+            throw throwAsUncheckedException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw throwAsUncheckedException(e.getCause());
+        }
+    }
+}
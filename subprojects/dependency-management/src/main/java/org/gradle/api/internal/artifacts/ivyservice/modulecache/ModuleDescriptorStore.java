@@ -27,6 +27,8 @@ import org.gradle.internal.resource.local.LocallyAvailableResource;
 import org.gradle.internal.resource.local.PathKeyFileStore;
 
 import java.io.File;
+import java.math.BigInteger;
+import java.util.concurrent.Callable;
 
 public class ModuleDescriptorStore {
 
@@ -34,18 +36,28 @@ public class ModuleDescriptorStore {
     private final IvyXmlModuleDescriptorParser descriptorParser;
     private final PathKeyFileStore metaDataStore;
     private final IvyModuleDescriptorWriter descriptorWriter;
+    private final CrossBuildModuleDescriptorCache parsedDescriptors;
 
-    public ModuleDescriptorStore(PathKeyFileStore metaDataStore, IvyModuleDescriptorWriter descriptorWriter, IvyXmlModuleDescriptorParser ivyXmlModuleDescriptorParser) {
+    public ModuleDescriptorStore(PathKeyFileStore metaDataStore, IvyModuleDescriptorWriter descriptorWriter, IvyXmlModuleDescriptorParser ivyXmlModuleDescriptorParser,
+                                 CrossBuildModuleDescriptorCache parsedDescriptors) {
         this.metaDataStore = metaDataStore;
         this.descriptorWriter = descriptorWriter;
         this.descriptorParser = ivyXmlModuleDescriptorParser;
+        this.parsedDescriptors = parsedDescriptors;
     }
 
-    public ModuleDescriptor getModuleDescriptor(ModuleComponentRepository repository, ModuleComponentIdentifier moduleComponentIdentifier) {
+    /**
+     * Returns the stored descriptor with the given hash, or null if the descriptor is not in the store. A descriptor that has already been parsed is reused.
+     */
+    public ModuleDescriptor getModuleDescriptor(ModuleComponentRepository repository, ModuleComponentIdentifier moduleComponentIdentifier, BigInteger descriptorHash) {
         String filePath = getFilePath(repository, moduleComponentIdentifier);
         final LocallyAvailableResource resource = metaDataStore.get(filePath);
         if (resource != null) {
-            return parseModuleDescriptorFile(resource.getFile());
+            return parsedDescriptors.get(descriptorHash, new Callable<ModuleDescriptor>() {
+                public ModuleDescriptor call() {
+                    return parseModuleDescriptorFile(resource.getFile());
+                }
+            });
         }
         return null;
     }
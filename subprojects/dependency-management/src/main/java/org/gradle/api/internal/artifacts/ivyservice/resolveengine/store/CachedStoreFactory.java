@@ -39,7 +39,8 @@ public class CachedStoreFactory<T> implements Closeable {
 
     public CachedStoreFactory(String displayName) {
         this.displayName = displayName;
-        cache = CacheBuilder.newBuilder().maximumSize(100).expireAfterAccess(10000, TimeUnit.MILLISECONDS).build();
+        // Decoded results are held softly, so that they can be reclaimed and re-read from the binary store under memory pressure
+        cache = CacheBuilder.newBuilder().maximumSize(100).softValues().expireAfterAccess(10000, TimeUnit.MILLISECONDS).build();
         stats = new Stats();
     }
 
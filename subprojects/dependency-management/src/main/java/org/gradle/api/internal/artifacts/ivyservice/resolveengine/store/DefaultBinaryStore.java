@@ -16,9 +16,7 @@
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.store;
 
 import org.gradle.api.internal.cache.BinaryStore;
-import org.gradle.internal.concurrent.CompositeStoppable;
-import org.gradle.internal.io.RandomAccessFileInputStream;
-import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.io.FileChannelRegionInputStream;
 import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
@@ -26,6 +24,10 @@ import java.io.*;
 
 import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
 
+/**
+ * Appends binary data to a file. Each chunk of data returned by {@link #done()} is read back using positional reads of its region of the file,
+ * so readers of different chunks do not share a file position.
+ */
 class DefaultBinaryStore implements BinaryStore, Closeable {
     private File file;
     private KryoBackedEncoder encoder;
@@ -67,10 +69,12 @@ class DefaultBinaryStore implements BinaryStore, Closeable {
 
     public BinaryData done() {
         try {
+            int end = offset;
             if (encoder != null) {
                 encoder.flush();
+                end = encoder.getWritePosition();
             }
-            return new SimpleBinaryData(file, offset, diagnose());
+            return new SimpleBinaryData(file, offset, end - offset, diagnose());
         } finally {
             offset = -1;
         }
@@ -100,25 +104,27 @@ class DefaultBinaryStore implements BinaryStore, Closeable {
 
     private static class SimpleBinaryData implements BinaryStore.BinaryData {
         private final int offset;
+        private final int length;
         private final File inputFile;
         private final String sourceDescription;
 
-        private Decoder decoder;
-        private CompositeStoppable resources;
+        private KryoBackedDecoder decoder;
 
-        public SimpleBinaryData(File inputFile, int offset, String sourceDescription) {
+        public SimpleBinaryData(File inputFile, int offset, int length, String sourceDescription) {
             this.inputFile = inputFile;
             this.offset = offset;
+            this.length = length;
             this.sourceDescription = sourceDescription;
         }
 
         public <T> T read(BinaryStore.ReadAction<T> readAction) {
+            if (offset < 0) {
+                throw new IllegalStateException("Cannot read data from " + sourceDescription + " as nothing was written to it.");
+            }
             try {
                 if (decoder == null) {
                     RandomAccessFile randomAccess = new RandomAccessFile(inputFile, "r");
-                    randomAccess.seek(offset);
-                    decoder = new KryoBackedDecoder(new RandomAccessFileInputStream(randomAccess));
-                    resources = new CompositeStoppable().add(randomAccess, decoder);
+                    decoder = new KryoBackedDecoder(new FileChannelRegionInputStream(randomAccess.getChannel(), offset, length));
                 }
                 return readAction.read(decoder);
             } catch (Exception e) {
@@ -128,14 +134,13 @@ class DefaultBinaryStore implements BinaryStore, Closeable {
 
         public void close() {
             try {
-                if (resources != null) {
-                    resources.stop();
+                if (decoder != null) {
+                    decoder.close();
                 }
             } catch (Exception e) {
                 throw new RuntimeException("Problems cleaning resources of " + sourceDescription, e);
             } finally {
                 decoder = null;
-                resources = null;
             }
         }
 
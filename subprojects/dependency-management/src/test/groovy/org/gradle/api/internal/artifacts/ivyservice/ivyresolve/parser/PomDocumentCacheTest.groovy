@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import org.gradle.internal.resource.local.DefaultLocallyAvailableExternalResource
+import org.gradle.internal.resource.local.DefaultLocallyAvailableResource
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class PomDocumentCacheTest extends Specification {
+    @Rule public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final cache = new PomDocumentCache()
+
+    static final String POM = """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-one</groupId>
+    <artifactId>parent</artifactId>
+    <version>1.0</version>
+</project>
+"""
+
+    def "returns a separate copy of the document for each request"() {
+        def resource = resource("parent.pom", POM)
+
+        when:
+        def first = cache.getDocument(resource)
+        def second = cache.getDocument(resource)
+
+        then:
+        !first.is(second)
+        first.documentElement.nodeName == "project"
+        second.documentElement.nodeName == "project"
+    }
+
+    def "parses the POM only once"() {
+        TestFile file = tmpDir.file("parent.pom")
+        file.text = POM
+        def resource = Spy(DefaultLocallyAvailableExternalResource, constructorArgs: [file.toURI(), new DefaultLocallyAvailableResource(file)])
+
+        when:
+        cache.getDocument(resource)
+
+        then:
+        1 * resource.withContent(_)
+
+        when:
+        def document = cache.getDocument(resource)
+
+        then:
+        0 * resource.withContent(_)
+        document.documentElement.nodeName == "project"
+    }
+
+    def "parses a POM with the same content as a cached POM only once"() {
+        def resource1 = resource("parent1.pom", POM)
+        TestFile file = tmpDir.file("parent2.pom")
+        file.text = POM
+        def resource2 = Spy(DefaultLocallyAvailableExternalResource, constructorArgs: [file.toURI(), new DefaultLocallyAvailableResource(file)])
+        cache.getDocument(resource1)
+
+        when:
+        cache.getDocument(resource2)
+
+        then:
+        0 * resource2.withContent(_)
+    }
+
+    def "document uses the location of the requested POM when content is shared"() {
+        def resource1 = resource("parent1.pom", POM)
+        def resource2 = resource("parent2.pom", POM)
+
+        expect:
+        cache.getDocument(resource1).documentURI == PomReader.getSystemId(resource1)
+        cache.getDocument(resource2).documentURI == PomReader.getSystemId(resource2)
+    }
+
+    def "reads POM from cached document"() {
+        def resource = resource("parent.pom", POM)
+
+        when:
+        def pomReader = new PomReader(resource, cache.getDocument(resource))
+
+        then:
+        pomReader.groupId == "group-one"
+        pomReader.artifactId == "parent"
+        pomReader.version == "1.0"
+    }
+
+    private LocallyAvailableExternalResource resource(String name, String content) {
+        TestFile file = tmpDir.file(name)
+        file.text = content
+        return new DefaultLocallyAvailableExternalResource(file.toURI(), new DefaultLocallyAvailableResource(file))
+    }
+}
@@ -21,7 +21,7 @@ import org.gradle.api.artifacts.component.ModuleComponentIdentifier
 import org.gradle.api.internal.artifacts.ivyservice.IvyModuleDescriptorWriter
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyXmlModuleDescriptorParser
-
+import org.gradle.internal.component.external.model.DefaultIvyModuleResolveMetaData
 import org.gradle.internal.resource.local.LocallyAvailableResource
 import org.gradle.internal.resource.local.PathKeyFileStore
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -39,9 +39,10 @@ class ModuleDescriptorStoreTest extends Specification {
     IvyModuleDescriptorWriter ivyModuleDescriptorWriter = Mock()
     IvyXmlModuleDescriptorParser ivyXmlModuleDescriptorParser = Mock()
     ModuleComponentIdentifier moduleComponentIdentifier = Mock()
+    CrossBuildModuleDescriptorCache parsedDescriptors = new CrossBuildModuleDescriptorCache()
 
     def setup() {
-        store = new ModuleDescriptorStore(pathKeyFileStore, ivyModuleDescriptorWriter, ivyXmlModuleDescriptorParser);
+        store = new ModuleDescriptorStore(pathKeyFileStore, ivyModuleDescriptorWriter, ivyXmlModuleDescriptorParser, parsedDescriptors);
         _ * repository.getId() >> "repositoryId"
         _ * moduleComponentIdentifier.group >> "org.test"
         _ * moduleComponentIdentifier.module >> "testArtifact"
@@ -52,16 +53,32 @@ class ModuleDescriptorStoreTest extends Specification {
         when:
         pathKeyFileStore.get("org.test/testArtifact/1.0/repositoryId/ivy.xml") >> null
         then:
-        null == store.getModuleDescriptor(repository, moduleComponentIdentifier)
+        null == store.getModuleDescriptor(repository, moduleComponentIdentifier, BigInteger.ONE)
     }
 
     def "getModuleDescriptorFile uses PathKeyFileStore to get file"() {
         when:
-        store.getModuleDescriptor(repository, moduleComponentIdentifier);
+        store.getModuleDescriptor(repository, moduleComponentIdentifier, BigInteger.ONE);
         then:
         1 * pathKeyFileStore.get("org.test/testArtifact/1.0/repositoryId/ivy.xml") >> null
     }
 
+    def "reuses parsed descriptor with same hash"() {
+        def metaData = Mock(DefaultIvyModuleResolveMetaData)
+        _ * pathKeyFileStore.get("org.test/testArtifact/1.0/repositoryId/ivy.xml") >> fileStoreEntry
+        _ * fileStoreEntry.file >> temporaryFolder.createFile("ivy.xml")
+
+        when:
+        def first = store.getModuleDescriptor(repository, moduleComponentIdentifier, BigInteger.ONE)
+        def second = store.getModuleDescriptor(repository, moduleComponentIdentifier, BigInteger.ONE)
+
+        then:
+        first == moduleDescriptor
+        second == moduleDescriptor
+        1 * ivyXmlModuleDescriptorParser.parseMetaData(_, _, false) >> metaData
+        1 * metaData.descriptor >> moduleDescriptor
+    }
+
     def "putModuleDescriptor uses PathKeyFileStore to write file"() {
         setup:
         File descriptorFile = temporaryFolder.createFile("fileStoreEntry")
@@ -70,6 +70,21 @@ class DefaultBinaryStoreTest extends Specification {
 
     }
 
+    def "backing file is removed when store is closed after data has been read"() {
+        def file = temp.file("foo.bin")
+        def store = new DefaultBinaryStore(file)
+        store.write({ it.writeInt(10) } as BinaryStore.WriteAction)
+        def data = store.done()
+        data.read({ it.readInt() } as BinaryStore.ReadAction)
+
+        when:
+        data.close()
+        store.close()
+
+        then:
+        !file.exists()
+    }
+
     class SomeException extends RuntimeException {}
 
     def "write action exception is propagated to the client"() {
@@ -113,4 +128,21 @@ class DefaultBinaryStoreTest extends Specification {
         then:
         data.close()
     }
+
+    def "cannot read data when nothing was written"() {
+        def store = new DefaultBinaryStore(temp.file("foo.bin"))
+        store.write({ it.writeInt(10) } as BinaryStore.WriteAction)
+        store.done()
+        def data = store.done()
+
+        when:
+        data.read({ it.readInt() } as BinaryStore.ReadAction)
+
+        then:
+        thrown(IllegalStateException)
+
+        cleanup:
+        data.close()
+        store.close()
+    }
 }
@@ -16,13 +16,17 @@
 
 package org.gradle.api.internal.tasks.compile;
 
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration;
 import org.gradle.api.tasks.compile.CompileOptions;
 
 import java.io.File;
+import java.util.List;
 
 public class DefaultJavaCompileSpec extends DefaultJvmLanguageCompileSpec implements JavaCompileSpec {
     private CompileOptions compileOptions;
     private File dependencyCacheDir;
+    private File annotationProcessingResultFile;
+    private List<AnnotationProcessorDeclaration> effectiveAnnotationProcessors;
 
     @Override
     public CompileOptions getCompileOptions() {
@@ -42,4 +46,24 @@ public class DefaultJavaCompileSpec extends DefaultJvmLanguageCompileSpec implem
     public void setDependencyCacheDir(File dependencyCacheDir) {
         this.dependencyCacheDir = dependencyCacheDir;
     }
+
+    @Override
+    public File getAnnotationProcessingResultFile() {
+        return annotationProcessingResultFile;
+    }
+
+    @Override
+    public void setAnnotationProcessingResultFile(File annotationProcessingResultFile) {
+        this.annotationProcessingResultFile = annotationProcessingResultFile;
+    }
+
+    @Override
+    public List<AnnotationProcessorDeclaration> getEffectiveAnnotationProcessors() {
+        return effectiveAnnotationProcessors;
+    }
+
+    @Override
+    public void setEffectiveAnnotationProcessors(List<AnnotationProcessorDeclaration> effectiveAnnotationProcessors) {
+        this.effectiveAnnotationProcessors = effectiveAnnotationProcessors;
+    }
 }
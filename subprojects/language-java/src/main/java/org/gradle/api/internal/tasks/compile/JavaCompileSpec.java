@@ -16,9 +16,12 @@
 
 package org.gradle.api.internal.tasks.compile;
 
+import org.gradle.api.Nullable;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration;
 import org.gradle.api.tasks.compile.CompileOptions;
 
 import java.io.File;
+import java.util.List;
 
 public interface JavaCompileSpec extends JvmLanguageCompileSpec {
     CompileOptions getCompileOptions();
@@ -29,4 +32,20 @@ public interface JavaCompileSpec extends JvmLanguageCompileSpec {
 
     @Override
     File getDestinationDir();
+
+    /**
+     * The file to record the originating types of the files generated by annotation processors to, or null when they are not tracked.
+     */
+    @Nullable
+    File getAnnotationProcessingResultFile();
+
+    void setAnnotationProcessingResultFile(@Nullable File annotationProcessingResultFile);
+
+    /**
+     * The annotation processors javac will run for this compilation, or null when they were not detected.
+     */
+    @Nullable
+    List<AnnotationProcessorDeclaration> getEffectiveAnnotationProcessors();
+
+    void setEffectiveAnnotationProcessors(@Nullable List<AnnotationProcessorDeclaration> annotationProcessors);
 }
@@ -25,10 +25,15 @@ import javax.tools.JavaCompiler;
 import java.io.File;
 import java.io.Serializable;
 
+/**
+ * Locates the system Java compiler. The compiler is located once and then reused, as it holds no state between compilations
+ * and locating it may require temporarily changing the {@code java.home} system property.
+ */
 public class JavaHomeBasedJavaCompilerFactory implements Factory<JavaCompiler>, Serializable {
     private final Factory<? extends File> currentJvmJavaHomeFactory;
     private final Factory<? extends File> systemPropertiesJavaHomeFactory;
     private final Factory<? extends JavaCompiler> systemJavaCompilerFactory;
+    private transient JavaCompiler compiler;
 
     public JavaHomeBasedJavaCompilerFactory() {
         this(new CurrentJvmJavaHomeFactory(), new SystemPropertiesJavaHomeFactory(), new SystemJavaCompilerFactory());
@@ -41,8 +46,10 @@ public class JavaHomeBasedJavaCompilerFactory implements Factory<JavaCompiler>,
     }
 
     @Override
-    public JavaCompiler create() {
-        JavaCompiler compiler = findCompiler();
+    public synchronized JavaCompiler create() {
+        if (compiler == null) {
+            compiler = findCompiler();
+        }
 
         if (compiler == null) {
             throw new RuntimeException("Cannot find System Java Compiler. Ensure that you have installed a JDK (not just a JRE) and configured your JAVA_HOME system variable to point to the according directory.");
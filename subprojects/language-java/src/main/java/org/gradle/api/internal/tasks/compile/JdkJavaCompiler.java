@@ -16,18 +16,27 @@
 package org.gradle.api.internal.tasks.compile;
 
 import org.gradle.api.internal.tasks.SimpleWorkResult;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessingResult;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration;
+import org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType;
+import org.gradle.api.internal.tasks.compile.incremental.processing.OriginTrackingProcessor;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.compile.CompileOptions;
 import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.language.base.internal.compile.Compiler;
+import org.gradle.util.GFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.processing.Processor;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 
 public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable {
@@ -42,21 +51,73 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
     public WorkResult execute(JavaCompileSpec spec) {
         LOGGER.info("Compiling with JDK Java compiler API.");
 
-        JavaCompiler.CompilationTask task = createCompileTask(spec);
-        boolean success = task.call();
-        if (!success) {
-            throw new CompilationFailedException();
+        List<String> options = new JavaCompilerArgumentsBuilder(spec).build();
+        JavaCompiler compiler = javaHomeBasedJavaCompilerFactory.create();
+        CompileOptions compileOptions = spec.getCompileOptions();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null);
+        ClassLoader processorLoader = null;
+        try {
+            Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(spec.getSource());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, compilationUnits);
+
+            AnnotationProcessingResult processingResult = null;
+            if (spec.getAnnotationProcessingResultFile() != null) {
+                // An absent result means that the generated types were not tracked for this compilation
+                GFileUtils.deleteQuietly(spec.getAnnotationProcessingResultFile());
+                List<AnnotationProcessorDeclaration> processors = spec.getEffectiveAnnotationProcessors();
+                if (processors != null && !processors.isEmpty() && allIsolating(processors)) {
+                    processingResult = new AnnotationProcessingResult();
+                    processorLoader = createProcessorLoader(fileManager);
+                    task.setProcessors(createTrackingProcessors(processors, processorLoader, processingResult));
+                }
+            }
+
+            boolean success = task.call();
+            if (!success) {
+                throw new CompilationFailedException();
+            }
+            if (processingResult != null) {
+                processingResult.write(spec.getAnnotationProcessingResultFile());
+            }
+        } finally {
+            // Release the jars opened by the file manager, they are otherwise held open until garbage collected
+            CompositeStoppable.stoppable(fileManager, processorLoader).stop();
         }
 
         return new SimpleWorkResult(true);
     }
 
-    private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec) {
-        List<String> options = new JavaCompilerArgumentsBuilder(spec).build();
-        JavaCompiler compiler = javaHomeBasedJavaCompilerFactory.create();
-        CompileOptions compileOptions = spec.getCompileOptions();
-        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null);
-        Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(spec.getSource());
-        return compiler.getTask(null, null, null, options, null, compilationUnits);
+    private static boolean allIsolating(List<AnnotationProcessorDeclaration> processors) {
+        for (AnnotationProcessorDeclaration processor : processors) {
+            if (processor.getType() != IncrementalAnnotationProcessorType.ISOLATING) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the loader the same way javac does when it discovers the processors itself. The file manager has been configured
+     * with the paths from the compiler arguments by the time the task is created.
+     */
+    private static ClassLoader createProcessorLoader(StandardJavaFileManager fileManager) {
+        if (fileManager.hasLocation(StandardLocation.ANNOTATION_PROCESSOR_PATH)) {
+            return fileManager.getClassLoader(StandardLocation.ANNOTATION_PROCESSOR_PATH);
+        }
+        return fileManager.getClassLoader(StandardLocation.CLASS_PATH);
+    }
+
+    private static List<Processor> createTrackingProcessors(List<AnnotationProcessorDeclaration> processors, ClassLoader processorLoader, AnnotationProcessingResult result) {
+        List<Processor> trackingProcessors = new ArrayList<Processor>(processors.size());
+        for (AnnotationProcessorDeclaration declaration : processors) {
+            Processor processor;
+            try {
+                processor = processorLoader.loadClass(declaration.getClassName()).asSubclass(Processor.class).newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException(String.format("Could not create annotation processor '%s'.", declaration.getClassName()), e);
+            }
+            trackingProcessors.add(new OriginTrackingProcessor(processor, result));
+        }
+        return trackingProcessors;
     }
 }
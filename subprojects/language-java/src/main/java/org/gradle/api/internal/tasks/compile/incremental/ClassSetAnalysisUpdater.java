@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.tasks.compile.incremental;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.cache.Stash;
 import org.gradle.api.internal.file.FileOperations;
@@ -23,10 +24,17 @@ import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassFilesAnalyzer;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysisData;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessingResult;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.operations.BuildOperationProcessor;
 import org.gradle.util.Clock;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 public class ClassSetAnalysisUpdater {
 
     private final static Logger LOG = Logging.getLogger(ClassSetAnalysisUpdater.class);
@@ -34,20 +42,54 @@ public class ClassSetAnalysisUpdater {
     private final Stash<ClassSetAnalysisData> stash;
     private final FileOperations fileOperations;
     private ClassDependenciesAnalyzer analyzer;
+    private final BuildOperationProcessor buildOperationProcessor;
 
     public ClassSetAnalysisUpdater(Stash<ClassSetAnalysisData> stash, FileOperations fileOperations, ClassDependenciesAnalyzer analyzer) {
+        this(stash, fileOperations, analyzer, null);
+    }
+
+    public ClassSetAnalysisUpdater(Stash<ClassSetAnalysisData> stash, FileOperations fileOperations, ClassDependenciesAnalyzer analyzer, @Nullable BuildOperationProcessor buildOperationProcessor) {
         this.stash = stash;
         this.fileOperations = fileOperations;
         this.analyzer = analyzer;
+        this.buildOperationProcessor = buildOperationProcessor;
     }
 
     public void updateAnalysis(JavaCompileSpec spec) {
+        updateAnalysis(spec, null);
+    }
+
+    /**
+     * Analyzes the output of the given compilation. The generated types recorded by the compilation are merged with those recorded
+     * by the previous compilation that still exist, as a selective compilation only runs the annotation processors for the sources it compiles.
+     */
+    public void updateAnalysis(JavaCompileSpec spec, @Nullable ClassSetAnalysisData previousData) {
         Clock clock = new Clock();
         FileTree tree = fileOperations.fileTree(spec.getDestinationDir());
-        ClassFilesAnalyzer analyzer = new ClassFilesAnalyzer(this.analyzer);
+        ClassFilesAnalyzer analyzer = new ClassFilesAnalyzer(this.analyzer, buildOperationProcessor);
         tree.visit(analyzer);
         ClassSetAnalysisData data = analyzer.getAnalysis();
+        File resultFile = spec.getAnnotationProcessingResultFile();
+        AnnotationProcessingResult result = resultFile == null ? null : AnnotationProcessingResult.read(resultFile);
+        if (result != null && result.getFullRebuildCause() != null) {
+            data = data.withGeneratedTypesUntracked(result.getFullRebuildCause());
+        } else if (result != null) {
+            data = data.withGeneratedTypeOrigins(getGeneratedTypeOrigins(result, data, previousData));
+        }
         stash.put(data);
         LOG.info("Class dependency analysis for incremental compilation took {}.", clock.getTime());
     }
+
+    private Map<String, Set<String>> getGeneratedTypeOrigins(AnnotationProcessingResult result, ClassSetAnalysisData data, @Nullable ClassSetAnalysisData previousData) {
+        Map<String, Set<String>> generatedTypeOrigins = new HashMap<String, Set<String>>();
+        if (previousData != null) {
+            for (Map.Entry<String, Set<String>> entry : previousData.getGeneratedTypeOrigins().entrySet()) {
+                if (data.getDependents(entry.getKey()) != null) {
+                    generatedTypeOrigins.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        generatedTypeOrigins.putAll(result.getGeneratedTypeOrigins());
+        return generatedTypeOrigins;
+    }
 }
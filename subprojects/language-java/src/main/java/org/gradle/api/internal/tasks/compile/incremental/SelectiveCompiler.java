@@ -18,9 +18,12 @@ package org.gradle.api.internal.tasks.compile.incremental;
 
 import org.gradle.api.internal.tasks.compile.CleaningJavaCompiler;
 import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
+import org.gradle.api.internal.tasks.compile.incremental.deps.DependentsSet;
 import org.gradle.api.internal.tasks.compile.incremental.jar.JarClasspathSnapshot;
 import org.gradle.api.internal.tasks.compile.incremental.jar.JarClasspathSnapshotProvider;
 import org.gradle.api.internal.tasks.compile.incremental.jar.PreviousCompilation;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration;
+import org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.RecompilationSpec;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
@@ -28,6 +31,11 @@ import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.util.Clock;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 class SelectiveCompiler implements org.gradle.language.base.internal.compile.Compiler<JavaCompileSpec> {
     private static final Logger LOG = Logging.getLogger(SelectiveCompiler.class);
     private final IncrementalTaskInputs inputs;
@@ -52,6 +60,9 @@ class SelectiveCompiler implements org.gradle.language.base.internal.compile.Com
         Clock clock = new Clock();
         JarClasspathSnapshot jarClasspathSnapshot = jarClasspathSnapshotProvider.getJarClasspathSnapshot(spec.getClasspath());
         RecompilationSpec recompilationSpec = recompilationSpecProvider.provideRecompilationSpec(inputs, previousCompilation, jarClasspathSnapshot);
+        if (!recompilationSpec.isFullRebuildNeeded() && !recompilationSpec.getClassNames().isEmpty()) {
+            addGeneratedTypes(spec, recompilationSpec);
+        }
 
         if (recompilationSpec.isFullRebuildNeeded()) {
             LOG.lifecycle("Full recompilation is required because {}. Analysis took {}.", recompilationSpec.getFullRebuildCause(), clock.getTime());
@@ -71,4 +82,51 @@ class SelectiveCompiler implements org.gradle.language.base.internal.compile.Com
             LOG.lifecycle("Incremental compilation of {} classes completed in {}.", recompilationSpec.getClassNames().size(), clock.getTime());
         }
     }
+
+    /**
+     * Adds the types generated from the stale types, and the types that stale generated types were generated from, so that annotation
+     * processors run again for them. Only isolating annotation processors can be run selectively, any other processor needs a full rebuild.
+     * So does an isolating processor when the previous compilation did not record the types it generated, or when they could not be tracked.
+     */
+    void addGeneratedTypes(JavaCompileSpec spec, RecompilationSpec recompilationSpec) {
+        List<AnnotationProcessorDeclaration> processors = spec.getEffectiveAnnotationProcessors();
+        if (processors == null || processors.isEmpty()) {
+            return;
+        }
+        for (AnnotationProcessorDeclaration processor : processors) {
+            if (processor.getType() == IncrementalAnnotationProcessorType.UNKNOWN) {
+                recompilationSpec.setFullRebuildCause("annotation processor '" + processor.getClassName() + "' does not support incremental compilation", null);
+                return;
+            }
+            if (processor.getType() == IncrementalAnnotationProcessorType.AGGREGATING) {
+                recompilationSpec.setFullRebuildCause("annotation processor '" + processor.getClassName() + "' aggregates over all sources", null);
+                return;
+            }
+        }
+        String untrackedCause = previousCompilation.getGeneratedTypesUntrackedCause();
+        if (untrackedCause != null) {
+            recompilationSpec.setFullRebuildCause(untrackedCause, null);
+            return;
+        }
+
+        Set<String> staleClasses = new HashSet<String>(recompilationSpec.getClassNames());
+        while (true) {
+            Set<String> added = new LinkedHashSet<String>();
+            added.addAll(previousCompilation.getGeneratedTypes(staleClasses));
+            added.addAll(previousCompilation.getOriginatingTypes(staleClasses));
+            added.removeAll(staleClasses);
+            if (added.isEmpty()) {
+                return;
+            }
+            DependentsSet dependents = previousCompilation.getDependents(added);
+            if (dependents.isDependencyToAll()) {
+                recompilationSpec.setFullRebuildCause("a type generated by an annotation processor was changed", null);
+                return;
+            }
+            staleClasses.addAll(added);
+            staleClasses.addAll(dependents.getDependentClasses());
+            recompilationSpec.getClassNames().addAll(added);
+            recompilationSpec.getClassNames().addAll(dependents.getDependentClasses());
+        }
+    }
 }
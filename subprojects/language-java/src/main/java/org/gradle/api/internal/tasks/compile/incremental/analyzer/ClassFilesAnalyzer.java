@@ -16,29 +16,51 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.analyzer;
 
+import org.gradle.api.Action;
+import org.gradle.api.Nullable;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassDependentsAccumulator;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysisData;
+import org.gradle.internal.operations.BuildOperationProcessor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
+/**
+ * Analyzes the visited class files. When a build operation processor is available, the class files are analyzed concurrently
+ * when the analysis is requested, and the results are added to the accumulator in the order the class files were visited.
+ */
 public class ClassFilesAnalyzer implements FileVisitor {
 
     private final ClassDependenciesAnalyzer analyzer;
     private final String packagePrefix;
     private final ClassDependentsAccumulator accumulator;
+    private final BuildOperationProcessor buildOperationProcessor;
+    private final List<AnalyzeClass> pending = new ArrayList<AnalyzeClass>();
 
     public ClassFilesAnalyzer(ClassDependenciesAnalyzer analyzer) {
-        this(analyzer, "", new ClassDependentsAccumulator(""));
+        this(analyzer, null);
+    }
+
+    public ClassFilesAnalyzer(ClassDependenciesAnalyzer analyzer, @Nullable BuildOperationProcessor buildOperationProcessor) {
+        this(analyzer, "", new ClassDependentsAccumulator(""), buildOperationProcessor);
     }
 
     ClassFilesAnalyzer(ClassDependenciesAnalyzer analyzer, String packagePrefix, ClassDependentsAccumulator accumulator) {
+        this(analyzer, packagePrefix, accumulator, null);
+    }
+
+    ClassFilesAnalyzer(ClassDependenciesAnalyzer analyzer, String packagePrefix, ClassDependentsAccumulator accumulator, @Nullable BuildOperationProcessor buildOperationProcessor) {
         this.analyzer = analyzer;
         this.packagePrefix = packagePrefix;
         this.accumulator = accumulator;
+        this.buildOperationProcessor = buildOperationProcessor;
     }
 
     @Override
@@ -55,11 +77,50 @@ public class ClassFilesAnalyzer implements FileVisitor {
             return;
         }
 
-        ClassAnalysis analysis = analyzer.getClassAnalysis(className, file);
-        accumulator.addClass(className, analysis.isDependencyToAll(), analysis.getClassDependencies());
+        if (buildOperationProcessor == null) {
+            ClassAnalysis analysis = analyzer.getClassAnalysis(className, file);
+            accumulator.addClass(className, analysis.isDependencyToAll(), analysis.getClassDependencies());
+        } else {
+            pending.add(new AnalyzeClass(className, file));
+        }
     }
 
     public ClassSetAnalysisData getAnalysis() {
+        if (!pending.isEmpty()) {
+            buildOperationProcessor.run(new Action<BuildOperationQueue<AnalyzeClass>>() {
+                @Override
+                public void execute(BuildOperationQueue<AnalyzeClass> queue) {
+                    for (AnalyzeClass analyzeClass : pending) {
+                        queue.add(analyzeClass);
+                    }
+                }
+            });
+            for (AnalyzeClass analyzeClass : pending) {
+                accumulator.addClass(analyzeClass.className, analyzeClass.analysis.isDependencyToAll(), analyzeClass.analysis.getClassDependencies());
+            }
+            pending.clear();
+        }
         return new ClassSetAnalysisData(accumulator.getDependentsMap());
     }
+
+    private class AnalyzeClass implements RunnableBuildOperation {
+        private final String className;
+        private final File classFile;
+        private ClassAnalysis analysis;
+
+        AnalyzeClass(String className, File classFile) {
+            this.className = className;
+            this.classFile = classFile;
+        }
+
+        @Override
+        public String getDescription() {
+            return "analyzing class file ".concat(classFile.getName());
+        }
+
+        @Override
+        public void run() {
+            analysis = analyzer.getClassAnalysis(className, classFile);
+        }
+    }
 }
@@ -16,9 +16,13 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.deps;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class ClassSetAnalysis {
@@ -30,7 +34,7 @@ public class ClassSetAnalysis {
     }
 
     public DependentsSet getRelevantDependents(Iterable<String> classes) {
-        List<String> result = new LinkedList<String>();
+        Set<String> result = new LinkedHashSet<String>();
         for (String cls : classes) {
             DependentsSet d = getRelevantDependents(cls);
             if (d.isDependencyToAll()) {
@@ -50,7 +54,7 @@ public class ClassSetAnalysis {
             return new DependencyToAll();
         }
         Set<String> result = new HashSet<String>();
-        recurseDependents(new HashSet<String>(), result, deps.getDependentClasses());
+        collectDependents(result, deps.getDependentClasses());
         result.remove(className);
         return new DefaultDependentsSet(result);
     }
@@ -60,8 +64,15 @@ public class ClassSetAnalysis {
         return deps != null && deps.isDependencyToAll();
     }
 
-    private void recurseDependents(Set<String> visited, Set<String> result, Set<String> dependentClasses) {
-        for (String d : dependentClasses) {
+    /**
+     * Collects the transitive dependents of the given classes. Uses a work list rather than recursion, as chains of dependents can be
+     * long in large modules.
+     */
+    private void collectDependents(Set<String> result, Set<String> dependentClasses) {
+        Set<String> visited = new HashSet<String>();
+        Deque<String> pending = new ArrayDeque<String>(dependentClasses);
+        while (!pending.isEmpty()) {
+            String d = pending.removeFirst();
             if (!visited.add(d)) {
                 continue;
             }
@@ -69,10 +80,37 @@ public class ClassSetAnalysis {
                 result.add(d);
             }
             DependentsSet currentDependents = data.getDependents(d);
-            recurseDependents(visited, result, currentDependents.getDependentClasses());
+            pending.addAll(currentDependents.getDependentClasses());
         }
     }
 
+    /**
+     * Returns the types that were generated by annotation processors from any of the given types.
+     */
+    public Set<String> getGeneratedTypes(Collection<String> originatingTypes) {
+        Set<String> result = new LinkedHashSet<String>();
+        for (Map.Entry<String, Set<String>> entry : data.getGeneratedTypeOrigins().entrySet()) {
+            if (!Collections.disjoint(entry.getValue(), originatingTypes)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the types that any of the given generated types were generated from.
+     */
+    public Set<String> getOriginatingTypes(Collection<String> generatedTypes) {
+        Set<String> result = new LinkedHashSet<String>();
+        for (String generatedType : generatedTypes) {
+            Set<String> origins = data.getGeneratedTypeOrigins().get(generatedType);
+            if (origins != null) {
+                result.addAll(origins);
+            }
+        }
+        return result;
+    }
+
     public ClassSetAnalysisData getData() {
         return data;
     }
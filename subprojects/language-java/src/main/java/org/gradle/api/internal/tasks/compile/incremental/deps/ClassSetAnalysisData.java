@@ -16,72 +16,177 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.deps;
 
+import org.gradle.api.Nullable;
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessingResult;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
-import org.gradle.internal.serialize.MapSerializer;
-import org.gradle.internal.serialize.SetSerializer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
-import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+import java.util.TreeSet;
 
 public class ClassSetAnalysisData {
+    private static final String NOT_RECORDED = "the types generated by annotation processors were not recorded by the previous compilation";
 
     final Map<String, DependentsSet> dependents;
+    final Map<String, Set<String>> generatedTypeOrigins;
+    final String generatedTypesUntrackedCause;
 
     public ClassSetAnalysisData(Map<String, DependentsSet> dependents) {
+        this(dependents, Collections.<String, Set<String>>emptyMap(), NOT_RECORDED);
+    }
+
+    public ClassSetAnalysisData(Map<String, DependentsSet> dependents, Map<String, Set<String>> generatedTypeOrigins) {
+        this(dependents, generatedTypeOrigins, null);
+    }
+
+    private ClassSetAnalysisData(Map<String, DependentsSet> dependents, Map<String, Set<String>> generatedTypeOrigins, @Nullable String generatedTypesUntrackedCause) {
         this.dependents = dependents;
+        this.generatedTypeOrigins = generatedTypeOrigins;
+        this.generatedTypesUntrackedCause = generatedTypesUntrackedCause;
     }
 
     public DependentsSet getDependents(String className) {
         return dependents.get(className);
     }
 
-    public static class Serializer implements org.gradle.internal.serialize.Serializer<ClassSetAnalysisData> {
+    /**
+     * Returns the types generated by annotation processors, mapped to the types each was generated from.
+     */
+    public Map<String, Set<String>> getGeneratedTypeOrigins() {
+        return generatedTypeOrigins;
+    }
+
+    /**
+     * Returns true when the compilation recorded the types generated by annotation processors, which only the in-process compiler does.
+     */
+    public boolean isGeneratedTypesTracked() {
+        return generatedTypesUntrackedCause == null;
+    }
 
-        private final MapSerializer<String, DependentsSet> serializer = new MapSerializer<String, DependentsSet>(
-                STRING_SERIALIZER, new DependentsSetSerializer());
+    /**
+     * Returns why the types generated by annotation processors cannot be used to recompile selectively, or null when they can.
+     */
+    @Nullable
+    public String getGeneratedTypesUntrackedCause() {
+        return generatedTypesUntrackedCause;
+    }
+
+    public ClassSetAnalysisData withGeneratedTypeOrigins(Map<String, Set<String>> generatedTypeOrigins) {
+        return new ClassSetAnalysisData(dependents, generatedTypeOrigins);
+    }
+
+    public ClassSetAnalysisData withGeneratedTypesUntracked(String cause) {
+        return new ClassSetAnalysisData(dependents, Collections.<String, Set<String>>emptyMap(), cause);
+    }
+
+    /**
+     * Writes the class names once, sorted and front coded, and refers to them by index. Class names in the same package share most of
+     * their characters, and each class name is otherwise repeated once for every class that depends on it.
+     */
+    public static class Serializer implements org.gradle.internal.serialize.Serializer<ClassSetAnalysisData> {
 
         @Override
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            //we only support one kind of data
-            return new ClassSetAnalysisData(serializer.read(decoder));
+            String[] classNames = readClassNames(decoder);
+
+            int count = decoder.readSmallInt();
+            Map<String, DependentsSet> dependents = new HashMap<String, DependentsSet>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String className = classNames[decoder.readSmallInt()];
+                dependents.put(className, readDependentsSet(decoder, classNames));
+            }
+            String generatedTypesUntrackedCause = decoder.readNullableString();
+            return new ClassSetAnalysisData(dependents, AnnotationProcessingResult.read(decoder), generatedTypesUntrackedCause);
         }
 
         @Override
         public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
-            //we only support one kind of data
-            serializer.write(encoder, value.dependents);
+            Map<String, Integer> classNameIndex = writeClassNames(encoder, value.dependents);
+
+            encoder.writeSmallInt(value.dependents.size());
+            for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
+                encoder.writeSmallInt(classNameIndex.get(entry.getKey()));
+                writeDependentsSet(encoder, entry.getValue(), classNameIndex);
+            }
+            encoder.writeNullableString(value.generatedTypesUntrackedCause);
+            AnnotationProcessingResult.write(encoder, value.generatedTypeOrigins);
         }
 
-        private static class DependentsSetSerializer implements org.gradle.internal.serialize.Serializer<DependentsSet> {
+        private Map<String, Integer> writeClassNames(Encoder encoder, Map<String, DependentsSet> dependents) throws Exception {
+            Set<String> classNames = new TreeSet<String>(dependents.keySet());
+            for (DependentsSet dependentsSet : dependents.values()) {
+                if (!(dependentsSet instanceof DependencyToAll)) {
+                    classNames.addAll(dependentsSet.getDependentClasses());
+                }
+            }
 
-            private SetSerializer<String> setSerializer = new SetSerializer<String>(STRING_SERIALIZER, false);
+            Map<String, Integer> classNameIndex = new HashMap<String, Integer>(classNames.size() * 2);
+            encoder.writeSmallInt(classNames.size());
+            String previous = "";
+            for (String className : classNames) {
+                int common = commonPrefixLength(previous, className);
+                encoder.writeSmallInt(common);
+                encoder.writeString(className.substring(common));
+                classNameIndex.put(className, classNameIndex.size());
+                previous = className;
+            }
+            return classNameIndex;
+        }
 
-            @Override
-            public DependentsSet read(Decoder decoder) throws Exception {
-                int control = decoder.readSmallInt();
-                if (control == 0) {
-                    return new DependencyToAll();
-                }
-                if (control != 1 && control != 2) {
-                    throw new IllegalArgumentException("Unable to read the data. Unexpected control value: " + control);
-                }
-                Set<String> classes = setSerializer.read(decoder);
-                return new DefaultDependentsSet(control == 1, classes);
+        private String[] readClassNames(Decoder decoder) throws Exception {
+            String[] classNames = new String[decoder.readSmallInt()];
+            String previous = "";
+            for (int i = 0; i < classNames.length; i++) {
+                int common = decoder.readSmallInt();
+                String className = previous.substring(0, common).concat(decoder.readString());
+                classNames[i] = className;
+                previous = className;
             }
+            return classNames;
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int max = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private DependentsSet readDependentsSet(Decoder decoder, String[] classNames) throws Exception {
+            int control = decoder.readSmallInt();
+            if (control == 0) {
+                return new DependencyToAll();
+            }
+            if (control != 1 && control != 2) {
+                throw new IllegalArgumentException("Unable to read the data. Unexpected control value: " + control);
+            }
+            int count = decoder.readSmallInt();
+            List<String> classes = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                classes.add(classNames[decoder.readSmallInt()]);
+            }
+            return new DefaultDependentsSet(control == 1, classes);
+        }
 
-            @Override
-            public void write(Encoder encoder, DependentsSet value) throws Exception {
-                if (value instanceof DependencyToAll) {
-                    encoder.writeSmallInt(0);
-                } else if (value instanceof DefaultDependentsSet) {
-                    encoder.writeSmallInt(value.isDependencyToAll() ? 1 : 2);
-                    setSerializer.write(encoder, value.getDependentClasses());
-                } else {
-                    throw new IllegalArgumentException("Don't know how to serialize value of type: " + value.getClass() + ", value: " + value);
+        private void writeDependentsSet(Encoder encoder, DependentsSet value, Map<String, Integer> classNameIndex) throws Exception {
+            if (value instanceof DependencyToAll) {
+                encoder.writeSmallInt(0);
+            } else if (value instanceof DefaultDependentsSet) {
+                encoder.writeSmallInt(value.isDependencyToAll() ? 1 : 2);
+                Set<String> classes = value.getDependentClasses();
+                encoder.writeSmallInt(classes.size());
+                for (String className : classes) {
+                    encoder.writeSmallInt(classNameIndex.get(className));
                 }
+            } else {
+                throw new IllegalArgumentException("Don't know how to serialize value of type: " + value.getClass() + ", value: " + value);
             }
         }
     }
@@ -16,12 +16,14 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.jar;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.internal.changedetection.state.FileSnapshot;
 import org.gradle.api.internal.changedetection.state.FilesSnapshotSet;
 import org.gradle.api.internal.hash.Hasher;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer;
 import org.gradle.internal.Factory;
 import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.operations.BuildOperationProcessor;
 
 public class CachingJarSnapshotter implements JarSnapshotter {
 
@@ -31,8 +33,12 @@ public class CachingJarSnapshotter implements JarSnapshotter {
     private final FilesSnapshotSet inputFilesSnapshot;
 
     public CachingJarSnapshotter(Hasher hasher, ClassDependenciesAnalyzer analyzer, JarSnapshotCache cache, FilesSnapshotSet inputFilesSnapshot) {
+        this(hasher, analyzer, cache, inputFilesSnapshot, null);
+    }
+
+    public CachingJarSnapshotter(Hasher hasher, ClassDependenciesAnalyzer analyzer, JarSnapshotCache cache, FilesSnapshotSet inputFilesSnapshot, @Nullable BuildOperationProcessor buildOperationProcessor) {
         this.inputFilesSnapshot = inputFilesSnapshot;
-        this.snapshotter = new DefaultJarSnapshotter(hasher, analyzer);
+        this.snapshotter = new DefaultJarSnapshotter(hasher, analyzer, buildOperationProcessor);
         this.hasher = hasher;
         this.cache = cache;
     }
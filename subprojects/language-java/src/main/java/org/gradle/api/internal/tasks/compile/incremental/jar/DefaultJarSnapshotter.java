@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.tasks.compile.incremental.jar;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
@@ -22,6 +23,7 @@ import org.gradle.api.internal.hash.Hasher;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassFilesAnalyzer;
 import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.operations.BuildOperationProcessor;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,14 +32,20 @@ class DefaultJarSnapshotter {
 
     private final Hasher hasher;
     private final ClassDependenciesAnalyzer analyzer;
+    private final BuildOperationProcessor buildOperationProcessor;
 
     public DefaultJarSnapshotter(Hasher hasher, ClassDependenciesAnalyzer analyzer) {
+        this(hasher, analyzer, null);
+    }
+
+    public DefaultJarSnapshotter(Hasher hasher, ClassDependenciesAnalyzer analyzer, @Nullable BuildOperationProcessor buildOperationProcessor) {
         this.hasher = hasher;
         this.analyzer = analyzer;
+        this.buildOperationProcessor = buildOperationProcessor;
     }
 
     public JarSnapshot createSnapshot(HashValue hash, JarArchive jarArchive) {
-        return createSnapshot(hash, jarArchive.contents, new ClassFilesAnalyzer(analyzer));
+        return createSnapshot(hash, jarArchive.contents, new ClassFilesAnalyzer(analyzer, buildOperationProcessor));
     }
 
     JarSnapshot createSnapshot(HashValue hash, FileTree classes, final ClassFilesAnalyzer analyzer) {
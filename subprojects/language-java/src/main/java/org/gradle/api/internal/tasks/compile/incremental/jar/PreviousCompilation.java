@@ -16,10 +16,12 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.jar;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysis;
 import org.gradle.api.internal.tasks.compile.incremental.deps.DependentsSet;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,4 +53,20 @@ public class PreviousCompilation {
     public DependentsSet getDependents(String className) {
         return analysis.getRelevantDependents(className);
     }
+
+    public Set<String> getGeneratedTypes(Collection<String> originatingTypes) {
+        return analysis.getGeneratedTypes(originatingTypes);
+    }
+
+    public Set<String> getOriginatingTypes(Collection<String> generatedTypes) {
+        return analysis.getOriginatingTypes(generatedTypes);
+    }
+
+    /**
+     * Returns why the types generated by annotation processors in this compilation cannot be used to recompile selectively, or null when they can.
+     */
+    @Nullable
+    public String getGeneratedTypesUntrackedCause() {
+        return analysis.getData().getGeneratedTypesUntrackedCause();
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing;
+
+import org.gradle.api.Nullable;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The types generated by annotation processors during a compilation, with the types each was generated from. Also records why the generated
+ * files cannot be used to recompile selectively, when a processor did not follow the isolating contract.
+ */
+public class AnnotationProcessingResult {
+    private final Map<String, Set<String>> generatedTypeOrigins = new HashMap<String, Set<String>>();
+    private String fullRebuildCause;
+
+    public synchronized void addGeneratedType(String generatedType, Collection<String> originatingTypes) {
+        Set<String> origins = generatedTypeOrigins.get(generatedType);
+        if (origins == null) {
+            origins = new LinkedHashSet<String>();
+            generatedTypeOrigins.put(generatedType, origins);
+        }
+        origins.addAll(originatingTypes);
+    }
+
+    public Map<String, Set<String>> getGeneratedTypeOrigins() {
+        return generatedTypeOrigins;
+    }
+
+    /**
+     * Records why the next compilation must recompile all sources. Only the first cause is kept.
+     */
+    public synchronized void setFullRebuildCause(String fullRebuildCause) {
+        if (this.fullRebuildCause == null) {
+            this.fullRebuildCause = fullRebuildCause;
+        }
+    }
+
+    @Nullable
+    public String getFullRebuildCause() {
+        return fullRebuildCause;
+    }
+
+    public void write(File file) {
+        try {
+            KryoBackedEncoder encoder = new KryoBackedEncoder(new FileOutputStream(file));
+            try {
+                encoder.writeNullableString(fullRebuildCause);
+                write(encoder, generatedTypeOrigins);
+            } finally {
+                encoder.close();
+            }
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            throw new UncheckedIOException(String.format("Could not write annotation processing result to %s.", file), e);
+        }
+    }
+
+    /**
+     * Reads the result written to the given file, or returns null when there is none.
+     */
+    public static AnnotationProcessingResult read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(new FileInputStream(file));
+            try {
+                AnnotationProcessingResult result = new AnnotationProcessingResult();
+                result.fullRebuildCause = decoder.readNullableString();
+                result.generatedTypeOrigins.putAll(read(decoder));
+                return result;
+            } finally {
+                decoder.close();
+            }
+        } catch (Exception e) {
+            throw new UncheckedIOException(String.format("Could not read annotation processing result from %s.", file), e);
+        }
+    }
+
+    public static void write(Encoder encoder, Map<String, Set<String>> generatedTypeOrigins) throws Exception {
+        encoder.writeSmallInt(generatedTypeOrigins.size());
+        for (Map.Entry<String, Set<String>> entry : generatedTypeOrigins.entrySet()) {
+            encoder.writeString(entry.getKey());
+            encoder.writeSmallInt(entry.getValue().size());
+            for (String origin : entry.getValue()) {
+                encoder.writeString(origin);
+            }
+        }
+    }
+
+    public static Map<String, Set<String>> read(Decoder decoder) throws Exception {
+        int count = decoder.readSmallInt();
+        Map<String, Set<String>> generatedTypeOrigins = new HashMap<String, Set<String>>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String generatedType = decoder.readString();
+            int originCount = decoder.readSmallInt();
+            Set<String> origins = new LinkedHashSet<String>(originCount * 2);
+            for (int j = 0; j < originCount; j++) {
+                origins.add(decoder.readString());
+            }
+            generatedTypeOrigins.put(generatedType, origins);
+        }
+        return generatedTypeOrigins;
+    }
+}
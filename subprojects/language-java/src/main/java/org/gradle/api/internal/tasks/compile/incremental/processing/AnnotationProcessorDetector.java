@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing;
+
+import com.google.common.base.Splitter;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.gradle.internal.FileUtils.hasExtension;
+
+/**
+ * Finds the annotation processors that javac will run for a compilation, and how each of them declared it takes part in incremental
+ * compilation. A processor declares itself by listing its class name and type in the {@value #INCREMENTAL_PROCESSORS_RESOURCE} resource,
+ * one {@code <class name>,<isolating|aggregating>} entry per line.
+ */
+public class AnnotationProcessorDetector {
+    public static final String PROCESSORS_SERVICE_RESOURCE = "META-INF/services/javax.annotation.processing.Processor";
+    public static final String INCREMENTAL_PROCESSORS_RESOURCE = "META-INF/gradle/incremental.annotation.processors";
+
+    public List<AnnotationProcessorDeclaration> detectProcessors(JavaCompileSpec spec) {
+        List<String> compilerArgs = spec.getCompileOptions().getCompilerArgs();
+        if (compilerArgs.contains("-proc:none")) {
+            return Collections.emptyList();
+        }
+
+        Set<String> processorNames = new LinkedHashSet<String>();
+        Map<String, IncrementalAnnotationProcessorType> declaredTypes = new TreeMap<String, IncrementalAnnotationProcessorType>();
+        for (File file : getProcessorPath(spec)) {
+            if (file.isDirectory()) {
+                readDirectory(file, processorNames, declaredTypes);
+            } else if (file.isFile() && hasExtension(file, ".jar")) {
+                readJar(file, processorNames, declaredTypes);
+            }
+        }
+
+        String explicitProcessors = getArgumentValue(compilerArgs, "-processor");
+        if (explicitProcessors != null) {
+            processorNames.clear();
+            for (String processorName : Splitter.on(',').trimResults().omitEmptyStrings().split(explicitProcessors)) {
+                processorNames.add(processorName);
+            }
+        }
+
+        List<AnnotationProcessorDeclaration> processors = new ArrayList<AnnotationProcessorDeclaration>(processorNames.size());
+        for (String processorName : processorNames) {
+            IncrementalAnnotationProcessorType type = declaredTypes.get(processorName);
+            processors.add(new AnnotationProcessorDeclaration(processorName, type == null ? IncrementalAnnotationProcessorType.UNKNOWN : type));
+        }
+        return processors;
+    }
+
+    /**
+     * Returns the path javac loads annotation processors from: the processor path when one is given, otherwise the compile classpath.
+     */
+    private static List<File> getProcessorPath(JavaCompileSpec spec) {
+        List<File> files = new ArrayList<File>();
+        String processorPath = getArgumentValue(spec.getCompileOptions().getCompilerArgs(), "-processorpath");
+        if (processorPath != null) {
+            for (String path : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(processorPath)) {
+                files.add(new File(path));
+            }
+        } else if (spec.getClasspath() != null) {
+            for (File file : spec.getClasspath()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static String getArgumentValue(List<String> args, String name) {
+        int index = args.lastIndexOf(name);
+        if (index < 0 || index == args.size() - 1) {
+            return null;
+        }
+        return args.get(index + 1);
+    }
+
+    private void readDirectory(File dir, Set<String> processorNames, Map<String, IncrementalAnnotationProcessorType> declaredTypes) {
+        try {
+            File services = new File(dir, PROCESSORS_SERVICE_RESOURCE);
+            if (services.isFile()) {
+                readProcessorNames(new FileInputStream(services), processorNames);
+            }
+            File declarations = new File(dir, INCREMENTAL_PROCESSORS_RESOURCE);
+            if (declarations.isFile()) {
+                readDeclarations(new FileInputStream(declarations), declaredTypes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not read annotation processor declarations from %s.", dir), e);
+        }
+    }
+
+    private void readJar(File jar, Set<String> processorNames, Map<String, IncrementalAnnotationProcessorType> declaredTypes) {
+        try {
+            ZipFile zipFile = new ZipFile(jar);
+            try {
+                ZipEntry services = zipFile.getEntry(PROCESSORS_SERVICE_RESOURCE);
+                if (services != null) {
+                    readProcessorNames(zipFile.getInputStream(services), processorNames);
+                }
+                ZipEntry declarations = zipFile.getEntry(INCREMENTAL_PROCESSORS_RESOURCE);
+                if (declarations != null) {
+                    readDeclarations(zipFile.getInputStream(declarations), declaredTypes);
+                }
+            } finally {
+                zipFile.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not read annotation processor declarations from %s.", jar), e);
+        }
+    }
+
+    private void readProcessorNames(InputStream inputStream, Set<String> processorNames) throws IOException {
+        for (String line : readLines(inputStream)) {
+            processorNames.add(line);
+        }
+    }
+
+    private void readDeclarations(InputStream inputStream, Map<String, IncrementalAnnotationProcessorType> declaredTypes) throws IOException {
+        for (String line : readLines(inputStream)) {
+            List<String> parts = Splitter.on(',').trimResults().splitToList(line);
+            if (parts.size() != 2) {
+                continue;
+            }
+            IncrementalAnnotationProcessorType type;
+            try {
+                type = IncrementalAnnotationProcessorType.valueOf(parts.get(1).toUpperCase(Locale.US));
+            } catch (IllegalArgumentException e) {
+                type = IncrementalAnnotationProcessorType.UNKNOWN;
+            }
+            declaredTypes.put(parts.get(0), type);
+        }
+    }
+
+    /**
+     * Reads the non-blank lines of a service file, without comments.
+     */
+    private static List<String> readLines(InputStream inputStream) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if (line.length() > 0) {
+                    lines.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
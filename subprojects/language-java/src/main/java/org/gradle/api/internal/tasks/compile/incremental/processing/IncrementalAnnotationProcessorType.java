@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing;
+
+/**
+ * How an annotation processor declares it can take part in incremental compilation.
+ */
+public enum IncrementalAnnotationProcessorType {
+    /**
+     * Each file the processor generates is derived from a single annotated type, passed as the originating element to the {@link javax.annotation.processing.Filer}.
+     */
+    ISOLATING,
+    /**
+     * The processor may combine several annotated types into the files it generates.
+     */
+    AGGREGATING,
+    /**
+     * The processor has not declared how it generates files.
+     */
+    UNKNOWN
+}
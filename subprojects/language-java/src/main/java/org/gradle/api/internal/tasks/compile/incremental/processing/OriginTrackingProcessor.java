@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorates an isolating annotation processor, recording the originating types of each source and class file it generates. Generating a type
+ * without exactly one originating type, or generating a resource, means that the next compilation must recompile all sources.
+ */
+public class OriginTrackingProcessor implements Processor {
+    private final Processor delegate;
+    private final AnnotationProcessingResult result;
+
+    public OriginTrackingProcessor(Processor delegate, AnnotationProcessingResult result) {
+        this.delegate = delegate;
+        this.result = result;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return delegate.getSupportedOptions();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return delegate.getSupportedSourceVersion();
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+        delegate.init(new TrackingProcessingEnvironment(processingEnv));
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        return delegate.process(annotations, roundEnv);
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+        return delegate.getCompletions(element, annotation, member, userText);
+    }
+
+    /**
+     * Records the types a generated type originates from. An isolating processor must generate each type from exactly one type, otherwise the
+     * generated type cannot be recompiled or removed together with its origin.
+     */
+    private void recordGeneratedType(CharSequence name, Element[] originatingElements) {
+        Set<String> origins = new LinkedHashSet<String>();
+        for (Element element : originatingElements) {
+            TypeElement type = getTopLevelType(element);
+            if (type != null) {
+                origins.add(type.getQualifiedName().toString());
+            }
+        }
+        if (origins.size() != 1) {
+            result.setFullRebuildCause(String.format("annotation processor '%s' generated type '%s' from %d originating types instead of one",
+                delegate.getClass().getName(), name, origins.size()));
+        }
+        result.addGeneratedType(name.toString(), origins);
+    }
+
+    /**
+     * Generated resources are not tracked, so a stale resource would not be removed when its origin changes.
+     */
+    private void recordGeneratedResource(CharSequence pkg, CharSequence relativeName) {
+        String resourceName = pkg.length() == 0 ? relativeName.toString() : pkg.toString().replace('.', '/') + "/" + relativeName;
+        result.setFullRebuildCause(String.format("annotation processor '%s' generated resource '%s'", delegate.getClass().getName(), resourceName));
+    }
+
+    private static TypeElement getTopLevelType(Element element) {
+        TypeElement topLevelType = null;
+        for (Element current = element; current != null; current = current.getEnclosingElement()) {
+            if (current instanceof TypeElement) {
+                topLevelType = (TypeElement) current;
+            }
+        }
+        return topLevelType;
+    }
+
+    private class TrackingProcessingEnvironment implements ProcessingEnvironment {
+        private final ProcessingEnvironment delegate;
+        private final Filer filer;
+
+        TrackingProcessingEnvironment(ProcessingEnvironment delegate) {
+            this.delegate = delegate;
+            this.filer = new TrackingFiler(delegate.getFiler());
+        }
+
+        @Override
+        public Map<String, String> getOptions() {
+            return delegate.getOptions();
+        }
+
+        @Override
+        public Messager getMessager() {
+            return delegate.getMessager();
+        }
+
+        @Override
+        public Filer getFiler() {
+            return filer;
+        }
+
+        @Override
+        public Elements getElementUtils() {
+            return delegate.getElementUtils();
+        }
+
+        @Override
+        public Types getTypeUtils() {
+            return delegate.getTypeUtils();
+        }
+
+        @Override
+        public SourceVersion getSourceVersion() {
+            return delegate.getSourceVersion();
+        }
+
+        @Override
+        public Locale getLocale() {
+            return delegate.getLocale();
+        }
+    }
+
+    private class TrackingFiler implements Filer {
+        private final Filer delegate;
+
+        TrackingFiler(Filer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
+            recordGeneratedType(name, originatingElements);
+            return delegate.createSourceFile(name, originatingElements);
+        }
+
+        @Override
+        public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException {
+            recordGeneratedType(name, originatingElements);
+            return delegate.createClassFile(name, originatingElements);
+        }
+
+        @Override
+        public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException {
+            recordGeneratedResource(pkg, relativeName);
+            return delegate.createResource(location, pkg, relativeName, originatingElements);
+        }
+
+        @Override
+        public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) throws IOException {
+            return delegate.getResource(location, pkg, relativeName);
+        }
+    }
+}
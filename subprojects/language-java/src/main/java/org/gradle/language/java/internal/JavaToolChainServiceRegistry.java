@@ -37,6 +37,7 @@ import javax.tools.JavaCompiler;
 public class JavaToolChainServiceRegistry implements PluginServiceRegistry {
     @Override
     public void registerGlobalServices(ServiceRegistration registration) {
+        registration.addProvider(new GlobalScopeCompileServices());
     }
 
     @Override
@@ -57,14 +58,17 @@ public class JavaToolChainServiceRegistry implements PluginServiceRegistry {
         registration.addProvider(new ProjectScopeCompileServices());
     }
 
+    private static class GlobalScopeCompileServices {
+        // Shared by all builds run by this process, so that the compiler classes are loaded and warmed up once
+        Factory<JavaCompiler> createJavaHomeBasedJavaCompilerFactory() {
+            return new JavaHomeBasedJavaCompilerFactory();
+        }
+    }
+
     private static class BuildSessionScopeCompileServices {
         CompilerDaemonManager createCompilerDaemonManager(WorkerProcessFactory workerFactory, StartParameter startParameter) {
             return new CompilerDaemonManager(new CompilerClientsManager(new CompilerDaemonStarter(workerFactory, startParameter)));
         }
-
-        Factory<JavaCompiler> createJavaHomeBasedJavaCompilerFactory() {
-            return new JavaHomeBasedJavaCompilerFactory();
-        }
     }
 
     private static class ProjectScopeCompileServices {
@@ -78,4 +78,19 @@ class JavaHomeBasedJavaCompilerFactoryTest extends Specification {
         javaCompiler == expectedJavaCompiler
         originalJavaHomeDir == SystemProperties.instance.javaHomeDir
     }
+
+    def "reuses Java compiler once found"() {
+        TestFile javaHome = temporaryFolder.file('my/test/java/home')
+
+        when:
+        def first = factory.create()
+        def second = factory.create()
+
+        then:
+        1 * currentJvmJavaHomeFactory.create() >> javaHome
+        1 * systemPropertiesJavaHomeFactory.create() >> javaHome
+        1 * systemJavaCompilerFactory.create() >> javaCompiler
+        first == javaCompiler
+        second == javaCompiler
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.api.internal.file.collections.SimpleFileCollection
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessingResult
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDetector
+import org.gradle.api.tasks.compile.CompileOptions
+import org.gradle.internal.Factory
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.tools.JavaCompiler
+import javax.tools.ToolProvider
+
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.ISOLATING
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.UNKNOWN
+
+class JdkJavaCompilerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Subject compiler = new JdkJavaCompiler({ ToolProvider.systemJavaCompiler } as Factory<JavaCompiler>)
+    def spec = new DefaultJavaCompileSpec()
+    TestFile processorDir
+    TestFile resultFile
+
+    def setup() {
+        processorDir = tmpDir.file("processor")
+        resultFile = tmpDir.file("annotation-processing.bin")
+        compileProcessor()
+        spec.tempDir = tmpDir.file("tmp")
+        spec.compileOptions = new CompileOptions()
+        spec.destinationDir = tmpDir.file("classes")
+        spec.source = new SimpleFileCollection(
+            tmpDir.file("src/Foo.java") << "@processor.Generate public class Foo {}",
+            tmpDir.file("src/Bar.java") << "public class Bar { FooBuilder builder; }")
+        spec.classpath = [processorDir]
+        spec.annotationProcessingResultFile = resultFile
+    }
+
+    def "records the types generated by isolating annotation processors"() {
+        if (useProcessorPath) {
+            spec.compileOptions.compilerArgs = ["-processorpath", processorDir.path]
+        }
+        spec.effectiveAnnotationProcessors = new AnnotationProcessorDetector().detectProcessors(spec)
+
+        when:
+        compiler.execute(spec)
+
+        then:
+        spec.effectiveAnnotationProcessors*.type == [ISOLATING]
+        spec.destinationDir.file("FooBuilder.class").assertIsFile()
+        spec.destinationDir.file("Bar.class").assertIsFile()
+        AnnotationProcessingResult.read(resultFile).generatedTypeOrigins == ["FooBuilder": ["Foo"] as Set]
+
+        where:
+        useProcessorPath << [false, true]
+    }
+
+    def "does not record the generated types when an annotation processor is not isolating"() {
+        resultFile.createFile()
+        spec.effectiveAnnotationProcessors = [new AnnotationProcessorDeclaration("processor.BuilderProcessor", UNKNOWN)]
+
+        when:
+        compiler.execute(spec)
+
+        then:
+        spec.destinationDir.file("FooBuilder.class").assertIsFile()
+        !resultFile.exists()
+    }
+
+    def "does not record the generated types when the annotation processors were not detected"() {
+        when:
+        compiler.execute(spec)
+
+        then:
+        spec.destinationDir.file("FooBuilder.class").assertIsFile()
+        !resultFile.exists()
+    }
+
+    /**
+     * Compiles an isolating processor that generates a builder for each type annotated with {@code @Generate}.
+     */
+    private void compileProcessor() {
+        TestFile generate = tmpDir.file("processor-src/processor/Generate.java") << """
+            package processor;
+            public @interface Generate {}
+        """
+        TestFile processor = tmpDir.file("processor-src/processor/BuilderProcessor.java") << """
+            package processor;
+
+            import java.io.IOException;
+            import java.io.Writer;
+            import java.util.Set;
+            import javax.annotation.processing.*;
+            import javax.lang.model.SourceVersion;
+            import javax.lang.model.element.*;
+
+            @SupportedAnnotationTypes("processor.Generate")
+            public class BuilderProcessor extends AbstractProcessor {
+                @Override
+                public SourceVersion getSupportedSourceVersion() {
+                    return SourceVersion.latestSupported();
+                }
+
+                @Override
+                public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+                    for (Element element : roundEnv.getElementsAnnotatedWith(Generate.class)) {
+                        String name = ((TypeElement) element).getQualifiedName() + "Builder";
+                        try {
+                            Writer writer = processingEnv.getFiler().createSourceFile(name, element).openWriter();
+                            writer.write("public class " + name + " {}");
+                            writer.close();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                    return true;
+                }
+            }
+        """
+        processorDir.createDir()
+        assert ToolProvider.systemJavaCompiler.run(null, null, null, "-proc:none", "-d", processorDir.path, generate.path, processor.path) == 0
+        processorDir.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "processor.BuilderProcessor"
+        processorDir.file(AnnotationProcessorDetector.INCREMENTAL_PROCESSORS_RESOURCE) << "processor.BuilderProcessor,isolating"
+    }
+}
@@ -30,7 +30,7 @@ class IncrementalCompilationFinalizerTest extends Specification {
     def infoUpdater = Mock(ClassSetAnalysisUpdater)
     def compileSpec = Stub(JavaCompileSpec)
 
-    @Subject finalizer = new IncrementalCompilationFinalizer(compiler, writer, infoUpdater)
+    @Subject finalizer = new IncrementalCompilationFinalizer(compiler, writer, infoUpdater, null)
 
     def "performs finalization"() {
         when:
@@ -38,7 +38,7 @@ class IncrementalCompilationFinalizerTest extends Specification {
 
         then:
         1 * compiler.execute(compileSpec) >> Mock(WorkResult)
-        1 * infoUpdater.updateAnalysis(compileSpec)
+        1 * infoUpdater.updateAnalysis(compileSpec, null)
         1 * writer.storeJarSnapshots(_)
         0 * _
     }
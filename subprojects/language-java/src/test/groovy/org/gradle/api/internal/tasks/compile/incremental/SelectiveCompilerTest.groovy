@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental
+
+import org.gradle.api.internal.tasks.compile.DefaultJavaCompileSpec
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysis
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysisData
+import org.gradle.api.internal.tasks.compile.incremental.deps.DependencyToAll
+import org.gradle.api.internal.tasks.compile.incremental.jar.PreviousCompilation
+import org.gradle.api.internal.tasks.compile.incremental.processing.AnnotationProcessorDeclaration
+import org.gradle.api.internal.tasks.compile.incremental.recomp.RecompilationSpec
+import spock.lang.Specification
+
+import static org.gradle.api.internal.tasks.compile.incremental.deps.DefaultDependentsSet.dependents
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.AGGREGATING
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.ISOLATING
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.UNKNOWN
+
+class SelectiveCompilerTest extends Specification {
+
+    def spec = new DefaultJavaCompileSpec()
+    def recompilationSpec = new RecompilationSpec()
+
+    def "does not add generated types when no annotation processors run"() {
+        def compiler = compiler(new ClassSetAnalysisData([:], ["FooBuilder": ["Foo"] as Set]))
+        spec.effectiveAnnotationProcessors = []
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        !recompilationSpec.fullRebuildNeeded
+        recompilationSpec.classNames as List == ["Foo"]
+    }
+
+    def "requires full rebuild when an annotation processor is not isolating"() {
+        def compiler = compiler(new ClassSetAnalysisData([:], [:]))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING), processor("Other", type)]
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        recompilationSpec.fullRebuildCause == cause
+
+        where:
+        type        | cause
+        UNKNOWN     | "annotation processor 'Other' does not support incremental compilation"
+        AGGREGATING | "annotation processor 'Other' aggregates over all sources"
+    }
+
+    def "requires full rebuild when the previous compilation did not record the generated types"() {
+        def compiler = compiler(new ClassSetAnalysisData([:]))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING)]
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        recompilationSpec.fullRebuildCause == "the types generated by annotation processors were not recorded by the previous compilation"
+    }
+
+    def "requires full rebuild when an annotation processor did not follow the isolating contract in the previous compilation"() {
+        def data = new ClassSetAnalysisData([:], ["FooBuilder": ["Foo"] as Set])
+        def compiler = compiler(data.withGeneratedTypesUntracked("annotation processor 'Isolating' generated resource 'foo.txt'"))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING)]
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        recompilationSpec.fullRebuildCause == "annotation processor 'Isolating' generated resource 'foo.txt'"
+    }
+
+    def "recompiles the types generated from stale types and their dependents"() {
+        def compiler = compiler(new ClassSetAnalysisData(["FooBuilder": dependents("UsesBuilder"), "UsesBuilder": dependents()],
+            ["FooBuilder": ["Foo"] as Set, "BarBuilder": ["Bar"] as Set]))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING)]
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        !recompilationSpec.fullRebuildNeeded
+        recompilationSpec.classNames as Set == ["Foo", "FooBuilder", "UsesBuilder"] as Set
+    }
+
+    def "recompiles the types a stale generated type was generated from, and the other types generated from them"() {
+        def compiler = compiler(new ClassSetAnalysisData([:], ["FooBuilder": ["Foo"] as Set, "FooMapper": ["Foo", "Bar"] as Set]))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING)]
+        recompilationSpec.classNames << "FooBuilder"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        !recompilationSpec.fullRebuildNeeded
+        recompilationSpec.classNames as Set == ["FooBuilder", "Foo", "FooMapper", "Bar"] as Set
+    }
+
+    def "requires full rebuild when a type depending on everything is generated from a stale type"() {
+        def compiler = compiler(new ClassSetAnalysisData(["FooBuilder": new DependencyToAll()], ["FooBuilder": ["Foo"] as Set]))
+        spec.effectiveAnnotationProcessors = [processor("Isolating", ISOLATING)]
+        recompilationSpec.classNames << "Foo"
+
+        when:
+        compiler.addGeneratedTypes(spec, recompilationSpec)
+
+        then:
+        recompilationSpec.fullRebuildCause == "a type generated by an annotation processor was changed"
+    }
+
+    private static SelectiveCompiler compiler(ClassSetAnalysisData data) {
+        new SelectiveCompiler(null, new PreviousCompilation(new ClassSetAnalysis(data), null, null), null, null, null, null)
+    }
+
+    private static AnnotationProcessorDeclaration processor(String className, type) {
+        new AnnotationProcessorDeclaration(className, type)
+    }
+}
@@ -22,6 +22,9 @@ import org.gradle.api.file.FileVisitDetails
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysis
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassFilesAnalyzer
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.operations.DefaultBuildOperationProcessor
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
 import spock.lang.Specification
 import spock.lang.Subject
 
@@ -59,4 +62,28 @@ class ClassFilesAnalyzerTest extends Specification {
         1 * accumulator.addClass("org.foo.Foo", true, new HashSet(["A"]))
         0 * _
     }
+
+    def "analyzes class files concurrently and accumulates in visit order"() {
+        def executorFactory = new DefaultExecutorFactory()
+        def processor = new DefaultBuildOperationProcessor(new DefaultBuildOperationQueueFactory(), executorFactory, 4)
+        def accumulator = new ClassDependentsAccumulator("org.foo")
+        def analyzer = new ClassFilesAnalyzer(classAnalyzer, "org.foo", accumulator, processor)
+        def classes = (1..20).collect { "Foo$it".toString() }
+
+        when:
+        classes.each { name ->
+            analyzer.visitFile(Stub(FileVisitDetails) {
+                getPath() >> "org/foo/${name}.class"
+                getFile() >> new File("${name}.class")
+            })
+        }
+        def analysis = analyzer.getAnalysis()
+
+        then:
+        20 * classAnalyzer.getClassAnalysis(_, _) >> { String className, File file -> new ClassAnalysis(new HashSet(["org.foo.Foo1"]), false) }
+        analysis.getDependents("org.foo.Foo1").dependentClasses == (classes - "Foo1").collect { "org.foo.$it".toString() } as Set
+
+        cleanup:
+        executorFactory.stop()
+    }
 }
@@ -47,4 +47,65 @@ class ClassSetAnalysisDataSerializerTest extends Specification {
 
         read.dependents["D"] instanceof DependencyToAll
     }
+
+    def "writes each class name once"() {
+        def data = new ClassSetAnalysisData([
+                "org.foo.A": dependents("org.foo.B", "org.foo.bar.C"),
+                "org.foo.B": dependents("org.foo.bar.C"),
+                "org.foo.bar.C": dependents("org.foo.A"),
+                "org.foo.bar.D": dependents("org.foo.A", "org.foo.B", "org.foo.bar.C")])
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        new String(os.toByteArray(), "UTF-8").count("foo") == 1
+        read.dependents.keySet() == data.dependents.keySet()
+        data.dependents.each { className, dependents ->
+            assert read.dependents[className].dependentClasses == dependents.dependentClasses
+        }
+    }
+
+    def "serializes generated type origins"() {
+        def data = new ClassSetAnalysisData(["A": dependents("B"), "B": dependents()], ["B": ["A"] as Set, "C": ["A", "D"] as Set])
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        read.generatedTypesTracked
+        read.generatedTypeOrigins == data.generatedTypeOrigins
+    }
+
+    def "serializes that generated types were not tracked"() {
+        def data = new ClassSetAnalysisData(["A": dependents("B"), "B": dependents()])
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        !read.generatedTypesTracked
+        read.generatedTypesUntrackedCause == "the types generated by annotation processors were not recorded by the previous compilation"
+        read.generatedTypeOrigins.isEmpty()
+    }
+
+    def "serializes why generated types were not tracked"() {
+        def data = new ClassSetAnalysisData(["A": dependents()], ["B": ["A"] as Set]).withGeneratedTypesUntracked("annotation processor 'P' generated resource 'foo.txt'")
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        !read.generatedTypesTracked
+        read.generatedTypesUntrackedCause == "annotation processor 'P' generated resource 'foo.txt'"
+        read.generatedTypeOrigins.isEmpty()
+    }
 }
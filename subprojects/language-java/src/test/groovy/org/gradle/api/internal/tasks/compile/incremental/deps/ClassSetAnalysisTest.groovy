@@ -176,4 +176,15 @@ class ClassSetAnalysisTest extends Specification {
         a.isDependencyToAll("C")
         !a.isDependencyToAll("Unknown")
     }
+
+    def "finds generated types and their origins"() {
+        def a = new ClassSetAnalysis(new ClassSetAnalysisData([:], ["FooBuilder": ["Foo"] as Set, "FooBarMapper": ["Foo", "Bar"] as Set]))
+
+        expect:
+        a.getGeneratedTypes(["Foo"]) == ["FooBuilder", "FooBarMapper"] as Set
+        a.getGeneratedTypes(["Bar"]) == ["FooBarMapper"] as Set
+        a.getGeneratedTypes(["Baz"]).isEmpty()
+        a.getOriginatingTypes(["FooBarMapper"]) == ["Foo", "Bar"] as Set
+        a.getOriginatingTypes(["Foo"]).isEmpty()
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing
+
+import org.gradle.api.internal.tasks.compile.DefaultJavaCompileSpec
+import org.gradle.api.tasks.compile.CompileOptions
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static org.gradle.api.internal.tasks.compile.incremental.processing.IncrementalAnnotationProcessorType.*
+
+class AnnotationProcessorDetectorTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Subject detector = new AnnotationProcessorDetector()
+    def spec = new DefaultJavaCompileSpec(compileOptions: new CompileOptions())
+
+    def "detects processors and their declared types on the classpath"() {
+        def dir = tmpDir.createDir("dir")
+        dir.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "org.Isolating\n# comment\norg.Aggregating\n"
+        dir.file(AnnotationProcessorDetector.INCREMENTAL_PROCESSORS_RESOURCE) << "org.Isolating,isolating\norg.Aggregating,aggregating\n"
+        def jarContent = tmpDir.createDir("jarContent")
+        jarContent.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "org.Unknown"
+        def jar = jarContent.zipTo(tmpDir.file("processors.jar"))
+        spec.classpath = [dir, jar, tmpDir.file("missing.jar")]
+
+        when:
+        def processors = detector.detectProcessors(spec)
+
+        then:
+        processors*.className == ["org.Isolating", "org.Aggregating", "org.Unknown"]
+        processors*.type == [ISOLATING, AGGREGATING, UNKNOWN]
+    }
+
+    def "uses processor path and explicit processors when given"() {
+        def classpathDir = tmpDir.createDir("classpath")
+        classpathDir.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "org.FromClasspath"
+        def processorDir = tmpDir.createDir("processors")
+        processorDir.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "org.A\norg.B"
+        processorDir.file(AnnotationProcessorDetector.INCREMENTAL_PROCESSORS_RESOURCE) << "org.A,isolating\norg.C,isolating"
+        spec.classpath = [classpathDir]
+        spec.compileOptions.compilerArgs = ["-processorpath", processorDir.absolutePath, "-processor", "org.A,org.C"]
+
+        when:
+        def processors = detector.detectProcessors(spec)
+
+        then:
+        processors*.className == ["org.A", "org.C"]
+        processors*.type == [ISOLATING, ISOLATING]
+    }
+
+    def "detects no processors when annotation processing is disabled"() {
+        def dir = tmpDir.createDir("dir")
+        dir.file(AnnotationProcessorDetector.PROCESSORS_SERVICE_RESOURCE) << "org.Processor"
+        spec.classpath = [dir]
+        spec.compileOptions.compilerArgs = ["-proc:none"]
+
+        expect:
+        detector.detectProcessors(spec).isEmpty()
+    }
+}
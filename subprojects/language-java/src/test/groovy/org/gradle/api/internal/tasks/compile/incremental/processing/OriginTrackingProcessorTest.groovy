@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.processing
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.annotation.processing.Filer
+import javax.annotation.processing.ProcessingEnvironment
+import javax.annotation.processing.Processor
+import javax.lang.model.element.Element
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.Name
+import javax.lang.model.element.PackageElement
+import javax.lang.model.element.TypeElement
+import javax.tools.JavaFileObject
+import javax.tools.StandardLocation
+
+class OriginTrackingProcessorTest extends Specification {
+
+    def delegate = Mock(Processor)
+    def filer = Mock(Filer)
+    def processingEnv = Stub(ProcessingEnvironment) {
+        getFiler() >> filer
+    }
+    def result = new AnnotationProcessingResult()
+    @Subject processor = new OriginTrackingProcessor(delegate, result)
+    Filer trackingFiler
+
+    // A mock rather than a stub, so that the package has no enclosing element
+    def pkg = Mock(PackageElement)
+    def foo = type("com.example.Foo", pkg)
+    def fooInner = type("com.example.Foo.Inner", foo)
+    def bar = type("com.example.Bar", pkg)
+
+    def setup() {
+        delegate.init(_) >> { ProcessingEnvironment env -> trackingFiler = env.filer }
+        processor.init(processingEnv)
+    }
+
+    def "records the top level type that a generated source file originates from"() {
+        def method = Stub(ExecutableElement) {
+            getEnclosingElement() >> fooInner
+        }
+        def sourceFile = Stub(JavaFileObject)
+
+        when:
+        def created = trackingFiler.createSourceFile("com.example.FooBuilder", method, pkg)
+
+        then:
+        1 * filer.createSourceFile("com.example.FooBuilder", method, pkg) >> sourceFile
+        created == sourceFile
+        result.generatedTypeOrigins == ["com.example.FooBuilder": ["com.example.Foo"] as Set]
+        result.fullRebuildCause == null
+    }
+
+    def "records the types that a generated class file originates from"() {
+        when:
+        trackingFiler.createClassFile("com.example.FooHelper", foo)
+        trackingFiler.createClassFile("com.example.FooHelper", bar)
+
+        then:
+        result.generatedTypeOrigins == ["com.example.FooHelper": ["com.example.Foo", "com.example.Bar"] as Set]
+        result.fullRebuildCause == null
+    }
+
+    def "requires a full rebuild when a type is generated from multiple originating types"() {
+        when:
+        trackingFiler.createSourceFile("com.example.FooBuilder", foo, fooInner, bar)
+
+        then:
+        result.generatedTypeOrigins == ["com.example.FooBuilder": ["com.example.Foo", "com.example.Bar"] as Set]
+        result.fullRebuildCause.endsWith("generated type 'com.example.FooBuilder' from 2 originating types instead of one")
+    }
+
+    def "requires a full rebuild when a type is generated without origins"() {
+        when:
+        trackingFiler.createSourceFile("com.example.Unrelated")
+        trackingFiler.createSourceFile("com.example.Other")
+
+        then:
+        result.generatedTypeOrigins == ["com.example.Unrelated": [] as Set, "com.example.Other": [] as Set]
+        result.fullRebuildCause.endsWith("generated type 'com.example.Unrelated' from 0 originating types instead of one")
+    }
+
+    def "requires a full rebuild when a resource is generated"() {
+        when:
+        trackingFiler.createResource(StandardLocation.CLASS_OUTPUT, "com.example", "foo.txt", foo)
+
+        then:
+        1 * filer.createResource(StandardLocation.CLASS_OUTPUT, "com.example", "foo.txt", foo)
+        result.generatedTypeOrigins.isEmpty()
+        result.fullRebuildCause.endsWith("generated resource 'com/example/foo.txt'")
+    }
+
+    def "delegates processing to the decorated processor"() {
+        def annotations = [foo] as Set
+
+        when:
+        def claimed = processor.process(annotations, null)
+
+        then:
+        1 * delegate.process(annotations, null) >> true
+        claimed
+    }
+
+    private TypeElement type(String qualifiedName, Element enclosingElement) {
+        def name = Stub(Name) {
+            toString() >> qualifiedName
+        }
+        return Stub(TypeElement) {
+            getQualifiedName() >> name
+            getEnclosingElement() >> enclosingElement
+        }
+    }
+}
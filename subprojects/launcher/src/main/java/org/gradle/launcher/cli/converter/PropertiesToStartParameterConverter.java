@@ -32,6 +32,14 @@ public class PropertiesToStartParameterConverter {
             startParameter.setParallelProjectExecutionEnabled(true);
         }
 
+        String parallelConfiguration = properties.get(GradleProperties.PARALLEL_CONFIGURATION_PROPERTY);
+        if (isTrue(parallelConfiguration)) {
+            startParameter.setParallelConfigurationEnabled(true);
+        } else if (parallelConfiguration != null && parallelConfiguration.trim().equalsIgnoreCase("strict")) {
+            startParameter.setParallelConfigurationEnabled(true);
+            startParameter.setStrictParallelConfiguration(true);
+        }
+
         String workers = properties.get(GradleProperties.WORKERS_PROPERTY);
         if (workers != null) {
             try {
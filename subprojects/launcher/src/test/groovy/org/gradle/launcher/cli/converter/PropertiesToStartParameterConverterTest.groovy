@@ -32,6 +32,11 @@ class PropertiesToStartParameterConverterTest extends Specification {
         converter.convert([(PARALLEL_PROPERTY): "false"], new StartParameter()).parallelThreadCount == 0
         converter.convert([(CONFIGURE_ON_DEMAND_PROPERTY): "TRUE"], new StartParameter()).configureOnDemand
         !converter.convert([(CONFIGURE_ON_DEMAND_PROPERTY): "xxx"], new StartParameter()).configureOnDemand
+        converter.convert([(PARALLEL_CONFIGURATION_PROPERTY): "true"], new StartParameter()).parallelConfigurationEnabled
+        !converter.convert([(PARALLEL_CONFIGURATION_PROPERTY): "true"], new StartParameter()).strictParallelConfiguration
+        converter.convert([(PARALLEL_CONFIGURATION_PROPERTY): "strict"], new StartParameter()).parallelConfigurationEnabled
+        converter.convert([(PARALLEL_CONFIGURATION_PROPERTY): "strict"], new StartParameter()).strictParallelConfiguration
+        !converter.convert([(PARALLEL_CONFIGURATION_PROPERTY): "false"], new StartParameter()).parallelConfigurationEnabled
     }
 
     def invalidMaxWorkersProperty() {
@@ -341,6 +341,10 @@ public class NodeBackedModelMap<T> extends ModelMapGroovyView<T> implements Mana
         if (!elementFilter.apply(link)) {
             return null;
         }
+        return getElement(link);
+    }
+
+    private T getElement(MutableModelNode link) {
         if (viewState.isCanMutate()) {
             return link.asMutable(elementType, sourceDescriptor).getInstance();
         } else {
@@ -348,6 +352,15 @@ public class NodeBackedModelMap<T> extends ModelMapGroovyView<T> implements Mana
         }
     }
 
+    /**
+     * Returns the links of this map's node that match the element filter. The filter is applied once to each link, rather than once to list the names of the
+     * elements and again to locate each element by name.
+     */
+    private List<MutableModelNode> getMatchingLinks() {
+        viewState.assertCanReadChildren();
+        return ImmutableList.<MutableModelNode>copyOf(modelNode.getLinks(elementFilter));
+    }
+
     @Override
     public boolean isEmpty() {
         return size() == 0;
@@ -399,21 +412,22 @@ public class NodeBackedModelMap<T> extends ModelMapGroovyView<T> implements Mana
 
     @Override
     public Collection<T> values() {
-        Iterable<T> values = Iterables.transform(keySet(), new Function<String, T>() {
-            public T apply(@Nullable String name) {
-                return get(name);
-            }
-        });
-        return Lists.newArrayList(values);
+        List<MutableModelNode> links = getMatchingLinks();
+        List<T> values = Lists.newArrayListWithCapacity(links.size());
+        for (MutableModelNode link : links) {
+            link.ensureUsable();
+            values.add(getElement(link));
+        }
+        return values;
     }
 
     @Override
     public Iterator<T> iterator() {
-        viewState.assertCanReadChildren();
-        return Iterators.transform(keySet().iterator(), new Function<String, T>() {
+        return Iterators.transform(getMatchingLinks().iterator(), new Function<MutableModelNode, T>() {
             @Override
-            public T apply(@Nullable String name) {
-                return get(name);
+            public T apply(MutableModelNode link) {
+                link.ensureUsable();
+                return getElement(link);
             }
         });
     }
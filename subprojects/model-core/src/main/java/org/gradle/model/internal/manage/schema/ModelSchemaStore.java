@@ -29,5 +29,5 @@ public interface ModelSchemaStore {
     /**
      * Remove any cached information for types that have been GC'd.
      */
-    void cleanUp(); // TODO hook this in to the (daemon) build lifecycle
+    void cleanUp();
 }
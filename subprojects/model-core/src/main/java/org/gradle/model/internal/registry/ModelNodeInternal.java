@@ -18,6 +18,7 @@ package org.gradle.model.internal.registry;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.gradle.api.Nullable;
 import org.gradle.model.RuleSource;
@@ -28,6 +29,7 @@ import org.gradle.model.internal.type.ModelType;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.gradle.model.internal.core.ModelNode.State.Discovered;
@@ -45,6 +47,9 @@ abstract class ModelNodeInternal implements MutableModelNode {
     private List<ModelRuleDescriptor> executedRules;
     private List<RuleBinder> registrationActionBinders;
     private List<ModelProjection> projections;
+    // The projections of a node do not change once it has been discovered, so the projection and the types it can be viewed as are calculated once from then on
+    private ModelProjection projection;
+    private Map<ModelType<?>, Boolean> viewableTypes;
 
     public ModelNodeInternal(ModelRegistryInternal modelRegistry, ModelRegistration registration) {
         this.modelRegistry = modelRegistry;
@@ -135,7 +140,20 @@ abstract class ModelNodeInternal implements MutableModelNode {
 
     @Override
     public boolean canBeViewedAs(ModelType<?> type) {
-        return getPromise().canBeViewedAs(type);
+        ModelPromise promise = getPromise();
+        if (!isAtLeast(Discovered)) {
+            // Only remember the answer once the projections of this node can no longer change
+            return promise.canBeViewedAs(type);
+        }
+        if (viewableTypes == null) {
+            viewableTypes = Maps.newHashMap();
+        }
+        Boolean viewable = viewableTypes.get(type);
+        if (viewable == null) {
+            viewable = promise.canBeViewedAs(type);
+            viewableTypes.put(type, viewable);
+        }
+        return viewable;
     }
 
     @Override
@@ -144,10 +162,14 @@ abstract class ModelNodeInternal implements MutableModelNode {
     }
 
     private ModelProjection toProjection() {
-        if (projections == null) {
-            return EmptyModelProjection.INSTANCE;
+        if (projection != null) {
+            return projection;
+        }
+        ModelProjection result = projections == null ? EmptyModelProjection.INSTANCE : new ChainingModelProjection(projections);
+        if (isAtLeast(Discovered)) {
+            projection = result;
         }
-        return new ChainingModelProjection(projections);
+        return result;
     }
 
     public ModelPromise getPromise() {
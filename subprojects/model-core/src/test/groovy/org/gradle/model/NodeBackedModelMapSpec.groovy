@@ -212,6 +212,41 @@ abstract class NodeBackedModelMapSpec<T extends Named, S extends T & Special> ex
         }
     }
 
+    def "can query filtered collection values"() {
+        when:
+        mutateWithoutDelegation() {
+            it.create("c", specialItemClass)
+            it.create("b")
+            it.create("a", specialItemClass)
+        }
+
+        then:
+        with(realizeAsModelMap()) {
+            assert values()*.name == ["a", "b", "c"]
+            assert withType(specialItemClass).values()*.name == ["a", "c"]
+            assert withType(Special).values()*.name == ["a", "c"]
+            assert withType(specialItemClass).values().every { specialItemClass.isInstance(it) }
+            assert withType(String).values().isEmpty()
+        }
+    }
+
+    def "can iterate over filtered collection"() {
+        when:
+        mutateWithoutDelegation() {
+            it.create("c", specialItemClass)
+            it.create("b")
+            it.create("a", specialItemClass)
+        }
+
+        then:
+        with(realizeAsModelMap()) {
+            assert iterator().collect { it.name } == ["a", "b", "c"]
+            assert withType(specialItemClass).iterator().collect { it.name } == ["a", "c"]
+            assert withType(itemClass).withType(Special).iterator().collect { it.name } == ["a", "c"]
+            assert !withType(String).iterator().hasNext()
+        }
+    }
+
     def "withType() returns same instance when element type is the same"() {
         mutateWithoutDelegation {
             it.create("item", itemClass)
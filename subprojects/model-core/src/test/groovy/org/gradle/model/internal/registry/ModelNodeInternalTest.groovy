@@ -16,10 +16,17 @@
 
 package org.gradle.model.internal.registry
 
+import org.gradle.model.internal.core.ModelPath
 import org.gradle.model.internal.core.ModelRegistration
+import org.gradle.model.internal.core.ModelRegistrations
+import org.gradle.model.internal.core.UnmanagedModelProjection
 import org.gradle.model.internal.core.rule.describe.ModelRuleDescriptor
+import org.gradle.model.internal.type.ModelType
 import spock.lang.Unroll
 
+import static org.gradle.model.internal.core.ModelNode.State.Discovered
+import static org.gradle.model.internal.core.ModelNode.State.Registered
+
 class ModelNodeInternalTest extends RegistrySpec {
     def registration = Mock(ModelRegistration)
 
@@ -63,4 +70,77 @@ class ModelNodeInternalTest extends RegistrySpec {
         AssertionError e = thrown()
         e.message == 'RuleBinder must be in a bound state'
     }
+
+    def "projections added before the node is discovered are visible once discovered"() {
+        def node = new TestNode("foo", String)
+
+        when:
+        node.canBeViewedAs(ModelType.of(String))
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        def projection = node.projection
+        node.addProjection(new UnmanagedModelProjection(ModelType.of(Integer)))
+        node.state = Discovered
+
+        then:
+        !node.projection.is(projection)
+        node.projection.is(node.projection)
+        node.canBeViewedAs(ModelType.of(String))
+        node.canBeViewedAs(ModelType.of(Integer))
+        !node.canBeViewedAs(ModelType.of(Long))
+        node.promise.canBeViewedAs(ModelType.of(Integer))
+    }
+
+    def "answers for the types a node can be viewed as are the same before and after they are remembered"() {
+        def node = new TestNode("foo", Integer)
+        node.state = Discovered
+
+        expect:
+        node.canBeViewedAs(ModelType.of(Number)) == node.canBeViewedAs(ModelType.of(Number))
+        node.canBeViewedAs(ModelType.of(Number))
+        !node.canBeViewedAs(ModelType.of(String))
+        !node.canBeViewedAs(ModelType.of(String))
+    }
+
+    def "reference node uses the types of the current target while registered"() {
+        def stringNode = new TestNode("string", String)
+        stringNode.state = Discovered
+        def integerNode = new TestNode("integer", Integer)
+        integerNode.state = Discovered
+        def reference = new ModelReferenceNode(Stub(ModelRegistryInternal), ModelRegistrations.of(ModelPath.path("ref")).descriptor("test").build(), null)
+
+        when:
+        reference.setTarget(stringNode)
+
+        then:
+        reference.state == Registered
+        reference.canBeViewedAs(ModelType.of(String))
+        !reference.canBeViewedAs(ModelType.of(Integer))
+
+        when:
+        reference.setTarget(integerNode)
+
+        then:
+        reference.canBeViewedAs(ModelType.of(Integer))
+        !reference.canBeViewedAs(ModelType.of(String))
+        reference.promise.canBeViewedAs(ModelType.of(Integer))
+
+        when:
+        reference.setTarget(null)
+        reference.addProjection(new UnmanagedModelProjection(ModelType.of(Long)))
+        reference.state = Discovered
+
+        then:
+        reference.canBeViewedAs(ModelType.of(Long))
+        !reference.canBeViewedAs(ModelType.of(Integer))
+
+        when:
+        reference.setTarget(stringNode)
+
+        then:
+        thrown(IllegalStateException)
+    }
 }
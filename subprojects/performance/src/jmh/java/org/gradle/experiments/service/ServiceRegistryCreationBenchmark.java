@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.experiments.service;
+
+import org.gradle.internal.service.DefaultServiceRegistry;
+import org.gradle.internal.service.ServiceRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the cost of creating a child service registry and locating its services, as happens for each project of a build.
+ */
+@State(Scope.Benchmark)
+public class ServiceRegistryCreationBenchmark {
+
+    private final ServiceRegistry parent = new ParentServices();
+    private ServiceRegistry registry;
+
+    @Setup(Level.Iteration)
+    public void createRegistry() {
+        registry = new ChildServices(parent);
+        registry.get(Map.class);
+    }
+
+    @Benchmark
+    public void createRegistryAndLocateServices(Blackhole bh) {
+        ServiceRegistry registry = new ChildServices(parent);
+        bh.consume(registry.get(Map.class));
+        bh.consume(registry.get(LinkedList.class));
+    }
+
+    @Benchmark
+    public void locateCreatedService(Blackhole bh) {
+        bh.consume(registry.get(Map.class));
+    }
+
+    private static class ParentServices extends DefaultServiceRegistry {
+        protected List<String> createList() {
+            return new ArrayList<String>();
+        }
+
+        protected StringBuilder createStringBuilder() {
+            return new StringBuilder();
+        }
+    }
+
+    private static class ChildServices extends DefaultServiceRegistry {
+        ChildServices(ServiceRegistry parent) {
+            super(parent);
+        }
+
+        protected List<String> decorateList(List<String> parent) {
+            return new ArrayList<String>(parent);
+        }
+
+        protected Map<String, String> createMap(List<String> list, StringBuilder builder) {
+            return new HashMap<String, String>();
+        }
+
+        protected LinkedList<Object> createLinkedList(Map<String, String> map) {
+            return new LinkedList<Object>();
+        }
+    }
+}
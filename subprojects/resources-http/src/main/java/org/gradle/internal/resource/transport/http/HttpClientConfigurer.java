@@ -27,11 +27,14 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.auth.*;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.SystemDefaultCredentialsProvider;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpCoreContext;
@@ -58,15 +61,55 @@ import java.util.Collections;
 public class HttpClientConfigurer {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientConfigurer.class);
 
+    /**
+     * The system property that controls the number of connections kept open to a single host, as used by the JDK and HttpClient.
+     */
+    static final String MAX_CONNECTIONS_PROPERTY = "http.maxConnections";
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
     private final HttpSettings httpSettings;
 
     public HttpClientConfigurer(HttpSettings httpSettings) {
         this.httpSettings = httpSettings;
     }
 
+    /**
+     * Creates a pool of connections for the client, so that connections and TLS sessions are kept alive and reused between requests.
+     * Allows several concurrent requests to each host.
+     */
+    public PoolingHttpClientConnectionManager createConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", createSslSocketConnectionFactory(httpSettings.getSslContextFactory()))
+            .build()
+        );
+        int maxConnectionsPerRoute = getMaxConnectionsPerRoute();
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(2 * maxConnectionsPerRoute);
+        // Check that a pooled connection has not been closed by the server before reusing it
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+        return connectionManager;
+    }
+
+    private int getMaxConnectionsPerRoute() {
+        String maxConnections = System.getProperty(MAX_CONNECTIONS_PROPERTY);
+        if (maxConnections != null) {
+            try {
+                int value = Integer.parseInt(maxConnections);
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to the default
+            }
+            LOGGER.warn("Invalid value for system property '{}': '{}'. Using {} instead.", MAX_CONNECTIONS_PROPERTY, maxConnections, DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        }
+        return DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    }
+
     public void configure(HttpClientBuilder builder) {
         SystemDefaultCredentialsProvider credentialsProvider = new SystemDefaultCredentialsProvider();
-        configureSslSocketConnectionFactory(builder, httpSettings.getSslContextFactory());
         configureAuthSchemeRegistry(builder);
         configureCredentials(builder, credentialsProvider, httpSettings.getAuthenticationSettings());
         configureProxy(builder, credentialsProvider, httpSettings);
@@ -74,8 +117,8 @@ public class HttpClientConfigurer {
         builder.setDefaultCredentialsProvider(credentialsProvider);
     }
 
-    private void configureSslSocketConnectionFactory(HttpClientBuilder builder, SslContextFactory sslContextFactory) {
-        builder.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContextFactory.createSslContext(), new DefaultHostnameVerifier(null)));
+    private SSLConnectionSocketFactory createSslSocketConnectionFactory(SslContextFactory sslContextFactory) {
+        return new SSLConnectionSocketFactory(sslContextFactory.createSslContext(), new DefaultHostnameVerifier(null));
     }
 
     private void configureAuthSchemeRegistry(HttpClientBuilder builder) {
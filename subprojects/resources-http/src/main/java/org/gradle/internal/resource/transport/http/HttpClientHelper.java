@@ -23,6 +23,8 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.util.EntityUtils;
 import org.gradle.api.UncheckedIOException;
@@ -39,6 +41,7 @@ public class HttpClientHelper implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientHelper.class);
     private CloseableHttpClient client;
+    private PoolingHttpClientConnectionManager connectionManager;
     private final BasicHttpContext httpContext = new BasicHttpContext();
     private final HttpSettings settings;
 
@@ -120,15 +123,26 @@ public class HttpClientHelper implements Closeable {
         if (client == null) {
             HttpClientBuilder builder = HttpClientBuilder.create();
             builder.setRedirectStrategy(new AlwaysRedirectRedirectStrategy());
-            new HttpClientConfigurer(settings).configure(builder);
+            HttpClientConfigurer configurer = new HttpClientConfigurer(settings);
+            this.connectionManager = configurer.createConnectionManager();
+            builder.setConnectionManager(connectionManager);
+            configurer.configure(builder);
             this.client = builder.build();
         }
         return client;
     }
 
+    /**
+     * Returns the current statistics of the connection pool used by this client, or null if no request has been made yet.
+     */
+    public synchronized PoolStats getConnectionPoolStats() {
+        return connectionManager == null ? null : connectionManager.getTotalStats();
+    }
+
     @Override
     public synchronized void close() throws IOException {
         if (client != null) {
+            LOGGER.debug("Closing HTTP client. Connection pool: {}", connectionManager.getTotalStats());
             client.close();
         }
     }
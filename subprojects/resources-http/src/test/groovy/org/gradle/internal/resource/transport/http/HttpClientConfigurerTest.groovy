@@ -21,9 +21,12 @@ import org.apache.http.ssl.SSLContexts
 import org.gradle.api.artifacts.repositories.PasswordCredentials
 import org.gradle.internal.authentication.AllSchemesAuthentication
 import org.gradle.internal.resource.UriTextResource
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 
 public class HttpClientConfigurerTest extends Specification {
+    @Rule SetSystemProperties sysProp = new SetSystemProperties()
     HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
     PasswordCredentials credentials = Mock()
     AllSchemesAuthentication authentication = Mock() {
@@ -110,4 +113,42 @@ public class HttpClientConfigurerTest extends Specification {
         then:
         httpClientBuilder.userAgent == UriTextResource.userAgentString
     }
+
+    def "creates connection pool that allows concurrent requests to a host"() {
+        httpSettings.sslContextFactory >> sslContextFactory
+
+        when:
+        def connectionManager = configurer.createConnectionManager()
+
+        then:
+        connectionManager.defaultMaxPerRoute == HttpClientConfigurer.DEFAULT_MAX_CONNECTIONS_PER_ROUTE
+        connectionManager.maxTotal == 2 * HttpClientConfigurer.DEFAULT_MAX_CONNECTIONS_PER_ROUTE
+        connectionManager.validateAfterInactivity == HttpClientConfigurer.VALIDATE_AFTER_INACTIVITY_MILLIS
+    }
+
+    def "connection pool size can be configured using system property"() {
+        httpSettings.sslContextFactory >> sslContextFactory
+        System.setProperty(HttpClientConfigurer.MAX_CONNECTIONS_PROPERTY, "5")
+
+        when:
+        def connectionManager = configurer.createConnectionManager()
+
+        then:
+        connectionManager.defaultMaxPerRoute == 5
+        connectionManager.maxTotal == 10
+    }
+
+    def "uses default connection pool size when system property is invalid"() {
+        httpSettings.sslContextFactory >> sslContextFactory
+        System.setProperty(HttpClientConfigurer.MAX_CONNECTIONS_PROPERTY, value)
+
+        when:
+        def connectionManager = configurer.createConnectionManager()
+
+        then:
+        connectionManager.defaultMaxPerRoute == HttpClientConfigurer.DEFAULT_MAX_CONNECTIONS_PER_ROUTE
+
+        where:
+        value << ["0", "-1", "not-a-number"]
+    }
 }
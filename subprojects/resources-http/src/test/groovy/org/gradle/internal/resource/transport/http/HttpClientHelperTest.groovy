@@ -16,10 +16,14 @@
 
 package org.gradle.internal.resource.transport.http
 
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpHandler
+import com.sun.net.httpserver.HttpServer
 import org.apache.http.HttpResponse
 import org.apache.http.client.methods.HttpGet
 import org.apache.http.client.methods.HttpRequestBase
 import org.apache.http.ssl.SSLContexts
+import org.apache.http.util.EntityUtils
 import org.gradle.util.SetSystemProperties
 import org.junit.Rule
 import spock.lang.Specification
@@ -43,6 +47,45 @@ class HttpClientHelperTest extends Specification {
         e.cause.message == "ouch"
     }
 
+    def "has no connection pool statistics before a request is made"() {
+        def client = new HttpClientHelper(httpSettings)
+
+        expect:
+        client.connectionPoolStats == null
+
+        cleanup:
+        client.close()
+    }
+
+    def "reuses a kept alive connection for requests to the same server"() {
+        def clientPorts = Collections.synchronizedSet(new HashSet<Integer>())
+        def server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        server.createContext("/", { HttpExchange exchange ->
+            clientPorts << exchange.remoteAddress.port
+            def content = "content".bytes
+            exchange.sendResponseHeaders(200, content.length)
+            exchange.responseBody.write(content)
+            exchange.close()
+        } as HttpHandler)
+        server.start()
+        def client = new HttpClientHelper(httpSettings)
+
+        when:
+        3.times {
+            def response = client.performGet("http://localhost:${server.address.port}/file${it}")
+            EntityUtils.consume(response.entity)
+        }
+
+        then:
+        clientPorts.size() == 1
+        client.connectionPoolStats.available == 1
+        client.connectionPoolStats.leased == 0
+
+        cleanup:
+        client?.close()
+        server?.stop(0)
+    }
+
     private HttpSettings getHttpSettings() {
         return Stub(HttpSettings) {
             getProxySettings() >> Mock(HttpProxySettings)
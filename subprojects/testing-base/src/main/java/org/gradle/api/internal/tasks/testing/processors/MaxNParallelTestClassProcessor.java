@@ -16,37 +16,62 @@
 
 package org.gradle.api.internal.tasks.testing.processors;
 
-import org.gradle.internal.Factory;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
-import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.Factory;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.actor.Actor;
 import org.gradle.internal.actor.ActorFactory;
+import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.dispatch.DispatchException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Manages a set of parallel TestClassProcessors. Uses a simple round-robin algorithm to assign test classes to
- * processors.
+ * Manages a set of parallel TestClassProcessors. Each test class is assigned to the processor with the least outstanding
+ * work, where the work for a test class is estimated from its duration in a previous run. Work is considered complete
+ * once the processor reports the test class as completed.
  */
 public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     private final int maxProcessors;
     private final Factory<TestClassProcessor> factory;
     private final ActorFactory actorFactory;
+    private final Map<String, Long> previousDurations;
+    private final long defaultDuration;
     private TestResultProcessor resultProcessor;
-    private int pos;
-    private List<TestClassProcessor> processors = new ArrayList<TestClassProcessor>();
+    private List<ProcessorLoad> processors = new ArrayList<ProcessorLoad>();
     private List<Actor> actors = new ArrayList<Actor>();
     private Actor resultProcessorActor;
 
     public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory) {
+        this(maxProcessors, factory, actorFactory, Collections.<String, Long>emptyMap());
+    }
+
+    public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory, Map<String, Long> previousDurations) {
         this.maxProcessors = maxProcessors;
         this.factory = factory;
         this.actorFactory = actorFactory;
+        this.previousDurations = previousDurations;
+        this.defaultDuration = averageOf(previousDurations.values());
+    }
+
+    private static long averageOf(Iterable<Long> durations) {
+        long total = 0;
+        int count = 0;
+        for (Long duration : durations) {
+            total += duration;
+            count++;
+        }
+        return count == 0 ? 1 : Math.max(1, total / count);
     }
 
     @Override
@@ -57,27 +82,115 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
 
     @Override
     public void processTestClass(TestClassRunInfo testClass) {
-        TestClassProcessor processor;
+        ProcessorLoad load;
         if (processors.size() < maxProcessors) {
-            processor = factory.create();
+            TestClassProcessor processor = factory.create();
             Actor actor = actorFactory.createActor(processor);
-            processor = actor.getProxy(TestClassProcessor.class);
+            load = new ProcessorLoad(actor.getProxy(TestClassProcessor.class), resultProcessor);
             actors.add(actor);
-            processors.add(processor);
-            processor.startProcessing(resultProcessor);
+            processors.add(load);
+            load.processor.startProcessing(load);
         } else {
-            processor = processors.get(pos);
-            pos = (pos + 1) % processors.size();
+            load = leastLoaded();
+        }
+        load.assigned(testClass.getTestClassName(), estimatedDuration(testClass.getTestClassName()));
+        load.processor.processTestClass(testClass);
+    }
+
+    private long estimatedDuration(String className) {
+        Long duration = previousDurations.get(className);
+        return duration == null ? defaultDuration : Math.max(1, duration);
+    }
+
+    private ProcessorLoad leastLoaded() {
+        ProcessorLoad result = null;
+        long resultWork = Long.MAX_VALUE;
+        for (ProcessorLoad load : processors) {
+            long work = load.getOutstandingWork();
+            if (work < resultWork) {
+                result = load;
+                resultWork = work;
+            }
         }
-        processor.processTestClass(testClass);
+        return result;
     }
 
     @Override
     public void stop() {
+        List<TestClassProcessor> stoppable = new ArrayList<TestClassProcessor>(processors.size());
+        for (ProcessorLoad load : processors) {
+            stoppable.add(load.processor);
+        }
         try {
-            CompositeStoppable.stoppable(processors).add(actors).add(resultProcessorActor).stop();
+            CompositeStoppable.stoppable(stoppable).add(actors).add(resultProcessorActor).stop();
         } catch (DispatchException e) {
             throw UncheckedException.throwAsUncheckedException(e.getCause());
         }
     }
+
+    /**
+     * Tracks the work assigned to a single processor, by watching the results it produces. Results are received
+     * from the processor's thread, so all state is guarded by this object.
+     */
+    private static class ProcessorLoad implements TestResultProcessor {
+        private final TestClassProcessor processor;
+        private final TestResultProcessor delegate;
+        private final Map<String, List<Long>> assigned = new HashMap<String, List<Long>>();
+        private final Map<Object, String> running = new HashMap<Object, String>();
+        private long outstandingWork;
+
+        ProcessorLoad(TestClassProcessor processor, TestResultProcessor delegate) {
+            this.processor = processor;
+            this.delegate = delegate;
+        }
+
+        synchronized long getOutstandingWork() {
+            return outstandingWork;
+        }
+
+        synchronized void assigned(String className, long duration) {
+            List<Long> durations = assigned.get(className);
+            if (durations == null) {
+                durations = new ArrayList<Long>(1);
+                assigned.put(className, durations);
+            }
+            durations.add(duration);
+            outstandingWork += duration;
+        }
+
+        @Override
+        public void started(TestDescriptorInternal test, TestStartEvent event) {
+            synchronized (this) {
+                if (test.isComposite() && test.getClassName() != null && assigned.containsKey(test.getClassName())) {
+                    running.put(test.getId(), test.getClassName());
+                }
+            }
+            delegate.started(test, event);
+        }
+
+        @Override
+        public void completed(Object testId, TestCompleteEvent event) {
+            synchronized (this) {
+                String className = running.remove(testId);
+                if (className != null) {
+                    List<Long> durations = assigned.get(className);
+                    outstandingWork -= durations.remove(durations.size() - 1);
+                    if (durations.isEmpty()) {
+                        assigned.remove(className);
+                    }
+                }
+            }
+            delegate.completed(testId, event);
+        }
+
+        @Override
+        public void output(Object testId, TestOutputEvent event) {
+            delegate.output(testId, event);
+        }
+
+        @Override
+        public void failure(Object testId, Throwable result) {
+            delegate.failure(testId, result);
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent;
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.TestStartEvent;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.concurrent.Stoppable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces consecutive output events for the same test and destination into a single event, so that a test that writes many lines
+ * does not send a message to the build process per line. Pending output is forwarded when any other event is received, when it grows
+ * beyond a maximum size, or at most {@code throttleMs} after it was first received. This processor is thread-safe.
+ */
+public class OutputCoalescingTestResultProcessor implements TestResultProcessor, Stoppable {
+    private static final int DEFAULT_THROTTLE_MS = 100;
+    private static final int MAX_PENDING_CHARS = 64 * 1024;
+
+    private final TestResultProcessor processor;
+    private final ScheduledExecutorService executor;
+    private final int throttleMs;
+    // Protected by lock
+    private final Object lock = new Object();
+    private final StringBuilder pendingOutput = new StringBuilder();
+    private Object pendingTestId;
+    private TestOutputEvent.Destination pendingDestination;
+
+    public OutputCoalescingTestResultProcessor(TestResultProcessor processor) {
+        this(processor, DEFAULT_THROTTLE_MS, Executors.newSingleThreadScheduledExecutor());
+    }
+
+    OutputCoalescingTestResultProcessor(TestResultProcessor processor, int throttleMs, ScheduledExecutorService executor) {
+        this.processor = processor;
+        this.throttleMs = throttleMs;
+        this.executor = executor;
+    }
+
+    @Override
+    public void started(TestDescriptorInternal test, TestStartEvent event) {
+        synchronized (lock) {
+            flushOutput();
+            processor.started(test, event);
+        }
+    }
+
+    @Override
+    public void completed(Object testId, TestCompleteEvent event) {
+        synchronized (lock) {
+            flushOutput();
+            processor.completed(testId, event);
+        }
+    }
+
+    @Override
+    public void failure(Object testId, Throwable result) {
+        synchronized (lock) {
+            flushOutput();
+            processor.failure(testId, result);
+        }
+    }
+
+    @Override
+    public void output(Object testId, TestOutputEvent event) {
+        synchronized (lock) {
+            if (pendingTestId != null && (!pendingTestId.equals(testId) || pendingDestination != event.getDestination())) {
+                flushOutput();
+            }
+
+            pendingOutput.append(event.getMessage());
+            if (pendingTestId == null) {
+                // This is the first pending event - schedule a thread to flush later
+                pendingTestId = testId;
+                pendingDestination = event.getDestination();
+                executor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (lock) {
+                            flushOutput();
+                        }
+                    }
+                }, throttleMs, TimeUnit.MILLISECONDS);
+            }
+
+            if (pendingOutput.length() >= MAX_PENDING_CHARS) {
+                flushOutput();
+            }
+        }
+    }
+
+    /**
+     * Forwards any pending output and stops the flushing thread.
+     */
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            flushOutput();
+        }
+        executor.shutdownNow();
+    }
+
+    private void flushOutput() {
+        if (pendingTestId == null) {
+            // Already flushed
+            return;
+        }
+        DefaultTestOutputEvent event = new DefaultTestOutputEvent(pendingDestination, pendingOutput.toString());
+        Object testId = pendingTestId;
+        pendingOutput.setLength(0);
+        pendingTestId = null;
+        pendingDestination = null;
+        processor.output(testId, event);
+    }
+}
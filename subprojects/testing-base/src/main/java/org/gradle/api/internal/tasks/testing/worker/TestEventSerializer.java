@@ -67,13 +67,13 @@ public class TestEventSerializer {
     private static class IdSerializer implements Serializer<CompositeIdGenerator.CompositeId> {
         @Override
         public CompositeIdGenerator.CompositeId read(Decoder decoder) throws Exception {
-            return new CompositeIdGenerator.CompositeId(decoder.readLong(), decoder.readLong());
+            return new CompositeIdGenerator.CompositeId(decoder.readSmallLong(), decoder.readSmallLong());
         }
 
         @Override
         public void write(Encoder encoder, CompositeIdGenerator.CompositeId value) throws Exception {
-            encoder.writeLong((Long) value.getScope());
-            encoder.writeLong((Long) value.getId());
+            encoder.writeSmallLong((Long) value.getScope());
+            encoder.writeSmallLong((Long) value.getId());
         }
     }
 
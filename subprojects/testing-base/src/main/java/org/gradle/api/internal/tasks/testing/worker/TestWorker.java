@@ -48,7 +48,7 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
     private final WorkerTestClassProcessorFactory factory;
     private CountDownLatch completed;
     private TestClassProcessor processor;
-    private TestResultProcessor resultProcessor;
+    private OutputCoalescingTestResultProcessor resultProcessor;
 
     public TestWorker(WorkerTestClassProcessorFactory factory) {
         this.factory = factory;
@@ -91,7 +91,7 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
 
         ObjectConnection serverConnection = workerProcessContext.getServerConnection();
         serverConnection.useParameterSerializers(TestEventSerializer.create());
-        this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
+        this.resultProcessor = new OutputCoalescingTestResultProcessor(serverConnection.addOutgoing(TestResultProcessor.class));
         serverConnection.addIncoming(RemoteTestClassProcessor.class, this);
         serverConnection.connect();
     }
@@ -117,7 +117,11 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
     public void stop() {
         Thread.currentThread().setName("Test worker");
         try {
-            processor.stop();
+            try {
+                processor.stop();
+            } finally {
+                resultProcessor.stop();
+            }
         } finally {
             completed.countDown();
         }
@@ -16,9 +16,12 @@
 
 package org.gradle.api.internal.tasks.testing.processors
 
+import org.gradle.api.internal.tasks.testing.DefaultTestClassDescriptor
 import org.gradle.api.internal.tasks.testing.TestClassProcessor
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.TestStartEvent
 import org.gradle.internal.actor.Actor
 import org.gradle.internal.actor.ActorFactory
 import spock.lang.Specification
@@ -73,7 +76,7 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * factory.create() >> processor1
         1 * actorFactory.createActor(processor1) >> actor1
         1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
-        1 * asyncProcessor1.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor1.startProcessing(_ as TestResultProcessor)
         1 * asyncProcessor1.processTestClass(test)
 
         when:
@@ -103,7 +106,7 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * factory.create() >> processor1
         1 * actorFactory.createActor(processor1) >> actor1
         1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
-        1 * asyncProcessor1.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor1.startProcessing(_ as TestResultProcessor)
         1 * asyncProcessor1.processTestClass(test)
 
         when:
@@ -113,7 +116,7 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * factory.create() >> processor2
         1 * actorFactory.createActor(processor2) >> actor2
         1 * actor2.getProxy(TestClassProcessor) >> asyncProcessor2
-        1 * asyncProcessor2.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor2.startProcessing(_ as TestResultProcessor)
         1 * asyncProcessor2.processTestClass(test)
 
         when:
@@ -142,7 +145,7 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * factory.create() >> processor1
         1 * actorFactory.createActor(processor1) >> actor1
         1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
-        1 * asyncProcessor1.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor1.startProcessing(_ as TestResultProcessor)
         1 * asyncProcessor1.processTestClass(test)
 
         when:
@@ -152,7 +155,7 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         1 * factory.create() >> processor2
         1 * actorFactory.createActor(processor2) >> actor2
         1 * actor2.getProxy(TestClassProcessor) >> asyncProcessor2
-        1 * asyncProcessor2.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor2.startProcessing(_ as TestResultProcessor)
         1 * asyncProcessor2.processTestClass(test)
 
         when:
@@ -167,4 +170,81 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         then:
         1 * asyncProcessor2.processTestClass(test)
     }
+
+    def assignsTestClassesToProcessorWithLeastPreviousDuration() {
+        def slow = testClass("Slow")
+        def fast1 = testClass("Fast1")
+        def fast2 = testClass("Fast2")
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, [Slow: 100L, Fast1: 10L, Fast2: 10L])
+        TestClassProcessor asyncProcessor1 = Mock()
+        TestClassProcessor asyncProcessor2 = Mock()
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+        startsProcessor(asyncProcessor1)
+        startsProcessor(asyncProcessor2)
+
+        when:
+        processor.processTestClass(slow)
+        processor.processTestClass(fast1)
+        processor.processTestClass(fast2)
+
+        then:
+        1 * asyncProcessor1.processTestClass(slow)
+        1 * asyncProcessor2.processTestClass(fast1)
+        1 * asyncProcessor2.processTestClass(fast2)
+    }
+
+    def assignsTestClassesToProcessorThatHasCompletedItsWork() {
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, [Test1: 10L, Test2: 20L])
+        TestClassProcessor asyncProcessor1 = Mock()
+        TestClassProcessor asyncProcessor2 = Mock()
+        TestResultProcessor forkResultProcessor
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+        startsProcessor(asyncProcessor1)
+        startsProcessor(asyncProcessor2)
+        asyncProcessor1.startProcessing(_) >> { TestResultProcessor p -> forkResultProcessor = p }
+
+        when:
+        processor.processTestClass(testClass("Test1"))
+        processor.processTestClass(testClass("Test2"))
+        processor.processTestClass(testClass("Test3"))
+
+        then:
+        1 * asyncProcessor1.processTestClass({ it.testClassName == "Test3" })
+
+        when:
+        def descriptor = new DefaultTestClassDescriptor(1, "Test1")
+        def startEvent = new TestStartEvent(0)
+        def completeEvent = new TestCompleteEvent(0)
+        forkResultProcessor.started(descriptor, startEvent)
+        forkResultProcessor.completed(1, completeEvent)
+        processor.processTestClass(testClass("Test4"))
+
+        then:
+        1 * asyncResultProcessor.started(descriptor, startEvent)
+        1 * asyncResultProcessor.completed(1, completeEvent)
+        1 * asyncProcessor1.processTestClass({ it.testClassName == "Test4" })
+        0 * asyncProcessor2.processTestClass(_)
+    }
+
+    def startsProcessor(TestClassProcessor asyncProcessor) {
+        TestClassProcessor processor = Mock()
+        Actor actor = Mock()
+        1 * factory.create() >> processor
+        actorFactory.createActor(processor) >> actor
+        actor.getProxy(TestClassProcessor) >> asyncProcessor
+    }
+
+    def testClass(String name) {
+        return Stub(TestClassRunInfo) {
+            getTestClassName() >> name
+        }
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestDescriptorInternal
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.TestStartEvent
+import spock.lang.Specification
+
+import java.util.concurrent.ScheduledExecutorService
+
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdErr
+import static org.gradle.api.tasks.testing.TestOutputEvent.Destination.StdOut
+
+class OutputCoalescingTestResultProcessorTest extends Specification {
+    def target = Mock(TestResultProcessor)
+    def executor = Mock(ScheduledExecutorService)
+    def processor = new OutputCoalescingTestResultProcessor(target, 100, executor)
+
+    def "coalesces consecutive output for the same test and destination"() {
+        def test = Stub(TestDescriptorInternal) { getId() >> 1 }
+        def startEvent = new TestStartEvent(100)
+        def completeEvent = new TestCompleteEvent(200)
+
+        when:
+        processor.started(test, startEvent)
+        processor.output(1, new DefaultTestOutputEvent(StdOut, "a"))
+        processor.output(1, new DefaultTestOutputEvent(StdOut, "b"))
+        processor.output(1, new DefaultTestOutputEvent(StdErr, "c"))
+        processor.output(2, new DefaultTestOutputEvent(StdErr, "d"))
+        processor.output(2, new DefaultTestOutputEvent(StdErr, "e"))
+        processor.completed(1, completeEvent)
+
+        then:
+        1 * target.started(test, startEvent)
+
+        then:
+        1 * target.output(1, { it.destination == StdOut && it.message == "ab" })
+
+        then:
+        1 * target.output(1, { it.destination == StdErr && it.message == "c" })
+
+        then:
+        1 * target.output(2, { it.destination == StdErr && it.message == "de" })
+
+        then:
+        1 * target.completed(1, completeEvent)
+        0 * target._
+    }
+
+    def "forwards pending output when scheduled flush runs"() {
+        Runnable flush = null
+
+        when:
+        processor.output(1, new DefaultTestOutputEvent(StdOut, "a"))
+        processor.output(1, new DefaultTestOutputEvent(StdOut, "b"))
+
+        then:
+        1 * executor.schedule(_, 100, _) >> { flush = it[0]; null }
+        0 * target._
+
+        when:
+        flush.run()
+
+        then:
+        1 * target.output(1, { it.message == "ab" })
+        0 * target._
+
+        when:
+        flush.run()
+
+        then:
+        0 * target._
+    }
+
+    def "forwards pending output on stop"() {
+        when:
+        processor.output(1, new DefaultTestOutputEvent(StdOut, "a"))
+        processor.stop()
+
+        then:
+        1 * target.output(1, { it.message == "a" })
+        1 * executor.shutdownNow()
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.testing
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.JUnitXmlTestExecutionResult
+
+class TestImpactSelectionIntegrationTest extends AbstractIntegrationSpec {
+    def setup() {
+        buildFile << """
+            apply plugin: 'java'
+            repositories { mavenCentral() }
+            dependencies { testCompile 'junit:junit:4.12' }
+            test {
+                onlyRunImpactedTests = true
+                systemProperty 'value', project.hasProperty('value') ? project.property('value') : 'a'
+                beforeTest { println "executed " + it }
+            }
+        """
+        writeTest("FooTest", "foo")
+        writeTest("BarTest", "bar")
+    }
+
+    def "runs only the test classes impacted by a change"() {
+        given:
+        succeeds("test")
+
+        when:
+        writeTest("FooTest", "changed")
+        succeeds("test")
+
+        then:
+        output.contains("executed Test test(FooTest)")
+        !output.contains("executed Test test(BarTest)")
+        new JUnitXmlTestExecutionResult(testDirectory).assertTestClassesExecuted("FooTest", "BarTest")
+    }
+
+    def "runs all test classes when a system property changes"() {
+        given:
+        succeeds("test")
+
+        when:
+        writeTest("FooTest", "changed")
+        executer.withArgument("-Pvalue=b")
+        succeeds("test")
+
+        then:
+        output.contains("executed Test test(FooTest)")
+        output.contains("executed Test test(BarTest)")
+    }
+
+    def "runs all test classes when the task is forced to rerun"() {
+        given:
+        succeeds("test")
+
+        when:
+        executer.withArgument("--rerun-tasks")
+        succeeds("test")
+
+        then:
+        output.contains("executed Test test(FooTest)")
+        output.contains("executed Test test(BarTest)")
+
+        when:
+        writeTest("FooTest", "changed")
+        succeeds("test")
+
+        then:
+        output.contains("executed Test test(FooTest)")
+        !output.contains("executed Test test(BarTest)")
+    }
+
+    private void writeTest(String className, String message) {
+        file("src/test/java/${className}.java").text = """
+            import org.junit.*;
+            public class ${className} {
+                @Test public void test() { System.out.println("${message}"); }
+            }
+        """
+    }
+}
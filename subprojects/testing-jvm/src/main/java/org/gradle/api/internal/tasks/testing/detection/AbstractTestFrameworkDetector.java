@@ -24,22 +24,31 @@ import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
+/**
+ * Base class for detectors that find test classes by inspecting class files, and the class files of their super classes. Detection may be
+ * performed for several test class files concurrently. The verdict for each super class is shared, so that each super class is only
+ * inspected once.
+ */
 public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor> implements TestFrameworkDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractTestFrameworkDetector.class);
     protected static final String TEST_CASE = "junit/framework/TestCase";
     protected static final String GROOVY_TEST_CASE = "groovy/util/GroovyTestCase";
 
     private List<File> testClassDirectories;
     private final ClassFileExtractionManager classFileExtractionManager;
-    private final Map<File, Boolean> superClasses;
+    private final Map<String, Boolean> superClasses;
     private TestClassProcessor testClassProcessor;
     private final List<String> knownTestCaseClassNames;
 
@@ -49,43 +58,40 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     protected AbstractTestFrameworkDetector(ClassFileExtractionManager classFileExtractionManager) {
         assert classFileExtractionManager != null;
         this.classFileExtractionManager = classFileExtractionManager;
-        this.superClasses = new HashMap<File, Boolean>();
+        this.superClasses = new ConcurrentHashMap<String, Boolean>();
         this.knownTestCaseClassNames = new ArrayList<String>();
         addKnownTestCaseClassNames(TEST_CASE, GROOVY_TEST_CASE);
     }
 
     protected abstract T createClassVisitor();
 
-    protected File getSuperTestClassFile(String superClassName) {
+    private TestClassVisitor superClassVisitor(String superClassName) {
         prepareClasspath();
         if (StringUtils.isEmpty(superClassName)) {
             throw new IllegalArgumentException("superClassName is empty!");
         }
 
-        final Iterator<File> testClassDirectoriesIt = testClassDirectories.iterator();
-
-        File superTestClassFile = null;
-        while (superTestClassFile == null && testClassDirectoriesIt.hasNext()) {
-            final File testClassDirectory = testClassDirectoriesIt.next();
-            final File superTestClassFileCandidate = new File(testClassDirectory, superClassName + ".class");
-            if (superTestClassFileCandidate.exists()) {
-                superTestClassFile = superTestClassFileCandidate;
+        for (File testClassDirectory : testClassDirectories) {
+            File superTestClassFile = new File(testClassDirectory, superClassName + ".class");
+            if (superTestClassFile.exists()) {
+                return classVisitor(superTestClassFile);
             }
         }
 
-        if (superTestClassFile != null) {
-            return superTestClassFile;
-        } else { // super test class file not in test class directories
-            return classFileExtractionManager.getLibraryClassFile(superClassName);
+        // super test class file not in test class directories
+        byte[] superTestClass = classFileExtractionManager.getLibraryClassBytes(superClassName);
+        if (superTestClass != null) {
+            return classVisitor(new ClassReader(superTestClass), superClassName);
         }
+        return null;
     }
 
-    private void prepareClasspath() {
+    private synchronized void prepareClasspath() {
         if (testClassDirectories != null) {
             return;
         }
 
-        testClassDirectories = new ArrayList<File>();
+        List<File> testClassDirectories = new ArrayList<File>();
 
         if (testClassesDirectory != null) {
             testClassDirectories.add(testClassesDirectory);
@@ -99,6 +105,8 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
                 }
             }
         }
+
+        this.testClassDirectories = testClassDirectories;
     }
 
     @Override
@@ -112,43 +120,52 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     }
 
     protected TestClassVisitor classVisitor(final File testClassFile) {
-        final TestClassVisitor classVisitor = createClassVisitor();
-
         InputStream classStream = null;
         try {
             classStream = new BufferedInputStream(new FileInputStream(testClassFile));
-            final ClassReader classReader = new ClassReader(classStream);
-            classReader.accept(classVisitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+            return classVisitor(new ClassReader(classStream), testClassFile.getAbsolutePath());
+        } catch (GradleException e) {
+            throw e;
         } catch (Throwable e) {
             throw new GradleException("failed to read class file " + testClassFile.getAbsolutePath(), e);
         } finally {
             IOUtils.closeQuietly(classStream);
         }
+    }
 
+    private TestClassVisitor classVisitor(ClassReader classReader, String displayName) {
+        final TestClassVisitor classVisitor = createClassVisitor();
+        try {
+            classReader.accept(classVisitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        } catch (Throwable e) {
+            throw new GradleException("failed to read class file " + displayName, e);
+        }
         return classVisitor;
     }
 
     @Override
     public boolean processTestClass(File testClassFile) {
-        return processTestClass(testClassFile, false);
+        return processTestClass(classVisitor(testClassFile), false);
     }
 
-    protected abstract boolean processTestClass(File testClassFile, boolean superClass);
+    protected abstract boolean processTestClass(TestClassVisitor classVisitor, boolean superClass);
 
-    protected boolean processSuperClass(File testClassFile) {
-        boolean isTest = false;
-
-        Boolean isSuperTest = superClasses.get(testClassFile);
+    protected boolean processSuperClass(String superClassName) {
+        Boolean isSuperTest = superClasses.get(superClassName);
 
         if (isSuperTest == null) {
-            isTest = processTestClass(testClassFile, true);
+            TestClassVisitor classVisitor = superClassVisitor(superClassName);
+            if (classVisitor != null) {
+                isSuperTest = processTestClass(classVisitor, true);
+            } else {
+                LOGGER.debug("test-class-scan : failed to scan parent class {}, could not find the class file", superClassName);
+                isSuperTest = false;
+            }
 
-            superClasses.put(testClassFile, isTest);
-        } else {
-            isTest = isSuperTest;
+            superClasses.put(superClassName, isSuperTest);
         }
 
-        return isTest;
+        return isSuperTest;
     }
 
     /**
@@ -158,7 +175,9 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     protected void publishTestClass(boolean isTest, TestClassVisitor classVisitor, boolean superClass) {
         if (isTest && !classVisitor.isAbstract() && !superClass) {
             String className = Type.getObjectType(classVisitor.getClassName()).getClassName();
-            testClassProcessor.processTestClass(new DefaultTestClassRunInfo(className));
+            synchronized (testClassProcessor) {
+                testClassProcessor.processTestClass(new DefaultTestClassRunInfo(className));
+            }
         }
     }
 
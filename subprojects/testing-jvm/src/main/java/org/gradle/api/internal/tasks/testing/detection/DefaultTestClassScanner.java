@@ -16,29 +16,44 @@
 
 package org.gradle.api.internal.tasks.testing.detection;
 
+import org.gradle.api.Action;
+import org.gradle.api.Nullable;
 import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.internal.operations.BuildOperationProcessor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
 
 /**
  * The default test class scanner. Depending on the availability of a test framework detector,
  * a detection or filename scan is performed to find test classes.
+ *
+ * <p>When a build operation processor is available, detection runs concurrently for the candidate class files. Each detected
+ * test class is passed to the test class processor as soon as it is found, so that test execution overlaps with detection.</p>
  */
 public class DefaultTestClassScanner implements Runnable {
     private final FileTree candidateClassFiles;
     private final TestFrameworkDetector testFrameworkDetector;
     private final TestClassProcessor testClassProcessor;
+    private final BuildOperationProcessor buildOperationProcessor;
 
     public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
                                    TestClassProcessor testClassProcessor) {
+        this(candidateClassFiles, testFrameworkDetector, testClassProcessor, null);
+    }
+
+    public DefaultTestClassScanner(FileTree candidateClassFiles, TestFrameworkDetector testFrameworkDetector,
+                                   TestClassProcessor testClassProcessor, @Nullable BuildOperationProcessor buildOperationProcessor) {
         this.candidateClassFiles = candidateClassFiles;
         this.testFrameworkDetector = testFrameworkDetector;
         this.testClassProcessor = testClassProcessor;
+        this.buildOperationProcessor = buildOperationProcessor;
     }
 
     @Override
@@ -52,9 +67,22 @@ public class DefaultTestClassScanner implements Runnable {
 
     private void detectionScan() {
         testFrameworkDetector.startDetection(testClassProcessor);
-        candidateClassFiles.visit(new ClassFileVisitor() {
-            public void visitClassFile(FileVisitDetails fileDetails) {
-                testFrameworkDetector.processTestClass(fileDetails.getFile());
+        if (buildOperationProcessor == null) {
+            candidateClassFiles.visit(new ClassFileVisitor() {
+                public void visitClassFile(FileVisitDetails fileDetails) {
+                    testFrameworkDetector.processTestClass(fileDetails.getFile());
+                }
+            });
+            return;
+        }
+        buildOperationProcessor.run(new Action<BuildOperationQueue<DetectTestClass>>() {
+            @Override
+            public void execute(final BuildOperationQueue<DetectTestClass> queue) {
+                candidateClassFiles.visit(new ClassFileVisitor() {
+                    public void visitClassFile(FileVisitDetails fileDetails) {
+                        queue.add(new DetectTestClass(fileDetails.getFile()));
+                    }
+                });
             }
         });
     }
@@ -81,4 +109,22 @@ public class DefaultTestClassScanner implements Runnable {
 
         public abstract void visitClassFile(FileVisitDetails fileDetails);
     }
+
+    private class DetectTestClass implements RunnableBuildOperation {
+        private final File testClassFile;
+
+        DetectTestClass(File testClassFile) {
+            this.testClassFile = testClassFile;
+        }
+
+        @Override
+        public String getDescription() {
+            return "detecting test class in ".concat(testClassFile.getName());
+        }
+
+        @Override
+        public void run() {
+            testFrameworkDetector.processTestClass(testClassFile);
+        }
+    }
 }
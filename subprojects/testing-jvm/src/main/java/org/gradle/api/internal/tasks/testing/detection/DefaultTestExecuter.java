@@ -16,7 +16,9 @@
 
 package org.gradle.api.internal.tasks.testing.detection;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestFramework;
@@ -26,13 +28,19 @@ import org.gradle.api.internal.tasks.testing.processors.MaxNParallelTestClassPro
 import org.gradle.api.internal.tasks.testing.processors.RestartEveryNTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.TestMainAction;
 import org.gradle.api.internal.tasks.testing.worker.ForkingTestClassProcessor;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.Factory;
 import org.gradle.internal.TrueTimeProvider;
 import org.gradle.internal.progress.OperationIdGenerator;
 import org.gradle.internal.actor.ActorFactory;
+import org.gradle.internal.operations.BuildOperationProcessor;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * The default test class scanner factory.
  */
@@ -40,11 +48,27 @@ public class DefaultTestExecuter implements TestExecuter {
     private final WorkerProcessFactory workerFactory;
     private final ActorFactory actorFactory;
     private final ModuleRegistry moduleRegistry;
+    private final Map<String, Long> previousDurations;
+    private final Spec<FileTreeElement> skippedClassFiles;
+    private final BuildOperationProcessor buildOperationProcessor;
 
     public DefaultTestExecuter(WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry) {
+        this(workerFactory, actorFactory, moduleRegistry, null, Collections.<String, Long>emptyMap(), null);
+    }
+
+    /**
+     * @param buildOperationProcessor used to detect test classes concurrently, or null to detect test classes serially.
+     * @param previousDurations the duration of each test class in the previous run, used to balance test classes across forks.
+     * @param skippedClassFiles matches the candidate class files that should not be executed in this run, or null to execute all candidate class files.
+     */
+    public DefaultTestExecuter(WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry, @Nullable BuildOperationProcessor buildOperationProcessor,
+                               Map<String, Long> previousDurations, @Nullable Spec<FileTreeElement> skippedClassFiles) {
         this.workerFactory = workerFactory;
         this.actorFactory = actorFactory;
         this.moduleRegistry = moduleRegistry;
+        this.buildOperationProcessor = buildOperationProcessor;
+        this.previousDurations = previousDurations;
+        this.skippedClassFiles = skippedClassFiles;
     }
 
     @Override
@@ -64,16 +88,20 @@ public class DefaultTestExecuter implements TestExecuter {
         };
 
         TestClassProcessor processor = new MaxNParallelTestClassProcessor(testTask.getMaxParallelForks(),
-            reforkingProcessorFactory, actorFactory);
+            reforkingProcessorFactory, actorFactory, previousDurations);
 
-        final FileTree testClassFiles = testTask.getCandidateClassFiles();
+        FileTree candidateClassFiles = testTask.getCandidateClassFiles();
+        if (skippedClassFiles != null) {
+            candidateClassFiles = candidateClassFiles.matching(new PatternSet().exclude(skippedClassFiles));
+        }
+        final FileTree testClassFiles = candidateClassFiles;
 
         Runnable detector;
         if (testTask.isScanForTestClasses()) {
             TestFrameworkDetector testFrameworkDetector = testTask.getTestFramework().getDetector();
             testFrameworkDetector.setTestClassesDirectory(testTask.getTestClassesDir());
             testFrameworkDetector.setTestClasspath(testTask.getClasspath());
-            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor);
+            detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor, buildOperationProcessor);
         } else {
             detector = new DefaultTestClassScanner(testClassFiles, null, processor);
         }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.impact;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.FlushableEncoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The content hashes of the class files and other files that make up a test runtime classpath.
+ */
+public class ClasspathSnapshot {
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Map<String, HashValue> classes;
+    private final Map<String, HashValue> otherFiles;
+
+    public ClasspathSnapshot(Map<String, HashValue> classes, Map<String, HashValue> otherFiles) {
+        this.classes = classes;
+        this.otherFiles = otherFiles;
+    }
+
+    /**
+     * Returns the names of the classes that have been added, removed or changed since the given snapshot.
+     */
+    public Set<String> getChangedClasses(ClasspathSnapshot previous) {
+        return changedKeys(previous.classes, classes);
+    }
+
+    /**
+     * Returns true when any file other than a class file in a classpath directory has been added, removed or changed since the given snapshot.
+     */
+    public boolean hasChangedOtherFiles(ClasspathSnapshot previous) {
+        return !changedKeys(previous.otherFiles, otherFiles).isEmpty();
+    }
+
+    private static Set<String> changedKeys(Map<String, HashValue> previous, Map<String, HashValue> current) {
+        Set<String> changed = new HashSet<String>();
+        for (Map.Entry<String, HashValue> entry : current.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    public void write(File file) {
+        try {
+            OutputStream outputStream = new FileOutputStream(file);
+            try {
+                FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
+                encoder.writeSmallInt(SNAPSHOT_VERSION);
+                write(classes, encoder);
+                write(otherFiles, encoder);
+                encoder.flush();
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Map<String, HashValue> hashes, Encoder encoder) throws IOException {
+        encoder.writeSmallInt(hashes.size());
+        for (Map.Entry<String, HashValue> entry : hashes.entrySet()) {
+            encoder.writeString(entry.getKey());
+            encoder.writeBinary(entry.getValue().asByteArray());
+        }
+    }
+
+    /**
+     * Reads a snapshot previously written with {@link #write(File)}, or returns null when there is no usable snapshot in the given file.
+     */
+    public static ClasspathSnapshot read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            InputStream inputStream = new FileInputStream(file);
+            try {
+                Decoder decoder = new KryoBackedDecoder(inputStream);
+                if (decoder.readSmallInt() != SNAPSHOT_VERSION) {
+                    return null;
+                }
+                Map<String, HashValue> classes = read(decoder);
+                Map<String, HashValue> otherFiles = read(decoder);
+                return new ClasspathSnapshot(classes, otherFiles);
+            } finally {
+                inputStream.close();
+            }
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static Map<String, HashValue> read(Decoder decoder) throws IOException {
+        int count = decoder.readSmallInt();
+        Map<String, HashValue> hashes = new HashMap<String, HashValue>(count);
+        for (int i = 0; i < count; i++) {
+            String key = decoder.readString();
+            hashes.put(key, new HashValue(decoder.readBinary()));
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.impact;
+
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.file.FileVisitor;
+import org.gradle.api.internal.file.collections.DirectoryFileTree;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.gradle.internal.FileUtils.hasExtension;
+
+/**
+ * Creates a {@link ClasspathSnapshot} for a classpath. Class files in directories are tracked individually by class name. Jars are tracked
+ * as a whole, by their size and modification time, as test impact selection does not look inside them.
+ */
+public class ClasspathSnapshotter {
+
+    public ClasspathSnapshot snapshot(Iterable<File> classpath) {
+        final Map<String, HashValue> classes = new HashMap<String, HashValue>();
+        final Map<String, HashValue> otherFiles = new HashMap<String, HashValue>();
+        for (File entry : classpath) {
+            if (entry.isDirectory()) {
+                new DirectoryFileTree(entry).visit(new FileVisitor() {
+                    @Override
+                    public void visitDir(FileVisitDetails dirDetails) {
+                    }
+
+                    @Override
+                    public void visitFile(FileVisitDetails fileDetails) {
+                        String path = fileDetails.getPath();
+                        if (hasExtension(fileDetails.getFile(), ".class")) {
+                            String className = toClassName(path);
+                            if (!classes.containsKey(className)) {
+                                classes.put(className, HashUtil.createHash(fileDetails.getFile(), "MD5"));
+                            }
+                        } else if (!otherFiles.containsKey(path)) {
+                            otherFiles.put(path, HashUtil.createHash(fileDetails.getFile(), "MD5"));
+                        }
+                    }
+                });
+            } else if (entry.isFile()) {
+                otherFiles.put(entry.getAbsolutePath(), HashUtil.createHash(entry.length() + ":" + entry.lastModified(), "MD5"));
+            }
+        }
+        return new ClasspathSnapshot(classes, otherFiles);
+    }
+
+    static String toClassName(String classFilePath) {
+        return classFilePath.replaceAll("/", ".").replaceAll("\\.class$", "");
+    }
+}
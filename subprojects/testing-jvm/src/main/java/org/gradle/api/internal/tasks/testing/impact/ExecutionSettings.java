@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.tasks.testing.impact;
+package org.gradle.api.internal.tasks.testing.impact;
+
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The settings other than the test runtime classpath that can change the outcome of the tests, such as the JVM arguments, system properties,
+ * environment and test framework options. Results are only carried over from a previous run with the same settings.
+ */
+public class ExecutionSettings {
+    private final SortedMap<String, String> values = new TreeMap<String, String>();
+
+    public ExecutionSettings add(String name, Object value) {
+        values.put(name, describe(value));
+        return this;
+    }
+
+    /**
+     * Adds the readable properties of the given object that hold simple values, collections or maps. Other properties are ignored.
+     */
+    public ExecutionSettings addProperties(String name, Object bean) {
+        add(name, bean == null ? null : bean.getClass().getName());
+        if (bean == null) {
+            return this;
+        }
+        for (Method method : bean.getClass().getMethods()) {
+            String propertyName = getPropertyName(method);
+            if (propertyName != null && isDescribable(method.getReturnType())) {
+                try {
+                    add(name + "." + propertyName, method.invoke(bean));
+                } catch (Exception e) {
+                    add(name + "." + propertyName, e.getClass().getName());
+                }
+            }
+        }
+        return this;
+    }
+
+    public HashValue getHash() {
+        return HashUtil.createHash(values.toString(), "MD5");
+    }
+
+    private static String getPropertyName(Method method) {
+        if (method.getParameterTypes().length != 0 || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return name.substring(3);
+        }
+        if (name.startsWith("is") && name.length() > 2 && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            return name.substring(2);
+        }
+        return null;
+    }
+
+    private static boolean isDescribable(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || Number.class.isAssignableFrom(type) || type == Boolean.class || type == String.class
+            || type == File.class || type == StringWriter.class || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+    }
+
+    private static String describe(Object value) {
+        // The order of the elements of sets and maps does not matter
+        if (value instanceof Map) {
+            Map<String, String> entries = new TreeMap<String, String>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                entries.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+            return entries.toString();
+        }
+        if (value instanceof Set) {
+            Set<String> elements = new TreeSet<String>();
+            for (Object element : (Set<?>) value) {
+                elements.add(String.valueOf(element));
+            }
+            return elements.toString();
+        }
+        return String.valueOf(value);
+    }
+}
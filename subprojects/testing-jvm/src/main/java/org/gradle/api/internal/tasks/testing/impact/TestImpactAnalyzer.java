@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.impact;
+
+import org.gradle.api.internal.file.collections.DirectoryFileTree;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassFilesAnalyzer;
+import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysis;
+import org.gradle.api.internal.tasks.compile.incremental.deps.DependentsSet;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Determines which classes on a test runtime classpath may behave differently since a previous snapshot of that classpath. These are the
+ * changed classes plus every class that depends on them, directly or transitively, as recorded in the class files of the classpath directories.
+ */
+public class TestImpactAnalyzer {
+    private final ClassDependenciesAnalyzer analyzer;
+    private final ClasspathSnapshotter snapshotter;
+
+    public TestImpactAnalyzer(ClassDependenciesAnalyzer analyzer, ClasspathSnapshotter snapshotter) {
+        this.analyzer = analyzer;
+        this.snapshotter = snapshotter;
+    }
+
+    public ClasspathSnapshot snapshot(Iterable<File> classpath) {
+        return snapshotter.snapshot(classpath);
+    }
+
+    /**
+     * Returns the impacted classes, or null when all classes must be considered impacted.
+     */
+    public Set<String> getImpactedClasses(ClasspathSnapshot previous, ClasspathSnapshot current, Iterable<File> classpath) {
+        if (current.hasChangedOtherFiles(previous)) {
+            // Resources and jars are not attributed to classes
+            return null;
+        }
+        Set<String> changedClasses = current.getChangedClasses(previous);
+        Set<String> impacted = new HashSet<String>(changedClasses);
+        if (changedClasses.isEmpty()) {
+            return impacted;
+        }
+
+        ClassFilesAnalyzer classFilesAnalyzer = new ClassFilesAnalyzer(analyzer);
+        for (File entry : classpath) {
+            if (entry.isDirectory()) {
+                new DirectoryFileTree(entry).visit(classFilesAnalyzer);
+            }
+        }
+        ClassSetAnalysis analysis = new ClassSetAnalysis(classFilesAnalyzer.getAnalysis());
+        DependentsSet dependents = analysis.getRelevantDependents(changedClasses);
+        if (dependents.isDependencyToAll()) {
+            return null;
+        }
+        impacted.addAll(dependents.getDependentClasses());
+        return impacted;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.tasks.testing.impact;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
+import org.gradle.api.internal.tasks.testing.junit.result.TestOutputStore;
+import org.gradle.api.internal.tasks.testing.junit.result.TestReportDataCollector;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.hash.HashValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the test classes that need to run because they may be impacted by changes to the test runtime classpath since the previous run.
+ * Test classes that are not impacted and passed in the previous run are skipped, and their previous results are carried over. Nothing is
+ * carried over when the execution settings, such as JVM arguments, system properties or test framework options, differ from the previous run.
+ *
+ * <p>Only class files in classpath directories are attributed to the classes that use them. A change to a resource or a jar, or to a class
+ * that other classes may depend on without referencing it (for example, a class declaring constants), causes all test classes to run.</p>
+ */
+public class TestImpactSelection {
+    private static final Logger LOGGER = Logging.getLogger(TestImpactSelection.class);
+    private static final String SNAPSHOT_FILE_NAME = "classpath.bin";
+    private static final String SETTINGS_FILE_NAME = "execution-settings.txt";
+
+    private final TestImpactAnalyzer analyzer;
+    private final Iterable<File> classpath;
+    private final HashValue settingsHash;
+    private final File previousResultsDir;
+    private final Map<String, TestClassResult> skippableResults = new HashMap<String, TestClassResult>();
+    private final Set<String> skippedClasses = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private ClasspathSnapshot snapshot;
+
+    /**
+     * @param previousResultsDir the directory to keep the previous binary results in while tests are executing.
+     */
+    public TestImpactSelection(TestImpactAnalyzer analyzer, Iterable<File> classpath, ExecutionSettings settings, File previousResultsDir) {
+        this.analyzer = analyzer;
+        this.classpath = classpath;
+        this.settingsHash = settings.getHash();
+        this.previousResultsDir = previousResultsDir;
+    }
+
+    /**
+     * Determines which of the previous results can be carried over. When there are any, the binary results directory is moved to the
+     * previous results directory, so the previous test output is available once execution completes.
+     */
+    public void select(File binaryResultsDir, Map<String, TestClassResult> previousResults) {
+        snapshot = analyzer.snapshot(classpath);
+        ClasspathSnapshot previousSnapshot = ClasspathSnapshot.read(new File(binaryResultsDir, SNAPSHOT_FILE_NAME));
+        if (previousSnapshot == null || previousResults.isEmpty()) {
+            return;
+        }
+        if (!settingsHash.equals(readSettingsHash(new File(binaryResultsDir, SETTINGS_FILE_NAME)))) {
+            LOGGER.info("All test classes are impacted by changes to the test execution settings.");
+            return;
+        }
+        Set<String> impactedClasses = analyzer.getImpactedClasses(previousSnapshot, snapshot, classpath);
+        if (impactedClasses == null) {
+            LOGGER.info("All test classes are impacted by changes to the test runtime classpath.");
+            return;
+        }
+        for (TestClassResult result : previousResults.values()) {
+            String className = result.getClassName();
+            if (result.getFailuresCount() == 0 && !className.contains("$") && !impactedClasses.contains(className)) {
+                skippableResults.put(className, result);
+            }
+        }
+        if (!skippableResults.isEmpty() && !binaryResultsDir.renameTo(previousResultsDir)) {
+            LOGGER.info("Could not move previous test results from {} to {}. All test classes will be executed.", binaryResultsDir, previousResultsDir);
+            skippableResults.clear();
+        }
+    }
+
+    /**
+     * Selects all test classes, for example because the task is forced to rerun. The inputs are still recorded for selection in the next run.
+     */
+    public void selectAll() {
+        snapshot = analyzer.snapshot(classpath);
+    }
+
+    /**
+     * Returns a spec that matches the class files of the test classes that do not need to run. Each matched test class is skipped.
+     */
+    public Spec<FileTreeElement> getSkippedClassFiles() {
+        return new Spec<FileTreeElement>() {
+            @Override
+            public boolean isSatisfiedBy(FileTreeElement element) {
+                if (element.isDirectory() || !element.getName().endsWith(".class")) {
+                    return false;
+                }
+                String className = ClasspathSnapshotter.toClassName(element.getPath());
+                if (skippableResults.containsKey(className)) {
+                    skippedClasses.add(className);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Adds the previous results and output of the skipped test classes to the given collector.
+     */
+    public void addSkippedResults(TestReportDataCollector collector) {
+        if (skippedClasses.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Skipped {} test classes that are not impacted by changes to the test runtime classpath.", skippedClasses.size());
+        TestOutputStore.Reader previousOutput = new TestOutputStore(previousResultsDir).reader();
+        try {
+            for (String className : skippedClasses) {
+                collector.addPreviousResult(skippableResults.get(className), previousOutput);
+            }
+        } finally {
+            CompositeStoppable.stoppable(previousOutput).stop();
+        }
+    }
+
+    /**
+     * Records the classpath snapshot and execution settings alongside the results of this run, for selection in the next run.
+     */
+    public void writeSnapshot(File binaryResultsDir) {
+        snapshot.write(new File(binaryResultsDir, SNAPSHOT_FILE_NAME));
+        try {
+            Files.write(settingsHash.asHexString(), new File(binaryResultsDir, SETTINGS_FILE_NAME), Charsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HashValue readSettingsHash(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return HashValue.parse(Files.toString(file, Charsets.UTF_8).trim());
+        } catch (Exception e) {
+            LOGGER.info("Could not read test execution settings of previous run from {}.", file, e);
+            return null;
+        }
+    }
+}
@@ -44,7 +44,7 @@ public class JUnitTestFramework implements TestFramework {
     public JUnitTestFramework(Test testTask, DefaultTestFilter filter, ClassLoaderCache classLoaderCache) {
         this.filter = filter;
         options = new JUnitOptions();
-        detector = new JUnitDetector(new ClassFileExtractionManager(testTask.getTemporaryDirFactory()));
+        detector = new JUnitDetector(new ClassFileExtractionManager());
         classLoaderFactory = new TestClassLoaderFactory(classLoaderCache, testTask);
     }
 
@@ -17,11 +17,8 @@
 package org.gradle.api.internal.tasks.testing.junit.result;
 
 import org.gradle.api.Action;
-import org.gradle.api.tasks.testing.TestOutputEvent;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.Writer;
 
 public class BinaryResultBackedTestResultsProvider extends TestOutputStoreBackedResultsProvider {
     private final TestResultSerializer resultSerializer;
@@ -31,59 +28,13 @@ public class BinaryResultBackedTestResultsProvider extends TestOutputStoreBacked
         this.resultSerializer = new TestResultSerializer(resultsDir);
     }
 
-    @Override
-    public boolean hasOutput(final long id, final TestOutputEvent.Destination destination) {
-        final boolean[] hasOutput = new boolean[1];
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                hasOutput[0] = reader.hasOutput(id, destination);
-            }
-        });
-        return hasOutput[0];
-    }
-
-    @Override
-    public void writeAllOutput(final long id, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeAllOutput(id, destination, writer);
-            }
-        });
-    }
-
     @Override
     public boolean isHasResults() {
         return resultSerializer.isHasResults();
     }
 
-    @Override
-    public void writeNonTestOutput(final long id, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeNonTestOutput(id, destination, writer);
-            }
-        });
-    }
-
-    @Override
-    public void writeTestOutput(final long classId, final long testId, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeTestOutput(classId, testId, destination, writer);
-            }
-        });
-    }
-
     @Override
     public void visitClasses(final Action<? super TestClassResult> visitor) {
         resultSerializer.read(visitor);
     }
-
-    @Override
-    public void close() throws IOException {
-    }
 }
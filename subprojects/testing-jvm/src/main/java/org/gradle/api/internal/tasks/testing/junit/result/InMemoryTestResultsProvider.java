@@ -17,10 +17,6 @@
 package org.gradle.api.internal.tasks.testing.junit.result;
 
 import org.gradle.api.Action;
-import org.gradle.api.tasks.testing.TestOutputEvent;
-
-import java.io.IOException;
-import java.io.Writer;
 
 public class InMemoryTestResultsProvider extends TestOutputStoreBackedResultsProvider {
     private final Iterable<TestClassResult> results;
@@ -30,48 +26,6 @@ public class InMemoryTestResultsProvider extends TestOutputStoreBackedResultsPro
         this.results = results;
     }
 
-    @Override
-    public boolean hasOutput(final long id, final TestOutputEvent.Destination destination) {
-        final boolean[] hasOutput = new boolean[1];
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                hasOutput[0] = reader.hasOutput(id, destination);
-            }
-        });
-        return hasOutput[0];
-    }
-
-    @Override
-    public void writeAllOutput(final long id, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeAllOutput(id, destination, writer);
-            }
-        });
-    }
-
-    @Override
-    public void writeNonTestOutput(final long id, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeNonTestOutput(id, destination, writer);
-            }
-        });
-    }
-
-    @Override
-    public void writeTestOutput(final long classId, final long testId, final TestOutputEvent.Destination destination, final Writer writer) {
-        withReader(new Action<TestOutputStore.Reader>() {
-            @Override
-            public void execute(TestOutputStore.Reader reader) {
-                reader.writeTestOutput(classId, testId, destination, writer);
-            }
-        });
-    }
-
     @Override
     public void visitClasses(final Action<? super TestClassResult> visitor) {
         for (TestClassResult result : results) {
@@ -83,8 +37,4 @@ public class InMemoryTestResultsProvider extends TestOutputStoreBackedResultsPro
     public boolean isHasResults() {
         return results.iterator().hasNext();
     }
-
-    @Override
-    public void close() throws IOException {
-    }
 }
@@ -21,18 +21,37 @@ import com.esotericsoftware.kryo.io.Output;
 import com.google.common.collect.ImmutableMap;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.tasks.testing.TestOutputEvent;
-import org.gradle.internal.io.RandomAccessFileInputStream;
 import org.gradle.internal.UncheckedException;
-import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
-import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
-
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores the output of test execution. Each output event is written as a record to a data file, and the index file records the offset
+ * of every record, per test and destination. This means the output of a single test can be read without scanning the output of
+ * other tests that were running at the same time.
+ */
 public class TestOutputStore {
 
+    private static final int INDEX_FORMAT_VERSION = 2;
+
+    private static final int STDOUT_FLAG = 1;
+    private static final int COMPRESSED_FLAG = 2;
+
+    // Messages of at least this many bytes are compressed, when that makes them smaller
+    private static final int COMPRESSION_THRESHOLD = 8 * 1024;
+    // Flags, plus the uncompressed and stored lengths
+    private static final int MAX_RECORD_HEADER_LENGTH = 11;
+    private static final int READ_WINDOW_SIZE = 64 * 1024;
+
     private final File resultsDir;
     private final Charset messageStorageCharset;
 
@@ -49,34 +68,105 @@ public class TestOutputStore {
         return new File(resultsDir, getOutputsFile().getName() + ".idx");
     }
 
-    private static class Region {
-        long start;
-        long stop;
+    /**
+     * The offsets of the records written for a single test and destination, in the order they were written. The offsets are kept as
+     * variable length deltas, so that the index stays small for tests that produce many output events.
+     */
+    private static class OffsetList {
+        private byte[] bytes;
+        private int length;
+        private int count;
+        private long last;
+
+        private OffsetList() {
+            this(new byte[16], 0, 0);
+        }
+
+        private OffsetList(byte[] bytes, int length, int count) {
+            this.bytes = bytes;
+            this.length = length;
+            this.count = count;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void add(long offset) {
+            if (length + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+            }
+            long delta = offset - last;
+            last = offset;
+            while ((delta & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            bytes[length++] = (byte) delta;
+            count++;
+        }
+
+        long[] toArray() {
+            long[] offsets = new long[count];
+            long offset = 0;
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[pos++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                offset += delta;
+                offsets[i] = offset;
+            }
+            return offsets;
+        }
 
-        private Region() {
-            start = -1;
-            stop = -1;
+        void write(Output output) {
+            output.writeInt(count, true);
+            output.writeInt(length, true);
+            output.writeBytes(bytes, 0, length);
         }
 
-        private Region(long start, long stop) {
-            this.start = start;
-            this.stop = stop;
+        static OffsetList read(Input input) {
+            int count = input.readInt(true);
+            int length = input.readInt(true);
+            return new OffsetList(input.readBytes(length), length, count);
         }
     }
 
-    private static class TestCaseRegion {
-        Region stdOutRegion = new Region();
-        Region stdErrRegion = new Region();
+    private static class TestCaseOffsets {
+        final OffsetList stdOut;
+        final OffsetList stdErr;
+
+        private TestCaseOffsets() {
+            this(new OffsetList(), new OffsetList());
+        }
+
+        private TestCaseOffsets(OffsetList stdOut, OffsetList stdErr) {
+            this.stdOut = stdOut;
+            this.stdErr = stdErr;
+        }
+
+        OffsetList get(boolean stdout) {
+            return stdout ? stdOut : stdErr;
+        }
     }
 
     public class Writer implements Closeable {
-        private final KryoBackedEncoder output;
+        private final OutputStream output;
+        private final byte[] header = new byte[MAX_RECORD_HEADER_LENGTH];
+        private final Deflater deflater = new Deflater();
+        private long position;
 
-        private final Map<Long, Map<Long, TestCaseRegion>> index = new LinkedHashMap<Long, Map<Long, TestCaseRegion>>();
+        private final Map<Long, Map<Long, TestCaseOffsets>> index = new LinkedHashMap<Long, Map<Long, TestCaseOffsets>>();
 
         public Writer() {
             try {
-                output = new KryoBackedEncoder(new FileOutputStream(getOutputsFile()));
+                output = new BufferedOutputStream(new FileOutputStream(getOutputsFile()));
             } catch (FileNotFoundException e) {
                 throw new UncheckedIOException(e);
             }
@@ -84,7 +174,12 @@ public class TestOutputStore {
 
         @Override
         public void close() {
-            output.close();
+            deflater.end();
+            try {
+                output.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
             writeIndex();
         }
 
@@ -96,40 +191,69 @@ public class TestOutputStore {
             boolean stdout = outputEvent.getDestination() == TestOutputEvent.Destination.StdOut;
             mark(classId, testId, stdout);
 
-            output.writeBoolean(stdout);
-            output.writeSmallLong(classId);
-            output.writeSmallLong(testId);
+            byte[] bytes = outputEvent.getMessage().getBytes(messageStorageCharset);
+            byte[] compressed = bytes.length >= COMPRESSION_THRESHOLD ? compress(bytes) : null;
+
+            int headerLength = 0;
+            if (compressed != null) {
+                header[headerLength++] = (byte) ((stdout ? STDOUT_FLAG : 0) | COMPRESSED_FLAG);
+                headerLength = writeVarInt(bytes.length, headerLength);
+                bytes = compressed;
+            } else {
+                header[headerLength++] = (byte) (stdout ? STDOUT_FLAG : 0);
+            }
+            headerLength = writeVarInt(bytes.length, headerLength);
 
-            byte[] bytes;
             try {
-                bytes = outputEvent.getMessage().getBytes(messageStorageCharset.name());
-            } catch (UnsupportedEncodingException e) {
-                throw UncheckedException.throwAsUncheckedException(e);
+                output.write(header, 0, headerLength);
+                output.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            output.writeSmallInt(bytes.length);
-            output.writeBytes(bytes, 0, bytes.length);
+            position += headerLength + bytes.length;
         }
 
-        private void mark(long classId, long testId, boolean isStdout) {
-            if (!index.containsKey(classId)) {
-                index.put(classId, new LinkedHashMap<Long, TestCaseRegion>());
+        private int writeVarInt(int value, int offset) {
+            while ((value & ~0x7F) != 0) {
+                header[offset++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
             }
+            header[offset++] = (byte) value;
+            return offset;
+        }
 
-            Map<Long, TestCaseRegion> testCaseRegions = index.get(classId);
-            if (!testCaseRegions.containsKey(testId)) {
-                TestCaseRegion region = new TestCaseRegion();
-                testCaseRegions.put(testId, region);
+        /**
+         * Returns the compressed message, or null when compressing does not make the message smaller.
+         */
+        private byte[] compress(byte[] bytes) {
+            deflater.reset();
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[bytes.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
             }
+            if (!deflater.finished()) {
+                return null;
+            }
+            return Arrays.copyOf(buffer, length);
+        }
 
-            TestCaseRegion region = testCaseRegions.get(testId);
-
-            Region streamRegion = isStdout ? region.stdOutRegion : region.stdErrRegion;
+        private void mark(long classId, long testId, boolean isStdout) {
+            Map<Long, TestCaseOffsets> testCaseOffsets = index.get(classId);
+            if (testCaseOffsets == null) {
+                testCaseOffsets = new LinkedHashMap<Long, TestCaseOffsets>();
+                index.put(classId, testCaseOffsets);
+            }
 
-            int total = output.getWritePosition();
-            if (streamRegion.start < 0) {
-                streamRegion.start = total;
+            TestCaseOffsets offsets = testCaseOffsets.get(testId);
+            if (offsets == null) {
+                offsets = new TestCaseOffsets();
+                testCaseOffsets.put(testId, offsets);
             }
-            streamRegion.stop = total;
+
+            offsets.get(isStdout).add(position);
         }
 
         private void writeIndex() {
@@ -140,25 +264,21 @@ public class TestOutputStore {
                 throw new UncheckedIOException(e);
             }
 
-
             try {
+                indexOutput.writeInt(INDEX_FORMAT_VERSION, true);
                 indexOutput.writeInt(index.size(), true);
 
-                for (Map.Entry<Long, Map<Long, TestCaseRegion>> classEntry : index.entrySet()) {
+                for (Map.Entry<Long, Map<Long, TestCaseOffsets>> classEntry : index.entrySet()) {
                     Long classId = classEntry.getKey();
-                    Map<Long, TestCaseRegion> regions = classEntry.getValue();
+                    Map<Long, TestCaseOffsets> testCases = classEntry.getValue();
 
                     indexOutput.writeLong(classId, true);
-                    indexOutput.writeInt(regions.size(), true);
-
-                    for (Map.Entry<Long, TestCaseRegion> testCaseEntry : regions.entrySet()) {
-                        long id = testCaseEntry.getKey();
-                        TestCaseRegion region = testCaseEntry.getValue();
-                        indexOutput.writeLong(id, true);
-                        indexOutput.writeLong(region.stdOutRegion.start);
-                        indexOutput.writeLong(region.stdOutRegion.stop);
-                        indexOutput.writeLong(region.stdErrRegion.start);
-                        indexOutput.writeLong(region.stdErrRegion.stop);
+                    indexOutput.writeInt(testCases.size(), true);
+
+                    for (Map.Entry<Long, TestCaseOffsets> testCaseEntry : testCases.entrySet()) {
+                        indexOutput.writeLong(testCaseEntry.getKey(), true);
+                        testCaseEntry.getValue().stdOut.write(indexOutput);
+                        testCaseEntry.getValue().stdErr.write(indexOutput);
                     }
                 }
             } finally {
@@ -171,55 +291,14 @@ public class TestOutputStore {
         return new Writer();
     }
 
-    private static class Index {
-        final ImmutableMap<Long, Index> children;
-        final Region stdOut;
-        final Region stdErr;
-
-        private Index(Region stdOut, Region stdErr) {
-            this.children = ImmutableMap.of();
-            this.stdOut = stdOut;
-            this.stdErr = stdErr;
-        }
-
-        private Index(ImmutableMap<Long, Index> children, Region stdOut, Region stdErr) {
-            this.children = children;
-            this.stdOut = stdOut;
-            this.stdErr = stdErr;
-        }
-    }
-
-    private static class IndexBuilder {
-        final Region stdOut = new Region();
-        final Region stdErr = new Region();
-
-        private final ImmutableMap.Builder<Long, Index> children = ImmutableMap.builder();
-
-        void add(long key, Index index) {
-            if (stdOut.start < 0) {
-                stdOut.start = index.stdOut.start;
-            }
-            if (stdErr.start < 0) {
-                stdErr.start = index.stdErr.start;
-            }
-            if (index.stdOut.stop > stdOut.stop) {
-                stdOut.stop = index.stdOut.stop;
-            }
-            if (index.stdErr.stop > stdErr.stop) {
-                stdErr.stop = index.stdErr.stop;
-            }
-
-            children.put(key, index);
-        }
-
-        Index build() {
-            return new Index(children.build(), stdOut, stdErr);
-        }
-    }
-
+    /**
+     * Reads the output recorded by a {@link Writer}. The index is read once, when the reader is created. Output may be read concurrently
+     * by multiple threads.
+     */
     public class Reader implements Closeable {
-        private final Index index;
+        private final ImmutableMap<Long, ImmutableMap<Long, TestCaseOffsets>> index;
         private final RandomAccessFile dataFile;
+        private final FileChannel dataChannel;
 
         public Reader() {
             File indexFile = getIndexFile();
@@ -230,43 +309,13 @@ public class TestOutputStore {
                     throw new IllegalStateException(String.format("Test outputs data file '%s' exists but the index file '%s' does not", outputsFile, indexFile));
                 }
 
-                Input input;
+                index = readIndex(indexFile);
                 try {
-                    input = new Input(new FileInputStream(indexFile));
-                } catch (FileNotFoundException e) {
-                    throw new UncheckedIOException(e);
-                }
-
-                IndexBuilder rootBuilder = null;
-                try {
-                    int numClasses = input.readInt(true);
-                    rootBuilder = new IndexBuilder();
-
-                    for (int classCounter = 0; classCounter < numClasses; ++classCounter) {
-                        long classId = input.readLong(true);
-                        IndexBuilder classBuilder = new IndexBuilder();
-
-                        int numEntries = input.readInt(true);
-                        for (int entryCounter = 0; entryCounter < numEntries; ++entryCounter) {
-                            long testId = input.readLong(true);
-                            Region stdOut = new Region(input.readLong(), input.readLong());
-                            Region stdErr = new Region(input.readLong(), input.readLong());
-                            classBuilder.add(testId, new Index(stdOut, stdErr));
-                        }
-
-                        rootBuilder.add(classId, classBuilder.build());
-                    }
-                } finally {
-                    input.close();
-                }
-
-                index = rootBuilder.build();
-
-                try {
-                    dataFile = new RandomAccessFile(getOutputsFile(), "r");
+                    dataFile = new RandomAccessFile(outputsFile, "r");
                 } catch (FileNotFoundException e) {
                     throw new UncheckedIOException(e);
                 }
+                dataChannel = dataFile.getChannel();
             } else { // no outputs file
                 if (indexFile.exists()) {
                     throw new IllegalStateException(String.format("Test outputs data file '%s' does not exist but the index file '%s' does", outputsFile, indexFile));
@@ -274,6 +323,43 @@ public class TestOutputStore {
 
                 index = null;
                 dataFile = null;
+                dataChannel = null;
+            }
+        }
+
+        private ImmutableMap<Long, ImmutableMap<Long, TestCaseOffsets>> readIndex(File indexFile) {
+            Input input;
+            try {
+                input = new Input(new FileInputStream(indexFile));
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try {
+                int version = input.readInt(true);
+                if (version != INDEX_FORMAT_VERSION) {
+                    throw new IllegalStateException(String.format("Test outputs index file '%s' has unsupported format version %s", indexFile, version));
+                }
+
+                ImmutableMap.Builder<Long, ImmutableMap<Long, TestCaseOffsets>> classes = ImmutableMap.builder();
+                int numClasses = input.readInt(true);
+                for (int classCounter = 0; classCounter < numClasses; ++classCounter) {
+                    long classId = input.readLong(true);
+                    ImmutableMap.Builder<Long, TestCaseOffsets> testCases = ImmutableMap.builder();
+
+                    int numEntries = input.readInt(true);
+                    for (int entryCounter = 0; entryCounter < numEntries; ++entryCounter) {
+                        long testId = input.readLong(true);
+                        OffsetList stdOut = OffsetList.read(input);
+                        OffsetList stdErr = OffsetList.read(input);
+                        testCases.put(testId, new TestCaseOffsets(stdOut, stdErr));
+                    }
+
+                    classes.put(classId, testCases.build());
+                }
+                return classes.build();
+            } finally {
+                input.close();
             }
         }
 
@@ -289,13 +375,17 @@ public class TestOutputStore {
                 return false;
             }
 
-            Index classIndex = index.children.get(classId);
-            if (classIndex == null) {
+            ImmutableMap<Long, TestCaseOffsets> testCases = index.get(classId);
+            if (testCases == null) {
                 return false;
-            } else {
-                Region region = destination == TestOutputEvent.Destination.StdOut ? classIndex.stdOut : classIndex.stdErr;
-                return region.start >= 0;
             }
+            boolean stdout = destination == TestOutputEvent.Destination.StdOut;
+            for (TestCaseOffsets offsets : testCases.values()) {
+                if (!offsets.get(stdout).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         public void writeAllOutput(long classId, TestOutputEvent.Destination destination, java.io.Writer writer) {
@@ -315,70 +405,142 @@ public class TestOutputStore {
                 return;
             }
 
-            Index targetIndex = index.children.get(classId);
-            if (targetIndex != null && testId != 0) {
-                targetIndex = targetIndex.children.get(testId);
-            }
-
-            if (targetIndex == null) {
+            ImmutableMap<Long, TestCaseOffsets> testCases = index.get(classId);
+            if (testCases == null) {
                 return;
             }
 
             boolean stdout = destination == TestOutputEvent.Destination.StdOut;
-            Region region = stdout ? targetIndex.stdOut : targetIndex.stdErr;
+            long[] offsets;
+            if (allClassOutput) {
+                offsets = allOffsets(testCases, stdout);
+            } else {
+                TestCaseOffsets testCase = testCases.get(testId);
+                if (testCase == null) {
+                    return;
+                }
+                offsets = testCase.get(stdout).toArray();
+            }
 
-            if (region.start < 0) {
-                return;
+            try {
+                RecordReader recordReader = new RecordReader();
+                for (long offset : offsets) {
+                    recordReader.read(offset, writer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        }
 
-            boolean ignoreClassLevel = !allClassOutput && testId != 0;
-            boolean ignoreTestLevel = !allClassOutput && testId == 0;
+        /**
+         * Returns the offsets of all records for the given class and destination, in the order they were written.
+         */
+        private long[] allOffsets(ImmutableMap<Long, TestCaseOffsets> testCases, boolean stdout) {
+            if (testCases.size() == 1) {
+                return testCases.values().iterator().next().get(stdout).toArray();
+            }
+            long[][] perTestCase = new long[testCases.size()][];
+            int total = 0;
+            int i = 0;
+            for (TestCaseOffsets testCase : testCases.values()) {
+                perTestCase[i] = testCase.get(stdout).toArray();
+                total += perTestCase[i].length;
+                i++;
+            }
+            long[] offsets = new long[total];
+            int pos = 0;
+            for (long[] testCaseOffsets : perTestCase) {
+                System.arraycopy(testCaseOffsets, 0, offsets, pos, testCaseOffsets.length);
+                pos += testCaseOffsets.length;
+            }
+            Arrays.sort(offsets);
+            return offsets;
+        }
 
-            try {
-                dataFile.seek(region.start);
-                long maxPos = region.stop - region.start;
-                KryoBackedDecoder decoder = new KryoBackedDecoder(new RandomAccessFileInputStream(dataFile));
-                while (decoder.getReadPosition() <= maxPos) {
-                    boolean readStdout = decoder.readBoolean();
-                    long readClassId = decoder.readSmallLong();
-                    long readTestId = decoder.readSmallLong();
-                    int readLength = decoder.readSmallInt();
-
-                    boolean isClassLevel = readTestId == 0;
-
-                    if (stdout != readStdout || classId != readClassId) {
-                        decoder.skipBytes(readLength);
-                        continue;
-                    }
+        /**
+         * Reads records from the data file using positional reads, so that readers in different threads do not interfere. Records that
+         * are close together, which is the common case for the output of a single test, are served from the same window of the file.
+         */
+        private class RecordReader {
+            private final ByteBuffer window = ByteBuffer.allocate(READ_WINDOW_SIZE);
+            private long windowStart = -1;
+
+            void read(long offset, java.io.Writer writer) throws IOException {
+                fill(offset, MAX_RECORD_HEADER_LENGTH);
+                window.position((int) (offset - windowStart));
+
+                int flags = window.get();
+                int uncompressedLength = (flags & COMPRESSED_FLAG) != 0 ? readVarInt() : -1;
+                int length = readVarInt();
+
+                byte[] bytes = new byte[length];
+                if (window.remaining() >= length) {
+                    window.get(bytes);
+                } else {
+                    readFully(ByteBuffer.wrap(bytes), windowStart + window.position());
+                }
+                if (uncompressedLength >= 0) {
+                    bytes = decompress(bytes, uncompressedLength);
+                }
 
-                    if (ignoreClassLevel && isClassLevel) {
-                        decoder.skipBytes(readLength);
-                        continue;
-                    }
+                writer.write(new String(bytes, messageStorageCharset));
+            }
 
-                    if (ignoreTestLevel && !isClassLevel) {
-                        decoder.skipBytes(readLength);
-                        continue;
+            private void fill(long offset, int minimum) throws IOException {
+                if (windowStart >= 0 && offset >= windowStart && offset + minimum <= windowStart + window.limit()) {
+                    return;
+                }
+                window.clear();
+                windowStart = offset;
+                readFully(window, offset);
+                window.flip();
+            }
+
+            private void readFully(ByteBuffer buffer, long offset) throws IOException {
+                long position = offset;
+                while (buffer.hasRemaining()) {
+                    int read = dataChannel.read(buffer, position);
+                    if (read < 0) {
+                        break;
                     }
+                    position += read;
+                }
+            }
 
-                    if (testId == 0 || testId == readTestId) {
-                        byte[] stringBytes = new byte[readLength];
-                        decoder.readBytes(stringBytes);
-                        String message;
-                        try {
-                            message = new String(stringBytes, messageStorageCharset.name());
-                        } catch (UnsupportedEncodingException e) {
-                            // shouldn't happen
-                            throw UncheckedException.throwAsUncheckedException(e);
-                        }
+            private int readVarInt() {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = window.get();
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                return value;
+            }
 
-                        writer.write(message);
-                    } else {
-                        decoder.skipBytes(readLength);
+            private byte[] decompress(byte[] bytes, int uncompressedLength) {
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(bytes);
+                    byte[] result = new byte[uncompressedLength];
+                    int length = 0;
+                    while (length < uncompressedLength && !inflater.finished()) {
+                        int read = inflater.inflate(result, length, uncompressedLength - length);
+                        if (read == 0 && inflater.needsInput()) {
+                            break;
+                        }
+                        length += read;
+                    }
+                    if (length != uncompressedLength) {
+                        throw new IllegalStateException(String.format("Test outputs data file '%s' is corrupt", getOutputsFile()));
                     }
+                    return result;
+                } catch (DataFormatException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } finally {
+                    inflater.end();
                 }
-            } catch (IOException e1) {
-                throw new UncheckedIOException(e1);
             }
         }
     }
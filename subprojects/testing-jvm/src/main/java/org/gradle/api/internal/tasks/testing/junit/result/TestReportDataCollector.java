@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.tasks.testing.junit.result;
 
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
 import org.gradle.api.tasks.testing.*;
 import org.gradle.internal.serialize.PlaceholderException;
 
@@ -83,6 +84,33 @@ public class TestReportDataCollector implements TestListener, TestOutputListener
         classResult.add(methodResult);
     }
 
+    /**
+     * Adds the result of a test class that was not executed in this run, along with its output, as it was recorded by a previous run.
+     */
+    public void addPreviousResult(TestClassResult previous, TestOutputStore.Reader previousOutput) {
+        TestClassResult classResult = new TestClassResult(internalIdCounter++, previous.getClassName(), previous.getStartTime());
+        copyOutput(previousOutput, previous.getId(), 0, classResult.getId(), 0);
+        for (TestMethodResult previousMethod : previous.getResults()) {
+            TestMethodResult methodResult = new TestMethodResult(internalIdCounter++, previousMethod.getName(), previousMethod.getResultType(), previousMethod.getDuration(), previousMethod.getEndTime());
+            for (TestFailure failure : previousMethod.getFailures()) {
+                methodResult.addFailure(failure.getMessage(), failure.getStackTrace(), failure.getExceptionType());
+            }
+            copyOutput(previousOutput, previous.getId(), previousMethod.getId(), classResult.getId(), methodResult.getId());
+            classResult.add(methodResult);
+        }
+        results.put(classResult.getClassName(), classResult);
+    }
+
+    private void copyOutput(TestOutputStore.Reader previousOutput, long previousClassId, long previousTestId, long classId, long testId) {
+        for (TestOutputEvent.Destination destination : TestOutputEvent.Destination.values()) {
+            StringWriter output = new StringWriter();
+            previousOutput.writeTestOutput(previousClassId, previousTestId, destination, output);
+            if (output.getBuffer().length() > 0) {
+                outputWriter.onOutput(classId, testId, new DefaultTestOutputEvent(destination, output.toString()));
+            }
+        }
+    }
+
     private String failureMessage(Throwable throwable) {
         try {
             return throwable.toString();
@@ -63,7 +63,7 @@ public class TestNGTestFramework implements TestFramework {
             }
         });
         conventionMapOutputDirectory(options, testTask.getReports().getHtml());
-        detector = new TestNGDetector(new ClassFileExtractionManager(testTask.getTemporaryDirFactory()));
+        detector = new TestNGDetector(new ClassFileExtractionManager());
         classLoaderFactory = new TestClassLoaderFactory(classLoaderCache, testTask);
     }
 
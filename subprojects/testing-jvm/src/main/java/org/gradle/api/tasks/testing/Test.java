@@ -27,6 +27,7 @@ import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.FileTreeElementComparator;
 import org.gradle.api.internal.file.FileTreeElementHasher;
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderCache;
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.DefaultClassDependenciesAnalyzer;
 import org.gradle.api.internal.tasks.options.Option;
 import org.gradle.api.internal.tasks.testing.DefaultTestTaskReports;
 import org.gradle.api.internal.tasks.testing.NoMatchingTestsReporter;
@@ -35,6 +36,10 @@ import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.detection.DefaultTestExecuter;
 import org.gradle.api.internal.tasks.testing.detection.TestExecuter;
 import org.gradle.api.internal.tasks.testing.filter.DefaultTestFilter;
+import org.gradle.api.internal.tasks.testing.impact.ClasspathSnapshotter;
+import org.gradle.api.internal.tasks.testing.impact.ExecutionSettings;
+import org.gradle.api.internal.tasks.testing.impact.TestImpactAnalyzer;
+import org.gradle.api.internal.tasks.testing.impact.TestImpactSelection;
 import org.gradle.api.internal.tasks.testing.junit.JUnitTestFramework;
 import org.gradle.api.internal.tasks.testing.junit.report.DefaultTestReport;
 import org.gradle.api.internal.tasks.testing.junit.report.TestReporter;
@@ -140,6 +145,7 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
     private TestFramework testFramework;
     private boolean scanForTestClasses = true;
     private long forkEvery;
+    private boolean onlyRunImpactedTests;
     private int maxParallelForks = 1;
     private TestReporter testReporter;
 
@@ -537,6 +543,46 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         return this;
     }
 
+    private Map<String, TestClassResult> readPreviousResults(File binaryResultsDir) {
+        final Map<String, TestClassResult> previousResults = new HashMap<String, TestClassResult>();
+        try {
+            new TestResultSerializer(binaryResultsDir).read(new Action<TestClassResult>() {
+                @Override
+                public void execute(TestClassResult result) {
+                    previousResults.put(result.getClassName(), result);
+                }
+            });
+        } catch (RuntimeException e) {
+            getLogger().info("Could not read test results from previous run in {}. Test classes will be executed without information from that run.", binaryResultsDir, e);
+            previousResults.clear();
+        }
+        return previousResults;
+    }
+
+    private TestImpactSelection createImpactSelection(File previousResultsDir) {
+        if (!onlyRunImpactedTests || !getFilter().getIncludePatterns().isEmpty()) {
+            return null;
+        }
+        Set<File> testRuntimeClasspath = new LinkedHashSet<File>();
+        testRuntimeClasspath.add(getTestClassesDir());
+        testRuntimeClasspath.addAll(getClasspath().getFiles());
+        TestImpactAnalyzer analyzer = new TestImpactAnalyzer(new DefaultClassDependenciesAnalyzer(), new ClasspathSnapshotter());
+        return new TestImpactSelection(analyzer, testRuntimeClasspath, getExecutionSettings(), previousResultsDir);
+    }
+
+    private ExecutionSettings getExecutionSettings() {
+        return new ExecutionSettings()
+            .add("executable", getExecutable())
+            .add("jvmArgs", getAllJvmArgs())
+            .add("systemProperties", getSystemProperties())
+            .add("environment", getEnvironment())
+            .add("includes", getIncludes())
+            .add("excludes", getExcludes())
+            .add("scanForTestClasses", isScanForTestClasses())
+            .add("testFramework", getTestFramework().getClass().getName())
+            .addProperties("options", getOptions());
+    }
+
     @TaskAction
     public void executeTests() {
         LogLevel currentLevel = getCurrentLogLevel();
@@ -550,6 +596,21 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         }
 
         File binaryResultsDir = getBinResultsDir();
+        Map<String, TestClassResult> previousResults = readPreviousResults(binaryResultsDir);
+        Map<String, Long> previousDurations = new HashMap<String, Long>();
+        for (TestClassResult previousResult : previousResults.values()) {
+            previousDurations.put(previousResult.getClassName(), previousResult.getDuration());
+        }
+        File previousResultsDir = new File(getTemporaryDir(), "previousResults");
+        getProject().delete(previousResultsDir);
+        TestImpactSelection impactSelection = createImpactSelection(previousResultsDir);
+        if (impactSelection != null) {
+            if (getProject().getGradle().getStartParameter().isRerunTasks()) {
+                impactSelection.selectAll();
+            } else {
+                impactSelection.select(binaryResultsDir, previousResults);
+            }
+        }
         getProject().delete(binaryResultsDir);
         getProject().mkdir(binaryResultsDir);
 
@@ -570,11 +631,15 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         TestResultProcessor resultProcessor = new StateTrackingTestResultProcessor(testListenerInternalBroadcaster.getSource());
 
         if (testExecuter == null) {
-            testExecuter = new DefaultTestExecuter(getProcessBuilderFactory(), getActorFactory(), getModuleRegistry());
+            testExecuter = new DefaultTestExecuter(getProcessBuilderFactory(), getActorFactory(), getModuleRegistry(), getBuildOperationProcessor(), previousDurations,
+                impactSelection == null ? null : impactSelection.getSkippedClassFiles());
         }
 
         try {
             testExecuter.execute(this, resultProcessor);
+            if (impactSelection != null) {
+                impactSelection.addSkippedResults(testReportDataCollector);
+            }
         } finally {
             testExecuter = null;
             testListenerBroadcaster.removeAll();
@@ -584,6 +649,10 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         }
 
         new TestResultSerializer(binaryResultsDir).write(results.values());
+        if (impactSelection != null) {
+            impactSelection.writeSnapshot(binaryResultsDir);
+            getProject().delete(previousResultsDir);
+        }
 
         TestResultsProvider testResultsProvider = new InMemoryTestResultsProvider(results.values(), testOutputStore);
 
@@ -1035,6 +1104,32 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         this.scanForTestClasses = scanForTestClasses;
     }
 
+    /**
+     * Specifies whether only the test classes impacted by changes since the previous run should be executed. When {@code true}, a test class
+     * is skipped if it passed in the previous run and neither it nor any class it depends on has changed. The results of skipped test classes
+     * are carried over from the previous run, so that the reports remain complete. The default value is {@code false}.
+     *
+     * <p>Dependencies between classes are determined from the class files in the directories of the test runtime classpath. When a resource or a
+     * jar on the classpath changes, when the JVM arguments, system properties, environment, executable or test framework options change, when a
+     * filter is specified for the tests to execute, or when the task is forced to rerun, all test classes are executed. Dependencies that are
+     * not visible in class files, such as classes loaded reflectively, are not taken into account.</p>
+     */
+    @Incubating
+    @Input
+    public boolean isOnlyRunImpactedTests() {
+        return onlyRunImpactedTests;
+    }
+
+    /**
+     * Specifies whether only the test classes impacted by changes since the previous run should be executed.
+     *
+     * @see #isOnlyRunImpactedTests()
+     */
+    @Incubating
+    public void setOnlyRunImpactedTests(boolean onlyRunImpactedTests) {
+        this.onlyRunImpactedTests = onlyRunImpactedTests;
+    }
+
     /**
      * Returns the maximum number of test classes to execute in a forked test process. The forked test process will be restarted when this limit is reached. The default value is 0 (no maximum).
      *
@@ -27,6 +27,9 @@ import org.jmock.Sequence
 import org.gradle.api.file.FileTree
 import static org.hamcrest.Matchers.*
 import org.gradle.api.file.FileVisitDetails
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.operations.DefaultBuildOperationProcessor
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
 
 @RunWith(JMock.class)
 public class DefaultTestClassScannerTest {
@@ -55,4 +58,24 @@ public class DefaultTestClassScannerTest {
         
         scanner.run()
     }
+
+    @Test
+    public void passesEachClassFileToTestClassDetectorUsingBuildOperationProcessor() {
+        def buildOperationProcessor = new DefaultBuildOperationProcessor(new DefaultBuildOperationQueueFactory(), new DefaultExecutorFactory(), 2)
+        DefaultTestClassScanner scanner = new DefaultTestClassScanner(files, detector, processor, buildOperationProcessor)
+
+        context.checking {
+            one(files).visit(withParam(notNullValue()))
+            will { visitor ->
+                visitor.visitFile({new File('class1.class')} as FileVisitDetails)
+                visitor.visitFile({new File('class2.class')} as FileVisitDetails)
+                visitor.visitFile({new File('resource.txt')} as FileVisitDetails)
+            }
+            one(detector).startDetection(processor)
+            one(detector).processTestClass(new File('class1.class'))
+            one(detector).processTestClass(new File('class2.class'))
+        }
+
+        scanner.run()
+    }
 }
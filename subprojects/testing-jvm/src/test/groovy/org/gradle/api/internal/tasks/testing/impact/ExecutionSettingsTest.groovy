@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.impact
+
+import org.gradle.api.tasks.testing.junit.JUnitOptions
+import spock.lang.Specification
+
+class ExecutionSettingsTest extends Specification {
+    def "hash changes when a value changes"() {
+        expect:
+        settings([a: "1"]).hash == settings([a: "1"]).hash
+        settings([a: "1"]).hash != settings([a: "2"]).hash
+        new ExecutionSettings().add("jvmArgs", ["-Xmx1g"]).hash != new ExecutionSettings().add("jvmArgs", ["-Xmx2g"]).hash
+    }
+
+    def "order of map entries and set elements does not matter"() {
+        def map1 = new LinkedHashMap([a: "1", b: "2"])
+        def map2 = new LinkedHashMap([b: "2", a: "1"])
+
+        expect:
+        settings(map1).hash == settings(map2).hash
+        new ExecutionSettings().add("includes", new LinkedHashSet(["a", "b"])).hash == new ExecutionSettings().add("includes", new LinkedHashSet(["b", "a"])).hash
+    }
+
+    def "includes simple properties of an object"() {
+        def options1 = new JUnitOptions()
+        def options2 = new JUnitOptions()
+        options2.includeCategories("SlowTests")
+
+        expect:
+        new ExecutionSettings().addProperties("options", new JUnitOptions()).hash == new ExecutionSettings().addProperties("options", options1).hash
+        new ExecutionSettings().addProperties("options", options1).hash != new ExecutionSettings().addProperties("options", options2).hash
+    }
+
+    private static ExecutionSettings settings(Map<String, ?> systemProperties) {
+        return new ExecutionSettings().add("systemProperties", systemProperties)
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.tasks.testing.impact
+
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassAnalysis
+import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class TestImpactAnalyzerTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmp = new TestNameTestDirectoryProvider()
+
+    def dependencies = [:]
+    def classesDir = tmp.createDir("classes")
+    def jar = tmp.createFile("lib.jar")
+    def classpath = [classesDir, jar]
+    def analyzer = new TestImpactAnalyzer(Stub(ClassDependenciesAnalyzer) {
+        getClassAnalysis(_, _ as File) >> { String className, File file -> new ClassAnalysis(dependencies[className] as Set ?: [] as Set, className == "org.Constants") }
+    }, new ClasspathSnapshotter())
+
+    def setup() {
+        jar.text = "jar"
+        classFile("org.Foo", "foo")
+        classFile("org.FooTest", "foo test")
+        classFile("org.Bar", "bar")
+        classFile("org.BarTest", "bar test")
+        classFile("org.Constants", "constants")
+        dependencies["org.FooTest"] = ["org.Foo"]
+        dependencies["org.BarTest"] = ["org.Bar"]
+        dependencies["org.Bar"] = ["org.Constants"]
+    }
+
+    def "no classes are impacted when nothing has changed"() {
+        def previous = analyzer.snapshot(classpath)
+
+        expect:
+        analyzer.getImpactedClasses(previous, analyzer.snapshot(classpath), classpath).empty
+    }
+
+    def "changed class and its dependents are impacted"() {
+        def previous = analyzer.snapshot(classpath)
+
+        when:
+        classFile("org.Foo", "foo changed")
+
+        then:
+        analyzer.getImpactedClasses(previous, analyzer.snapshot(classpath), classpath) == ["org.Foo", "org.FooTest"] as Set
+    }
+
+    def "added and removed classes are impacted"() {
+        def previous = analyzer.snapshot(classpath)
+
+        when:
+        classesDir.file("org/Bar.class").delete()
+        classFile("org.Baz", "baz")
+
+        then:
+        analyzer.getImpactedClasses(previous, analyzer.snapshot(classpath), classpath) == ["org.Bar", "org.BarTest", "org.Baz"] as Set
+    }
+
+    def "all classes are impacted when a class that is a dependency to all changes"() {
+        def previous = analyzer.snapshot(classpath)
+
+        when:
+        classFile("org.Constants", "constants changed")
+
+        then:
+        analyzer.getImpactedClasses(previous, analyzer.snapshot(classpath), classpath) == null
+    }
+
+    def "all classes are impacted when a resource or jar changes"() {
+        def previous = analyzer.snapshot(classpath)
+
+        when:
+        change()
+
+        then:
+        analyzer.getImpactedClasses(previous, analyzer.snapshot(classpath), classpath) == null
+
+        where:
+        change << [
+            { classesDir.file("org/resource.txt").text = "resource" },
+            { jar.text = "changed jar" }
+        ]
+    }
+
+    def "snapshot can be written and read back"() {
+        def snapshot = analyzer.snapshot(classpath)
+        def file = tmp.file("snapshot.bin")
+
+        when:
+        snapshot.write(file)
+        def read = ClasspathSnapshot.read(file)
+
+        then:
+        read.getChangedClasses(snapshot).empty
+        !read.hasChangedOtherFiles(snapshot)
+    }
+
+    def "reads no snapshot when file does not exist"() {
+        expect:
+        ClasspathSnapshot.read(tmp.file("missing.bin")) == null
+    }
+
+    private void classFile(String className, String content) {
+        classesDir.file(className.replace('.', '/') + ".class").text = content
+    }
+}
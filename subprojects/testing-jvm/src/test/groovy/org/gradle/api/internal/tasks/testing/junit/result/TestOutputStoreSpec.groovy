@@ -169,6 +169,73 @@ class TestOutputStoreSpec extends WorkspaceTest {
         thrown(IllegalStateException)
     }
 
+    def "reads output of test interleaved with output of other tests"() {
+        when:
+        def writer = output.writer()
+        200.times {
+            writer.onOutput(1, 1, output(StdOut, "[a-$it]"))
+            writer.onOutput(2, 1, output(StdOut, "[b-$it]"))
+            writer.onOutput(1, 2, output(StdOut, "[c-$it]"))
+        }
+        writer.close()
+        def reader = output.reader()
+
+        then:
+        collectOutput(reader, 1, 2, StdOut) == (0..<200).collect { "[c-$it]" }.join("")
+        collectOutput(reader, 2, 1, StdOut) == (0..<200).collect { "[b-$it]" }.join("")
+        collectAllOutput(reader, 1, StdOut) == (0..<200).collect { "[a-$it][c-$it]" }.join("")
+
+        cleanup:
+        reader.close()
+    }
+
+    def "stores large output compressed"() {
+        def large = (1..10000).collect { "line $it\n" }.join("")
+
+        when:
+        def writer = output.writer()
+        writer.onOutput(1, 1, output(StdOut, "[before]"))
+        writer.onOutput(1, 1, output(StdOut, large))
+        writer.onOutput(1, 1, output(StdOut, "[after]"))
+        writer.close()
+        def reader = output.reader()
+
+        then:
+        output.outputsFile.length() < large.length()
+        collectOutput(reader, 1, 1, StdOut) == "[before]" + large + "[after]"
+
+        cleanup:
+        reader.close()
+    }
+
+    def "reader can be used concurrently"() {
+        def writer = output.writer()
+        100.times { classId ->
+            writer.onOutput(classId + 1, output(StdOut, "[class-${classId + 1}]"))
+            writer.onOutput(classId + 1, 1, output(StdOut, "[test-${classId + 1}]"))
+        }
+        writer.close()
+        def reader = output.reader()
+
+        when:
+        def results = Collections.synchronizedMap([:])
+        def threads = (1..4).collect { thread ->
+            Thread.start {
+                (1..100).each { classId ->
+                    results["$thread-$classId".toString()] = collectAllOutput(reader, classId, StdOut)
+                }
+            }
+        }
+        threads*.join()
+
+        then:
+        results.size() == 400
+        results.every { String key, String value -> def classId = key.split("-")[1]; value == "[class-${classId}][test-${classId}]".toString() }
+
+        cleanup:
+        reader.close()
+    }
+
     String collectAllOutput(TestOutputStore.Reader reader, long classId, TestOutputEvent.Destination destination) {
         def writer = new StringWriter()
         reader.writeAllOutput(classId, destination, writer)
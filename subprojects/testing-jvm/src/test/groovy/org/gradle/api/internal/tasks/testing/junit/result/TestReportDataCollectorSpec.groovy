@@ -219,4 +219,34 @@ class TestReportDataCollectorSpec extends Specification {
         then:
         results.get("FooTest").startTime == 100
     }
+
+    def "adds previous result with new ids and copies its output"() {
+        def previous = new TestClassResult(5, "FooTest", 100)
+        previous.add(new TestMethodResult(6, "testMethod", FAILURE, 50, 150).addFailure("message", "stackTrace", "java.lang.RuntimeException"))
+        TestOutputStore.Reader previousOutput = Mock()
+
+        when:
+        collector.addPreviousResult(previous, previousOutput)
+
+        then:
+        1 * previousOutput.writeTestOutput(5, 0, StdOut, _) >> { args -> args[3].write("class-out") }
+        1 * previousOutput.writeTestOutput(5, 6, StdErr, _) >> { args -> args[3].write("method-err") }
+        1 * writer.onOutput(1, 0, { it.destination == StdOut && it.message == "class-out" })
+        1 * writer.onOutput(1, 2, { it.destination == StdErr && it.message == "method-err" })
+        0 * writer._
+
+        and:
+        def fooTest = results["FooTest"]
+        fooTest.id == 1
+        fooTest.startTime == 100
+        fooTest.results.size() == 1
+        def method = fooTest.results.first()
+        method.id == 2
+        method.name == "testMethod"
+        method.resultType == FAILURE
+        method.duration == 50
+        method.endTime == 150
+        method.failures.size() == 1
+        method.failures.first().exceptionType == "java.lang.RuntimeException"
+    }
 }